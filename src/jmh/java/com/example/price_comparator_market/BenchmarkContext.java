@@ -0,0 +1,29 @@
+package com.example.price_comparator_market;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application without a web server against a private in-memory H2 database,
+ * for benchmarks that need the real repositories and services.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String name) {
+        return new SpringApplicationBuilder(PriceComparatorMarketApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "db_url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "db_username=sa",
+                        "db_password=",
+                        "catalog.file=",
+                        "startup.async=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.price_comparator_market;
+
+import com.example.price_comparator_market.service.CsvImportService;
+import com.example.price_comparator_market.service.CurrencyConversionService;
+import com.example.price_comparator_market.synthetic.MarketDataGenerator;
+import com.example.price_comparator_market.synthetic.MarketDataSpec;
+import com.example.price_comparator_market.synthetic.MarketDataset;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Application context with about {@code products} rows of {@link MarketDataGenerator} data imported and
+ * published, shared by the service benchmarks. Override the size with
+ * {@code ./gradlew jmh -PcatalogSizes=1000,1000000}.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    public static final int STORES = 5;
+
+    @Param({"10000", "100000"})
+    public int products;
+
+    public ConfigurableApplicationContext context;
+
+    public MarketDataGenerator generator;
+
+    public MarketDataset dataset;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        MarketDataSpec spec = spec(products);
+        generator = new MarketDataGenerator(spec);
+        dataset = generator.write(Files.createTempDirectory("market-data"));
+        context = BenchmarkContext.start("catalog-" + products);
+        context.getBean(CurrencyConversionService.class).loadRates(dataset.ratesFile());
+        context.getBean(CsvImportService.class).importCsvFiles(dataset.importOrder());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataset.dir());
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * @return a single-snapshot dataset of about {@code products} rows over {@link #STORES} stores
+     */
+    public static MarketDataSpec spec(int products) {
+        MarketDataSpec defaults = MarketDataSpec.defaults();
+        return defaults.withStores(STORES)
+                .withSkus(Math.max(1, (int) (products / (STORES * defaults.assortment()))));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.price_comparator_market.load;
+
+import com.example.price_comparator_market.PriceComparatorMarketApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load test comparing request handling on Tomcat's platform-thread pool with
+ * virtual threads ({@code spring.threads.virtual.enabled}).
+ *
+ * <p>For each mode the application is started on a random port against its own in-memory database,
+ * awaited until its readiness probe reports UP (which includes the built-in warm-up), then hit by
+ * {@code concurrency} clients cycling through {@link #CALLS} for {@code seconds}.
+ * Throughput and p50/p99/max latency are printed per mode. Run with
+ * {@code ./gradlew loadTest -Pconcurrency=200 -Pseconds=20}.</p>
+ */
+public final class ThreadModeLoadTest {
+
+    /**
+     * A request path, with header names and values in pairs.
+     */
+    private record Call(String path, String... headers) {
+    }
+
+    private static final List<Call> CALLS = List.of(
+            new Call("/api/products/1"),
+            new Call("/api/discounts/1"),
+            new Call("/api/discounts/best", "date", "2025-05-08"),
+            new Call("/api/products/substitutes?productName=lapte%20zuzu"),
+            new Call("/api/stores")
+    );
+
+    private ThreadModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            ConfigurableApplicationContext context = start(virtualThreads);
+            try {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                awaitReady(baseUrl);
+                results.add(run(baseUrl, concurrency, seconds).named(virtualThreads ? "virtual" : "platform"));
+            } finally {
+                context.close();
+            }
+        }
+
+        System.out.printf("%nconcurrency=%d, duration=%ds%n", concurrency, seconds);
+        System.out.printf("%-10s %12s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %12.1f %10.2f %10.2f %10.2f %8d%n", result.mode(), result.throughput(),
+                    result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0),
+                    result.errors());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(PriceComparatorMarketApplication.class)
+                .properties(
+                        "db_url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "db_username=sa",
+                        "db_password=",
+                        "virtual_threads=" + virtualThreads,
+                        "server.port=0",
+                        "catalog.file=",
+                        "logging.level.root=WARN"
+                )
+                .run();
+    }
+
+    private static void awaitReady(String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(5).toNanos();
+        while (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Application did not become ready within 5 minutes");
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    private static Result run(String baseUrl, int concurrency, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<HttpRequest> requests = CALLS.stream()
+                .map(call -> {
+                    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + call.path())).GET();
+                    return call.headers().length > 0 ? request.headers(call.headers()).build() : request.build();
+                })
+                .toList();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<Latencies>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int offset = i;
+                workers.add(executor.submit(() -> {
+                    Latencies latencies = new Latencies();
+                    for (int n = offset; System.nanoTime() < deadline; n++) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(requests.get(n % requests.size()),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                latencies.errors++;
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            latencies.errors++;
+                            continue;
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    return latencies;
+                }));
+            }
+        }
+
+        Latencies all = new Latencies();
+        for (Future<Latencies> worker : workers) {
+            all.addAll(worker.get());
+        }
+        return new Result(null, all.sorted(), all.errors, seconds);
+    }
+
+    private static final class Latencies {
+
+        private long[] nanos = new long[1024];
+
+        private int size;
+
+        private long errors;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i]);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private record Result(String mode, long[] sortedNanos, long errors, int seconds) {
+
+        Result named(String mode) {
+            return new Result(mode, sortedNanos, errors, seconds);
+        }
+
+        double throughput() {
+            return (double) sortedNanos.length / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.price_comparator_market.pricing;
+
+import com.example.price_comparator_market.model.Currency;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of normalizing a basket batch of one million prices to a target currency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyConversionBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    private final long[] prices = new long[SIZE];
+    private final Currency[] currencies = new Currency[SIZE];
+    private CurrencyConverter converter;
+
+    @Setup
+    public void setUp() {
+        Map<LocalDate, Map<Currency, BigDecimal>> quotes = new HashMap<>();
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int day = 0; day < 365; day++) {
+            Map<Currency, BigDecimal> rates = new EnumMap<>(Currency.class);
+            rates.put(Currency.EUR, BigDecimal.valueOf(49_700 + day, 4));
+            rates.put(Currency.USD, BigDecimal.valueOf(43_900 + day, 4));
+            quotes.put(start.plusDays(day), rates);
+        }
+        converter = ExchangeRateTable.of(quotes).converter(LocalDate.of(2025, 5, 8), Currency.RON);
+
+        SplittableRandom random = new SplittableRandom(42);
+        Currency[] values = Currency.values();
+        for (int i = 0; i < SIZE; i++) {
+            prices[i] = random.nextLong(100, 50_000);
+            currencies[i] = values[random.nextInt(values.length)];
+        }
+    }
+
+    @Benchmark
+    public long cheapestWithoutConversion() {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SIZE; i++) {
+            best = Math.min(best, prices[i]);
+        }
+        return best;
+    }
+
+    @Benchmark
+    public long cheapestWithConversion() {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SIZE; i++) {
+            best = Math.min(best, converter.convert(prices[i], currencies[i]));
+        }
+        return best;
+    }
+}
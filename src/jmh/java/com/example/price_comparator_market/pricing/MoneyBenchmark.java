@@ -0,0 +1,65 @@
+package com.example.price_comparator_market.pricing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy {@code BigDecimal} effective-price formula with {@link Money}.
+ *
+ * <p>Run with {@code ./gradlew jmh}; the {@code gc} profiler reports
+ * {@code gc.alloc.rate.norm}, the bytes allocated per evaluated price.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final BigDecimal[] prices = new BigDecimal[SIZE];
+    private final BigDecimal[] percentages = new BigDecimal[SIZE];
+    private final BigDecimal[] quantities = new BigDecimal[SIZE];
+    private final long[] minorPrices = new long[SIZE];
+    private final int[] basisPoints = new int[SIZE];
+    private final long[] milliQuantities = new long[SIZE];
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < SIZE; i++) {
+            prices[i] = BigDecimal.valueOf(random.nextLong(100, 50_000), 2);
+            percentages[i] = BigDecimal.valueOf(random.nextInt(1, 60));
+            quantities[i] = BigDecimal.valueOf(random.nextInt(100, 2_000), 3);
+            minorPrices[i] = Money.toMinor(prices[i]);
+            basisPoints[i] = Money.toBasisPoints(percentages[i]);
+            milliQuantities[i] = Money.toMilli(quantities[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void bigDecimalEffectivePrice(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            BigDecimal price = prices[i];
+            BigDecimal finalPrice = price.subtract(price.multiply(percentages[i]).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
+            blackhole.consume(finalPrice.divide(quantities[i], 2, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void moneyEffectivePrice(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            long finalPrice = Money.applyDiscount(minorPrices[i], basisPoints[i]);
+            blackhole.consume(Money.perUnit(finalPrice, milliQuantities[i]));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.CatalogState;
+import com.example.price_comparator_market.dto.AlertRequestDTO;
+import com.example.price_comparator_market.model.Alert;
+import com.example.price_comparator_market.repository.AlertRepository;
+import com.example.price_comparator_market.synthetic.MarketDataGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One run of the scheduled alert job over {@code alerts} active alerts.
+ *
+ * <p>Alerts watch the generated workload's products, but target prices are set below every generated price
+ * so no alert fires and each invocation does the same work, which is also the common case in production.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertBenchmark {
+
+    @Param({"1000"})
+    private int alerts;
+
+    private AlertService alertService;
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        alertService = catalog.bean(AlertService.class);
+        AlertRepository alertRepository = catalog.bean(AlertRepository.class);
+        alertRepository.deleteAll();
+        MarketDataGenerator generator = new MarketDataGenerator(CatalogState.spec(catalog.products).withAlerts(alerts));
+        for (AlertRequestDTO request : generator.alerts()) {
+            Alert alert = new Alert();
+            alert.setProductName(request.getProductName());
+            alert.setTargetPrice(new BigDecimal("0.01"));
+            alertRepository.save(alert);
+        }
+    }
+
+    @Benchmark
+    public void processAlerts() {
+        alertService.processAlerts();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.CatalogState;
+import com.example.price_comparator_market.dto.BasketRequestDTO;
+import com.example.price_comparator_market.dto.BasketResponseDTO;
+import com.example.price_comparator_market.synthetic.MarketDataGenerator;
+import com.example.price_comparator_market.synthetic.MarketDataSpec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasketOptimizerBenchmark {
+
+    @Param({"10", "100"})
+    private int basketSize;
+
+    private BasketOptimizerService basketOptimizerService;
+    private BasketRequestDTO request;
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        basketOptimizerService = catalog.bean(BasketOptimizerService.class);
+        // Only the workload is regenerated; the catalog part of the spec must match the imported data.
+        MarketDataSpec spec = CatalogState.spec(catalog.products)
+                .withBaskets(1)
+                .withBasketSize(basketSize);
+        request = new MarketDataGenerator(spec).baskets().getFirst();
+    }
+
+    @Benchmark
+    public BasketResponseDTO optimizeBasket() {
+        return basketOptimizerService.optimizeBasket(request, null);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.BenchmarkContext;
+import com.example.price_comparator_market.CatalogState;
+import com.example.price_comparator_market.synthetic.MarketDataGenerator;
+import com.example.price_comparator_market.synthetic.MarketDataset;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses and upserts one generated store price file through {@link CsvImportService#importCsv}.
+ *
+ * <p>The first invocation inserts the rows, later ones merge them in place, which is the steady state of
+ * a daily re-import. Divide {@code products} by the number of stores for the rows per file.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CsvImportBenchmark {
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private CsvImportService csvImportService;
+    private Path dir;
+    private Path priceFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("csv-import");
+        MarketDataset dataset = new MarketDataGenerator(CatalogState.spec(products).withAlerts(0).withBaskets(0))
+                .write(dir);
+        priceFile = dataset.priceFiles().getFirst();
+        context = BenchmarkContext.start("csv-import-" + products);
+        csvImportService = context.getBean(CsvImportService.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void importPriceFile() {
+        csvImportService.importCsv(priceFile);
+    }
+}
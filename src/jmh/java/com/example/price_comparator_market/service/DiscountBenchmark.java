@@ -0,0 +1,38 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.CatalogState;
+import com.example.price_comparator_market.dto.BestDiscountDTO;
+import com.example.price_comparator_market.model.Currency;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountBenchmark {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 5, 8);
+
+    private DiscountService discountService;
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        discountService = catalog.bean(DiscountService.class);
+    }
+
+    @Benchmark
+    public List<BestDiscountDTO> bestDiscounts() {
+        return discountService.getBestDiscounts(DAY, Currency.RON);
+    }
+
+    @Benchmark
+    public List<BestDiscountDTO> bestDiscountsConverted() {
+        return discountService.getBestDiscounts(DAY, Currency.EUR);
+    }
+}
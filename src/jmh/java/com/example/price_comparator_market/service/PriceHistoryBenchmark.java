@@ -0,0 +1,49 @@
+package com.example.price_comparator_market.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PriceHistoryService#mergeIntervals} over {@code intervals} random discount windows spread across
+ * {@code spanDays}, the per-product step of the price history endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceHistoryBenchmark {
+
+    @Param({"3", "30"})
+    private int intervals;
+
+    @Param({"90", "365"})
+    private int spanDays;
+
+    private PriceHistoryService priceHistoryService;
+    private List<PriceHistoryService.Interval> input;
+
+    @Setup
+    public void setUp() {
+        priceHistoryService = new PriceHistoryService(null);
+        SplittableRandom random = new SplittableRandom(3);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        input = new ArrayList<>(intervals);
+        for (int i = 0; i < intervals; i++) {
+            LocalDate from = start.plusDays(random.nextInt(spanDays));
+            input.add(new PriceHistoryService.Interval(from, from.plusDays(random.nextInt(1, 21)),
+                    random.nextInt(5, 60) * 100));
+        }
+    }
+
+    @Benchmark
+    public List<PriceHistoryService.Interval> mergeIntervals() {
+        return priceHistoryService.mergeIntervals(input);
+    }
+}
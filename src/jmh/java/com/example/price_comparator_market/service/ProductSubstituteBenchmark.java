@@ -0,0 +1,30 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.CatalogState;
+import com.example.price_comparator_market.dto.ProductSubstitutesResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSubstituteBenchmark {
+
+    private ProductSubstituteService productSubstituteService;
+    private String productName;
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        productSubstituteService = catalog.bean(ProductSubstituteService.class);
+        productName = catalog.dataset.baskets().getFirst().getProducts().getFirst();
+    }
+
+    @Benchmark
+    public ProductSubstitutesResponseDTO substitutes() {
+        return productSubstituteService.getProductsByProductName(productName, null, null);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.BenchmarkContext;
+import com.example.price_comparator_market.dto.ProductDTO;
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.Product;
+import com.example.price_comparator_market.model.Store;
+import com.example.price_comparator_market.repository.ProductRepository;
+import com.example.price_comparator_market.repository.StoreRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways the product list endpoint has been served: {@code entityHydration} is the old
+ * {@code findAll()} + copy path, {@code projection} maps the {@code findAllViews()} DTO projection, and
+ * {@code snapshot} is the current {@link ProductService#getAllProducts(LocalDate)} reading the in-memory
+ * catalog snapshot. Compare {@code gc.alloc.rate.norm} for heap churn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadEndpointBenchmark {
+
+    @Param({"1000", "50000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductService productService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("read-endpoints-" + products);
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+
+        Store store = new Store();
+        store.setName("Benchmark");
+        store = context.getBean(StoreRepository.class).save(store);
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            batch.add(new Product(null, "B" + i, "product " + i, "category " + (i % 20), "brand " + (i % 50),
+                    BigDecimal.ONE, "kg", BigDecimal.valueOf(100 + i % 5000, 2), Currency.RON, store, null));
+        }
+        productRepository.upsertAll(batch);
+        context.getBean(CatalogService.class).refresh();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> entityHydration() {
+        return productRepository.findAll().stream()
+                .map(product -> {
+                    ProductDTO dto = new ProductDTO();
+                    dto.setProductId(product.getProductId());
+                    dto.setProductName(product.getProductName());
+                    dto.setProductCategory(product.getProductCategory());
+                    dto.setBrand(product.getBrand());
+                    dto.setPackageQuantity(product.getPackageQuantity());
+                    dto.setPackageUnit(product.getPackageUnit());
+                    dto.setPrice(product.getPrice());
+                    dto.setCurrency(product.getCurrency());
+                    dto.setStoreName(product.getStore().getName());
+                    return dto;
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public List<ProductDTO> projection() {
+        return productRepository.findAllViews().stream()
+                .map(product -> {
+                    ProductDTO dto = new ProductDTO();
+                    dto.setProductId(product.productId());
+                    dto.setProductName(product.productName());
+                    dto.setProductCategory(product.productCategory());
+                    dto.setBrand(product.brand());
+                    dto.setPackageQuantity(product.packageQuantity());
+                    dto.setPackageUnit(product.packageUnit());
+                    dto.setPrice(product.price());
+                    dto.setCurrency(product.currency());
+                    dto.setStoreName(product.storeName());
+                    return dto;
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public List<ProductDTO> snapshot() {
+        return productService.getAllProducts(null);
+    }
+}
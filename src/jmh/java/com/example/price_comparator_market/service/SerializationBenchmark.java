@@ -0,0 +1,86 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.BenchmarkContext;
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.dto.BasketRequestDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the large response payloads in JSON and in CBOR with stringref.
+ *
+ * <p>Each endpoint's DTO is computed once in setup from the sample catalog; the benchmark measures only
+ * {@code writeValueAsBytes} with the application's own mappers. The {@code payloadBytes} counter reports
+ * the encoded size (bytes on the wire before compression) next to the timing.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"basket", "priceHistory", "substitutes", "bestDiscounts"})
+    private String endpoint;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper mapper;
+    private Object payload;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("serialization-" + endpoint + "-" + format);
+        mapper = "cbor".equals(format)
+                ? context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper()
+                : context.getBean(ObjectMapper.class);
+
+        CatalogService catalogService = context.getBean(CatalogService.class);
+        String productName = catalogService.current().products().getFirst().productName();
+        payload = switch (endpoint) {
+            case "basket" -> {
+                BasketRequestDTO request = new BasketRequestDTO();
+                request.setProducts(catalogService.current().products().stream()
+                        .map(CatalogProduct::productName)
+                        .distinct()
+                        .toList());
+                yield context.getBean(BasketOptimizerService.class).optimizeBasket(request, null);
+            }
+            case "priceHistory" -> context.getBean(PriceHistoryService.class)
+                    .getPriceHistory(productName, Optional.empty(), Optional.empty(), Optional.empty());
+            case "substitutes" -> context.getBean(ProductSubstituteService.class)
+                    .getProductsByProductName(productName, null, null);
+            case "bestDiscounts" -> context.getBean(DiscountService.class)
+                    .getBestDiscounts(LocalDate.of(2025, 5, 8), null);
+            default -> throw new IllegalArgumentException(endpoint);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialize(Size size) throws JsonProcessingException {
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        size.payloadBytes = bytes.length;
+        return bytes;
+    }
+}
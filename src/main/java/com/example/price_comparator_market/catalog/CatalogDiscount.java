@@ -0,0 +1,40 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.pricing.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Immutable discount row of a {@link CatalogSnapshot}, with the percentage in basis points and
+ * the package quantity in thousandths of a unit (see {@link Money}).
+ */
+public record CatalogDiscount(
+        String storeName,
+        String productId,
+        String productName,
+        String brand,
+        long quantityMilli,
+        String packageUnit,
+        String productCategory,
+        LocalDate fromDate,
+        LocalDate toDate,
+        int basisPoints
+) {
+
+    /**
+     * @param date the day to check
+     * @return whether the discount applies on {@code date}; both bounds are inclusive
+     */
+    public boolean isActiveOn(LocalDate date) {
+        return !date.isBefore(fromDate) && !date.isAfter(toDate);
+    }
+
+    public BigDecimal packageQuantity() {
+        return Money.toQuantity(quantityMilli);
+    }
+
+    public BigDecimal percentageOfDiscount() {
+        return Money.toPercentage(basisPoints);
+    }
+}
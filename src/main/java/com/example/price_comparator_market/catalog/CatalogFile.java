@@ -0,0 +1,496 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Compact columnar file holding a whole {@link CatalogSnapshot}, memory-mapped on startup.
+ *
+ * <p>The file is laid out as a header with the row counts and the {@link Source} the catalog was built from,
+ * a string dictionary (an offset table followed by the UTF-8 bytes of every distinct string), a per-store
+ * table giving each store's product and discount row ranges, one column per product and discount field, and
+ * finally the product name index. Strings are stored as dictionary references ({@code -1} for {@code null}),
+ * prices and quantities as {@code long} minor units and thousandths, dates as epoch days and discounts as
+ * basis points.</p>
+ *
+ * <p>{@link #map(Path)} only reads the header and the store table; product and discount rows are decoded
+ * from the mapping when they are accessed. Opening a catalog therefore costs the same regardless of its
+ * size, and its rows stay off-heap in the OS page cache. A file is limited to 2 GiB, the largest region a
+ * single {@link MappedByteBuffer} can address.</p>
+ */
+public final class CatalogFile {
+
+    private static final long MAGIC = 0x50434D4341543032L; // "PCMCAT02"
+
+    private static final int HEADER_BYTES = 7 * Long.BYTES + 5 * Integer.BYTES;
+
+    private static final long NO_FEED_DATE = Long.MIN_VALUE;
+
+    private static final int STORE_BYTES = Long.BYTES + 5 * Integer.BYTES;
+
+    // Start of each product column, in bytes per row of the columns before it.
+    private static final int P_STORE = 0;
+    private static final int P_ID = 4;
+    private static final int P_NAME = 8;
+    private static final int P_CATEGORY = 12;
+    private static final int P_BRAND = 16;
+    private static final int P_UNIT = 20;
+    private static final int P_QUANTITY = 24;
+    private static final int P_PRICE = 32;
+    private static final int P_CURRENCY = 40;
+    private static final int PRODUCT_BYTES = 41;
+
+    // Start of each discount column, in bytes per row of the columns before it.
+    private static final int D_STORE = 0;
+    private static final int D_ID = 4;
+    private static final int D_NAME = 8;
+    private static final int D_BRAND = 12;
+    private static final int D_UNIT = 16;
+    private static final int D_CATEGORY = 20;
+    private static final int D_FROM = 24;
+    private static final int D_TO = 28;
+    private static final int D_BASIS_POINTS = 32;
+    private static final int D_QUANTITY = 36;
+    private static final int DISCOUNT_BYTES = 44;
+
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private CatalogFile() {
+    }
+
+    /**
+     * What a catalog file was built from: a fingerprint of the CSV files the startup import reads, and the
+     * row counts and latest price feed date of the database the snapshot was read from.
+     * <p>
+     * A restart may serve the file without importing only if its source still equals the current one;
+     * otherwise new or changed CSV files, or a database that has moved on, would go unnoticed.
+     *
+     * @param csvFiles       fingerprint of the names, sizes and modification times of the CSV files
+     * @param products       product rows in the database
+     * @param discounts      discount rows in the database
+     * @param priceChanges   price change rows in the database
+     * @param latestFeedDate the latest product feed date in the database, or {@code null} if there is none
+     */
+    public record Source(long csvFiles, long products, long discounts, long priceChanges,
+                         LocalDate latestFeedDate) {
+    }
+
+    /**
+     * Writes a snapshot to a catalog file.
+     * <p>
+     * The file is written next to {@code path} and then atomically moved over it, so a crash mid-write
+     * leaves the previous catalog in place, and snapshots already mapped from the old file stay valid.
+     *
+     * @param snapshot the snapshot to persist
+     * @param source   what the snapshot was built from
+     * @param path     the catalog file to create or replace
+     * @throws IOException if the file cannot be written or the catalog exceeds 2 GiB
+     */
+    public static void write(CatalogSnapshot snapshot, Source source, Path path) throws IOException {
+        List<CatalogStore> stores = snapshot.stores();
+        List<CatalogProduct> products = snapshot.products();
+        List<CatalogDiscount> discounts = snapshot.discounts();
+
+        Map<String, Integer> storeIndex = new HashMap<>();
+        for (int i = 0; i < stores.size(); i++) {
+            storeIndex.put(stores.get(i).name(), i);
+        }
+        Dictionary dictionary = new Dictionary();
+        stores.forEach(store -> dictionary.ref(store.name()));
+        for (CatalogProduct product : products) {
+            dictionary.ref(product.productId());
+            dictionary.ref(product.productName());
+            dictionary.ref(product.productCategory());
+            dictionary.ref(product.brand());
+            dictionary.ref(product.packageUnit());
+        }
+        for (CatalogDiscount discount : discounts) {
+            dictionary.ref(discount.productId());
+            dictionary.ref(discount.productName());
+            dictionary.ref(discount.brand());
+            dictionary.ref(discount.packageUnit());
+            dictionary.ref(discount.productCategory());
+        }
+
+        Layout layout = new Layout(dictionary.size(), dictionary.bytes(), stores.size(), products.size(),
+                discounts.size());
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, layout.size());
+                buffer.putLong(0, MAGIC);
+                buffer.putLong(8, snapshot.version());
+                buffer.putInt(16, layout.dictionaryCount());
+                buffer.putInt(20, layout.dictionaryBytes());
+                buffer.putInt(24, layout.storeCount());
+                buffer.putInt(28, layout.productCount());
+                buffer.putInt(32, layout.discountCount());
+                buffer.putLong(36, source.csvFiles());
+                buffer.putLong(44, source.products());
+                buffer.putLong(52, source.discounts());
+                buffer.putLong(60, source.priceChanges());
+                buffer.putLong(68, source.latestFeedDate() != null ? source.latestFeedDate().toEpochDay()
+                        : NO_FEED_DATE);
+
+                dictionary.writeTo(buffer, layout.dictionaryOffsets(), layout.dictionaryData());
+
+                for (int i = 0; i < stores.size(); i++) {
+                    CatalogStore store = stores.get(i);
+                    CatalogSnapshot.StoreRows rows = snapshot.storeRows(store.name());
+                    int at = layout.stores() + i * STORE_BYTES;
+                    buffer.putLong(at, store.id() != null ? store.id() : -1);
+                    buffer.putInt(at + 8, dictionary.ref(store.name()));
+                    buffer.putInt(at + 12, rows.productFrom());
+                    buffer.putInt(at + 16, rows.productTo());
+                    buffer.putInt(at + 20, rows.discountFrom());
+                    buffer.putInt(at + 24, rows.discountTo());
+                }
+
+                Columns p = new Columns(buffer, layout.products(), products.size());
+                for (int row = 0; row < products.size(); row++) {
+                    CatalogProduct product = products.get(row);
+                    p.putInt(P_STORE, row, storeOf(storeIndex, product.storeName()));
+                    p.putInt(P_ID, row, dictionary.ref(product.productId()));
+                    p.putInt(P_NAME, row, dictionary.ref(product.productName()));
+                    p.putInt(P_CATEGORY, row, dictionary.ref(product.productCategory()));
+                    p.putInt(P_BRAND, row, dictionary.ref(product.brand()));
+                    p.putInt(P_UNIT, row, dictionary.ref(product.packageUnit()));
+                    p.putLong(P_QUANTITY, row, product.quantityMilli());
+                    p.putLong(P_PRICE, row, product.priceMinor());
+                    p.putByte(P_CURRENCY, row, product.currency() != null ? product.currency().ordinal() : -1);
+                }
+
+                Columns d = new Columns(buffer, layout.discounts(), discounts.size());
+                for (int row = 0; row < discounts.size(); row++) {
+                    CatalogDiscount discount = discounts.get(row);
+                    d.putInt(D_STORE, row, storeOf(storeIndex, discount.storeName()));
+                    d.putInt(D_ID, row, dictionary.ref(discount.productId()));
+                    d.putInt(D_NAME, row, dictionary.ref(discount.productName()));
+                    d.putInt(D_BRAND, row, dictionary.ref(discount.brand()));
+                    d.putInt(D_UNIT, row, dictionary.ref(discount.packageUnit()));
+                    d.putInt(D_CATEGORY, row, dictionary.ref(discount.productCategory()));
+                    d.putInt(D_FROM, row, Math.toIntExact(discount.fromDate().toEpochDay()));
+                    d.putInt(D_TO, row, Math.toIntExact(discount.toDate().toEpochDay()));
+                    d.putInt(D_BASIS_POINTS, row, discount.basisPoints());
+                    d.putLong(D_QUANTITY, row, discount.quantityMilli());
+                }
+
+                IntBuffer nameIndex = snapshot.productRowsByName();
+                for (int i = 0; i < products.size(); i++) {
+                    buffer.putInt(layout.nameIndex() + i * Integer.BYTES, nameIndex.get(i));
+                }
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Memory-maps a catalog file as a snapshot.
+     *
+     * @param path the catalog file written by {@link #write(CatalogSnapshot, Path)}
+     * @return a snapshot decoding its rows from the mapping
+     * @throws IOException if the file cannot be read or is not a complete catalog file
+     */
+    public static CatalogSnapshot map(Path path) throws IOException {
+        MappedByteBuffer buffer = mapFile(path);
+        long version = buffer.getLong(8);
+        Layout layout = new Layout(buffer.getInt(16), buffer.getInt(20), buffer.getInt(24), buffer.getInt(28),
+                buffer.getInt(32));
+        if (layout.size() != buffer.capacity()) {
+            throw new IOException("Truncated catalog file: " + path);
+        }
+
+        Strings strings = new Strings(buffer, layout.dictionaryOffsets(), layout.dictionaryData());
+        List<CatalogStore> stores = new ArrayList<>(layout.storeCount());
+        String[] storeNames = new String[layout.storeCount()];
+        Map<String, CatalogSnapshot.StoreRows> rowsByStore = new HashMap<>(layout.storeCount() * 2);
+        for (int i = 0; i < layout.storeCount(); i++) {
+            int at = layout.stores() + i * STORE_BYTES;
+            long id = buffer.getLong(at);
+            storeNames[i] = strings.get(buffer.getInt(at + 8));
+            stores.add(new CatalogStore(id >= 0 ? id : null, storeNames[i]));
+            rowsByStore.put(storeNames[i], new CatalogSnapshot.StoreRows(buffer.getInt(at + 12),
+                    buffer.getInt(at + 16), buffer.getInt(at + 20), buffer.getInt(at + 24)));
+        }
+
+        List<CatalogProduct> products = new MappedProducts(
+                new Columns(buffer, layout.products(), layout.productCount()), strings, storeNames);
+        List<CatalogDiscount> discounts = new MappedDiscounts(
+                new Columns(buffer, layout.discounts(), layout.discountCount()), strings, storeNames);
+        IntBuffer nameIndex = buffer.slice(layout.nameIndex(), layout.productCount() * Integer.BYTES).asIntBuffer();
+        return new CatalogSnapshot(version, List.copyOf(stores), products, discounts, rowsByStore, nameIndex);
+    }
+
+    /**
+     * Reads what a catalog file was built from, without mapping its rows.
+     *
+     * @param path the catalog file written by {@link #write(CatalogSnapshot, Source, Path)}
+     * @return the source recorded in its header
+     * @throws IOException if the file cannot be read or is not a catalog file
+     */
+    public static Source source(Path path) throws IOException {
+        ByteBuffer buffer = mapFile(path);
+        long latestFeedDate = buffer.getLong(68);
+        return new Source(buffer.getLong(36), buffer.getLong(44), buffer.getLong(52), buffer.getLong(60),
+                latestFeedDate != NO_FEED_DATE ? LocalDate.ofEpochDay(latestFeedDate) : null);
+    }
+
+    private static MappedByteBuffer mapFile(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog file: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getLong(0) != MAGIC) {
+            throw new IOException("Not a catalog file: " + path);
+        }
+        return buffer;
+    }
+
+    private static int storeOf(Map<String, Integer> storeIndex, String storeName) {
+        Integer index = storeIndex.get(storeName);
+        if (index == null) {
+            throw new IllegalStateException("Catalog row references unknown store: " + storeName);
+        }
+        return index;
+    }
+
+    /**
+     * Byte offsets of the file's sections, derived from the header counts.
+     */
+    private record Layout(int dictionaryCount, int dictionaryBytes, int storeCount, int productCount,
+                          int discountCount) {
+
+        int dictionaryOffsets() {
+            return HEADER_BYTES;
+        }
+
+        int dictionaryData() {
+            return dictionaryOffsets() + (dictionaryCount + 1) * Integer.BYTES;
+        }
+
+        int stores() {
+            return dictionaryData() + dictionaryBytes;
+        }
+
+        int products() {
+            return stores() + storeCount * STORE_BYTES;
+        }
+
+        int discounts() {
+            return products() + productCount * PRODUCT_BYTES;
+        }
+
+        int nameIndex() {
+            return discounts() + discountCount * DISCOUNT_BYTES;
+        }
+
+        long size() throws IOException {
+            long size = HEADER_BYTES
+                    + (dictionaryCount + 1L) * Integer.BYTES
+                    + dictionaryBytes
+                    + (long) storeCount * STORE_BYTES
+                    + (long) productCount * PRODUCT_BYTES
+                    + (long) discountCount * DISCOUNT_BYTES
+                    + (long) productCount * Integer.BYTES;
+            if (dictionaryCount < 0 || dictionaryBytes < 0 || storeCount < 0 || productCount < 0
+                    || discountCount < 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Catalog does not fit in a single mapping: " + size + " bytes");
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Fixed-width columns of one table, stored one after the other.
+     */
+    private record Columns(ByteBuffer buffer, int base, int rows) {
+
+        int getInt(int column, int row) {
+            return buffer.getInt(base + rows * column + row * Integer.BYTES);
+        }
+
+        long getLong(int column, int row) {
+            return buffer.getLong(base + rows * column + row * Long.BYTES);
+        }
+
+        byte getByte(int column, int row) {
+            return buffer.get(base + rows * column + row);
+        }
+
+        void putInt(int column, int row, int value) {
+            buffer.putInt(base + rows * column + row * Integer.BYTES, value);
+        }
+
+        void putLong(int column, int row, long value) {
+            buffer.putLong(base + rows * column + row * Long.BYTES, value);
+        }
+
+        void putByte(int column, int row, int value) {
+            buffer.put(base + rows * column + row, (byte) value);
+        }
+    }
+
+    /**
+     * Write-side string dictionary, assigning references in first-seen order.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> refs = new LinkedHashMap<>();
+
+        private final List<byte[]> encoded = new ArrayList<>();
+
+        private long bytes;
+
+        int ref(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return refs.computeIfAbsent(value, v -> {
+                byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+                encoded.add(utf8);
+                bytes += utf8.length;
+                return encoded.size() - 1;
+            });
+        }
+
+        int size() {
+            return encoded.size();
+        }
+
+        int bytes() throws IOException {
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException("Catalog dictionary does not fit in a single mapping: " + bytes + " bytes");
+            }
+            return (int) bytes;
+        }
+
+        void writeTo(ByteBuffer buffer, int offsets, int data) {
+            int offset = 0;
+            for (int ref = 0; ref < encoded.size(); ref++) {
+                buffer.putInt(offsets + ref * Integer.BYTES, offset);
+                buffer.put(data + offset, encoded.get(ref));
+                offset += encoded.get(ref).length;
+            }
+            buffer.putInt(offsets + encoded.size() * Integer.BYTES, offset);
+        }
+    }
+
+    /**
+     * Read-side string dictionary, decoding strings from the mapping on access.
+     */
+    private record Strings(ByteBuffer buffer, int offsets, int data) {
+
+        String get(int ref) {
+            if (ref < 0) {
+                return null;
+            }
+            int from = buffer.getInt(offsets + ref * Integer.BYTES);
+            int to = buffer.getInt(offsets + (ref + 1) * Integer.BYTES);
+            byte[] utf8 = new byte[to - from];
+            buffer.get(data + from, utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class MappedProducts extends AbstractList<CatalogProduct> implements RandomAccess {
+
+        private final Columns columns;
+
+        private final Strings strings;
+
+        private final String[] storeNames;
+
+        MappedProducts(Columns columns, Strings strings, String[] storeNames) {
+            this.columns = columns;
+            this.strings = strings;
+            this.storeNames = storeNames;
+        }
+
+        @Override
+        public CatalogProduct get(int row) {
+            Objects.checkIndex(row, columns.rows());
+            byte currency = columns.getByte(P_CURRENCY, row);
+            return new CatalogProduct(
+                    storeNames[columns.getInt(P_STORE, row)],
+                    strings.get(columns.getInt(P_ID, row)),
+                    strings.get(columns.getInt(P_NAME, row)),
+                    strings.get(columns.getInt(P_CATEGORY, row)),
+                    strings.get(columns.getInt(P_BRAND, row)),
+                    columns.getLong(P_QUANTITY, row),
+                    strings.get(columns.getInt(P_UNIT, row)),
+                    columns.getLong(P_PRICE, row),
+                    currency >= 0 ? CURRENCIES[currency] : null
+            );
+        }
+
+        @Override
+        public int size() {
+            return columns.rows();
+        }
+    }
+
+    private static final class MappedDiscounts extends AbstractList<CatalogDiscount> implements RandomAccess {
+
+        private final Columns columns;
+
+        private final Strings strings;
+
+        private final String[] storeNames;
+
+        MappedDiscounts(Columns columns, Strings strings, String[] storeNames) {
+            this.columns = columns;
+            this.strings = strings;
+            this.storeNames = storeNames;
+        }
+
+        @Override
+        public CatalogDiscount get(int row) {
+            Objects.checkIndex(row, columns.rows());
+            return new CatalogDiscount(
+                    storeNames[columns.getInt(D_STORE, row)],
+                    strings.get(columns.getInt(D_ID, row)),
+                    strings.get(columns.getInt(D_NAME, row)),
+                    strings.get(columns.getInt(D_BRAND, row)),
+                    columns.getLong(D_QUANTITY, row),
+                    strings.get(columns.getInt(D_UNIT, row)),
+                    strings.get(columns.getInt(D_CATEGORY, row)),
+                    LocalDate.ofEpochDay(columns.getInt(D_FROM, row)),
+                    LocalDate.ofEpochDay(columns.getInt(D_TO, row)),
+                    columns.getInt(D_BASIS_POINTS, row)
+            );
+        }
+
+        @Override
+        public int size() {
+            return columns.rows();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.price_comparator_market.catalog;
+
+/**
+ * A read structure derived from a {@link CatalogSnapshot}, such as a facet or ranking index.
+ *
+ * <p>Beans implementing this interface are built by {@code CatalogService} for every new snapshot before
+ * it is published, so an index is never older than the snapshot readers see once the application is ready.
+ * Implementations should swap in the new structure atomically and keep serving the previous one while
+ * building.</p>
+ */
+public interface CatalogIndex {
+
+    /**
+     * Builds the index for a snapshot and starts serving it.
+     *
+     * @param snapshot the snapshot about to be published, or the current one at startup
+     */
+    void build(CatalogSnapshot snapshot);
+}
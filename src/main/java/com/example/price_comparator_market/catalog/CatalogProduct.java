@@ -0,0 +1,31 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable product row of a {@link CatalogSnapshot}, with the price in minor units and the
+ * package quantity in thousandths of a unit (see {@link Money}).
+ */
+public record CatalogProduct(
+        String storeName,
+        String productId,
+        String productName,
+        String productCategory,
+        String brand,
+        long quantityMilli,
+        String packageUnit,
+        long priceMinor,
+        Currency currency
+) {
+
+    public BigDecimal packageQuantity() {
+        return Money.toQuantity(quantityMilli);
+    }
+
+    public BigDecimal price() {
+        return Money.toBigDecimal(priceMinor);
+    }
+}
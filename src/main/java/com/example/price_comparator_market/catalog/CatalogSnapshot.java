@@ -0,0 +1,415 @@
+package com.example.price_comparator_market.catalog;
+
+import java.nio.IntBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned view of the whole catalog: stores, products and discounts.
+ *
+ * <p>A snapshot is built off to the side once an import has finished and then published as a whole,
+ * so readers holding a snapshot never see a half-imported store. It is safe to share between
+ * threads without locking.</p>
+ *
+ * <p>Products are kept sorted by {@code (storeName, productId)} and discounts by
+ * {@code (storeName, productId, fromDate)}; each store owns a contiguous range of both, and per-product
+ * lookups are binary searches on product ID inside that range. Products are additionally indexed by
+ * lower-cased name. The rows may live on the heap or be decoded on access from a {@link CatalogFile}
+ * mapping, or be a view over another snapshot's rows, as a {@link PriceRollback} is; lookups behave the same
+ * either way.</p>
+ */
+public final class CatalogSnapshot {
+
+    public static final Comparator<CatalogProduct> PRODUCT_ORDER = Comparator
+            .comparing(CatalogProduct::storeName)
+            .thenComparing(CatalogProduct::productId);
+
+    public static final Comparator<CatalogDiscount> DISCOUNT_ORDER = Comparator
+            .comparing(CatalogDiscount::storeName)
+            .thenComparing(CatalogDiscount::productId)
+            .thenComparing(CatalogDiscount::fromDate)
+            .thenComparing(CatalogDiscount::toDate);
+
+    private static final StoreRows NO_ROWS = new StoreRows(0, 0, 0, 0);
+
+    private static final CatalogSnapshot EMPTY =
+            new CatalogSnapshot(0, List.of(), List.of(), List.of(), Map.of(), IntBuffer.allocate(0));
+
+    private final long version;
+
+    private final List<CatalogStore> stores;
+
+    private final List<CatalogProduct> products;
+
+    private final List<CatalogDiscount> discounts;
+
+    private final Map<String, StoreRows> rowsByStore;
+
+    private final IntBuffer productRowsByName;
+
+    /** The snapshot whose name index a view searches instead of having its own; {@code null} otherwise. */
+    private final CatalogSnapshot nameIndexBase;
+
+    /**
+     * Row ranges, end-exclusive, of one store's products and discounts.
+     */
+    record StoreRows(int productFrom, int productTo, int discountFrom, int discountTo) {
+    }
+
+    /**
+     * Wraps already sorted and indexed rows without copying them.
+     *
+     * @param productRowsByName product rows ordered by lower-cased name, then row
+     */
+    CatalogSnapshot(long version, List<CatalogStore> stores, List<CatalogProduct> products,
+                    List<CatalogDiscount> discounts, Map<String, StoreRows> rowsByStore,
+                    IntBuffer productRowsByName) {
+        this(version, stores, products, discounts, rowsByStore, productRowsByName, null);
+    }
+
+    /**
+     * Wraps a view of another snapshot's products that differ from them only in price and currency and in
+     * some being left out. Product names are unchanged, so the view has no name index of its own: a name
+     * lookup searches the base snapshot and looks each product found up again in the view.
+     *
+     * @param base        the snapshot whose stores, discounts and name index are shared
+     * @param products    the view's products, in the base snapshot's order
+     * @param rowsByStore the view's product row ranges, with the base snapshot's discount row ranges
+     */
+    CatalogSnapshot(CatalogSnapshot base, List<CatalogProduct> products, Map<String, StoreRows> rowsByStore) {
+        this(base.version, base.stores, products, base.discounts, rowsByStore, null, base);
+    }
+
+    private CatalogSnapshot(long version, List<CatalogStore> stores, List<CatalogProduct> products,
+                            List<CatalogDiscount> discounts, Map<String, StoreRows> rowsByStore,
+                            IntBuffer productRowsByName, CatalogSnapshot nameIndexBase) {
+        this.version = version;
+        this.stores = stores;
+        this.products = products;
+        this.discounts = discounts;
+        this.rowsByStore = rowsByStore;
+        this.productRowsByName = productRowsByName;
+        this.nameIndexBase = nameIndexBase;
+    }
+
+    /**
+     * @return the snapshot served before the first import is published
+     */
+    public static CatalogSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a snapshot from unordered rows. The rows are copied and sorted; the arguments are not modified.
+     *
+     * @param version   the catalog version this snapshot represents
+     * @param stores    all stores
+     * @param products  all products
+     * @param discounts all discounts
+     * @return the new snapshot
+     */
+    public static CatalogSnapshot of(long version, List<CatalogStore> stores, List<CatalogProduct> products,
+                                     List<CatalogDiscount> discounts) {
+        List<CatalogStore> sortedStores = new ArrayList<>(stores);
+        sortedStores.sort(Comparator.comparing(CatalogStore::name));
+        List<CatalogProduct> sortedProducts = new ArrayList<>(products);
+        sortedProducts.sort(PRODUCT_ORDER);
+        List<CatalogDiscount> sortedDiscounts = new ArrayList<>(discounts);
+        sortedDiscounts.sort(DISCOUNT_ORDER);
+        return new CatalogSnapshot(version, List.copyOf(sortedStores), List.copyOf(sortedProducts),
+                List.copyOf(sortedDiscounts), indexByStore(sortedProducts, sortedDiscounts),
+                IntBuffer.wrap(indexByName(sortedProducts)));
+    }
+
+    private static Map<String, StoreRows> indexByStore(List<CatalogProduct> products,
+                                                       List<CatalogDiscount> discounts) {
+        Map<String, int[]> ranges = new HashMap<>();
+        for (int row = 0; row < products.size(); row++) {
+            int[] range = ranges.computeIfAbsent(products.get(row).storeName(), k -> new int[4]);
+            if (range[0] == range[1]) {
+                range[0] = row;
+            }
+            range[1] = row + 1;
+        }
+        for (int row = 0; row < discounts.size(); row++) {
+            int[] range = ranges.computeIfAbsent(discounts.get(row).storeName(), k -> new int[4]);
+            if (range[2] == range[3]) {
+                range[2] = row;
+            }
+            range[3] = row + 1;
+        }
+        Map<String, StoreRows> index = new HashMap<>(ranges.size() * 2);
+        ranges.forEach((store, r) -> index.put(store, new StoreRows(r[0], r[1], r[2], r[3])));
+        return index;
+    }
+
+    private static int[] indexByName(List<CatalogProduct> products) {
+        String[] keys = new String[products.size()];
+        Integer[] rows = new Integer[products.size()];
+        for (int row = 0; row < rows.length; row++) {
+            keys[row] = nameKey(products.get(row).productName());
+            rows[row] = row;
+        }
+        Arrays.sort(rows, Comparator.<Integer, String>comparing(row -> keys[row]).thenComparing(row -> row));
+        return Arrays.stream(rows).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String nameKey(String productName) {
+        return productName.toLowerCase(Locale.ROOT);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return all stores, ordered by name
+     */
+    public List<CatalogStore> stores() {
+        return stores;
+    }
+
+    /**
+     * @return all products, ordered by store name and product ID
+     */
+    public List<CatalogProduct> products() {
+        return products;
+    }
+
+    /**
+     * @return all discounts, ordered by store name, product ID and start date
+     */
+    public List<CatalogDiscount> discounts() {
+        return discounts;
+    }
+
+    /**
+     * @return the names of the stores with at least one product or discount row, sorted
+     */
+    List<String> storeNames() {
+        return rowsByStore.keySet().stream().sorted().toList();
+    }
+
+    /**
+     * @return the product and discount row ranges of a store; empty ranges if it has no rows
+     */
+    StoreRows storeRows(String storeName) {
+        return rowsByStore.getOrDefault(storeName, NO_ROWS);
+    }
+
+    /**
+     * @return product rows ordered by lower-cased product name, then row; a read-only view
+     */
+    IntBuffer productRowsByName() {
+        if (productRowsByName == null) {
+            return IntBuffer.wrap(indexByName(products)).asReadOnlyBuffer();
+        }
+        return productRowsByName.asReadOnlyBuffer();
+    }
+
+    /**
+     * Finds the product with the given ID in the given store.
+     *
+     * @param storeName the store name
+     * @param productId the store-level product ID
+     * @return the product, or empty if the store does not sell it
+     */
+    public Optional<CatalogProduct> findProduct(String storeName, String productId) {
+        int row = productRow(storeName, productId);
+        return row >= 0 ? Optional.of(products.get(row)) : Optional.empty();
+    }
+
+    /**
+     * @return the row of the product with the given ID in the given store, or {@code -1} if there is none
+     */
+    int productRow(String storeName, String productId) {
+        StoreRows rows = storeRows(storeName);
+        int low = rows.productFrom();
+        int high = rows.productTo() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = products.get(mid).productId().compareTo(productId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds every product with the given name, ignoring case, across all stores.
+     *
+     * @param productName the product name
+     * @return the matching products, ordered by store name and product ID
+     */
+    public List<CatalogProduct> findProductsByName(String productName) {
+        if (nameIndexBase != null) {
+            List<CatalogProduct> result = new ArrayList<>();
+            for (CatalogProduct product : nameIndexBase.findProductsByName(productName)) {
+                findProduct(product.storeName(), product.productId()).ifPresent(result::add);
+            }
+            return result;
+        }
+        String key = nameKey(productName);
+        int low = 0;
+        int high = productRowsByName.limit();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (nameKey(products.get(productRowsByName.get(mid)).productName()).compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<CatalogProduct> result = new ArrayList<>();
+        for (int i = low; i < productRowsByName.limit(); i++) {
+            CatalogProduct product = products.get(productRowsByName.get(i));
+            if (!nameKey(product.productName()).equals(key)) {
+                break;
+            }
+            result.add(product);
+        }
+        return result;
+    }
+
+    /**
+     * Returns every discount, past, current or future, for a product in a store.
+     *
+     * @param storeName the store name
+     * @param productId the store-level product ID
+     * @return the discounts ordered by start date; empty if there are none
+     */
+    public List<CatalogDiscount> findDiscounts(String storeName, String productId) {
+        StoreRows rows = storeRows(storeName);
+        int from = firstDiscountRow(rows, productId);
+        int to = from;
+        while (to < rows.discountTo() && discounts.get(to).productId().equals(productId)) {
+            to++;
+        }
+        return discounts.subList(from, to);
+    }
+
+    /**
+     * Returns the highest discount active on a date for a product, if any.
+     *
+     * @param product the product
+     * @param date    the day to evaluate
+     * @return the active discount with the highest percentage, or empty if none applies
+     */
+    public Optional<CatalogDiscount> findActiveDiscount(CatalogProduct product, LocalDate date) {
+        return Optional.ofNullable(activeDiscount(product, date));
+    }
+
+    /**
+     * Returns the highest discount, in basis points, active on a date for a product.
+     *
+     * @param product the product
+     * @param date    the day to evaluate
+     * @return the discount in basis points, or {@code 0} if none applies
+     */
+    public int activeDiscountBasisPoints(CatalogProduct product, LocalDate date) {
+        CatalogDiscount discount = activeDiscount(product, date);
+        return discount != null ? discount.basisPoints() : 0;
+    }
+
+    /**
+     * Returns the highest discount, in basis points, active on a date for every product, in one merge-join
+     * of the products and discounts, which are both sorted by store and product ID.
+     *
+     * @param date the day to evaluate
+     * @return the discount of each product row, {@code 0} where none applies
+     */
+    public int[] activeDiscountBasisPoints(LocalDate date) {
+        int[] best = new int[products.size()];
+        int d = 0;
+        for (int row = 0; row < products.size() && d < discounts.size(); row++) {
+            CatalogProduct product = products.get(row);
+            CatalogDiscount discount = discounts.get(d);
+            while (compare(discount, product) < 0 && ++d < discounts.size()) {
+                discount = discounts.get(d);
+            }
+            while (d < discounts.size() && compare(discount = discounts.get(d), product) == 0) {
+                if (discount.isActiveOn(date) && discount.basisPoints() > best[row]) {
+                    best[row] = discount.basisPoints();
+                }
+                d++;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the discounts of this snapshot that an older one did not have, in one merge-join of the two
+     * discount lists, which are both sorted by {@link #DISCOUNT_ORDER}. A discount whose percentage changed
+     * counts as new.
+     *
+     * @param previous the older snapshot
+     * @return the new discounts, in {@link #DISCOUNT_ORDER}
+     */
+    public List<CatalogDiscount> discountsAddedSince(CatalogSnapshot previous) {
+        List<CatalogDiscount> before = previous.discounts;
+        List<CatalogDiscount> added = new ArrayList<>();
+        int p = 0;
+        for (CatalogDiscount discount : discounts) {
+            while (p < before.size() && DISCOUNT_ORDER.compare(before.get(p), discount) < 0) {
+                p++;
+            }
+            boolean known = false;
+            for (int k = p; k < before.size() && DISCOUNT_ORDER.compare(before.get(k), discount) == 0; k++) {
+                if (before.get(k).basisPoints() == discount.basisPoints()) {
+                    known = true;
+                    break;
+                }
+            }
+            if (!known) {
+                added.add(discount);
+            }
+        }
+        return added;
+    }
+
+    private static int compare(CatalogDiscount discount, CatalogProduct product) {
+        int cmp = discount.storeName().compareTo(product.storeName());
+        return cmp != 0 ? cmp : discount.productId().compareTo(product.productId());
+    }
+
+    private CatalogDiscount activeDiscount(CatalogProduct product, LocalDate date) {
+        StoreRows rows = storeRows(product.storeName());
+        CatalogDiscount best = null;
+        for (int row = firstDiscountRow(rows, product.productId()); row < rows.discountTo(); row++) {
+            CatalogDiscount discount = discounts.get(row);
+            if (!discount.productId().equals(product.productId()) || discount.fromDate().isAfter(date)) {
+                break;
+            }
+            if (discount.isActiveOn(date) && (best == null || discount.basisPoints() > best.basisPoints())) {
+                best = discount;
+            }
+        }
+        return best;
+    }
+
+    private int firstDiscountRow(StoreRows rows, String productId) {
+        int low = rows.discountFrom();
+        int high = rows.discountTo();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (discounts.get(mid).productId().compareTo(productId) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
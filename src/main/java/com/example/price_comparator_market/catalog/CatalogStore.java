@@ -0,0 +1,7 @@
+package com.example.price_comparator_market.catalog;
+
+/**
+ * A store as seen by a {@link CatalogSnapshot}.
+ */
+public record CatalogStore(Long id, String name) {
+}
@@ -0,0 +1,352 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
+import com.example.price_comparator_market.pricing.PackageUnits;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-category rankings of products by effective price per unit, maintained incrementally.
+ *
+ * <p>Each board holds the products of one category sold in one unit, ordered by final price per unit, then
+ * store and product ID. Weights and volumes are normalized, grams to kilograms and millilitres to litres, so
+ * a 400 g and a 1 kg pack rank on the same board. Every product also sits on its store's, its brand's and
+ * its store-and-brand's board for the category, so a filtered top-K read walks exactly K entries.</p>
+ *
+ * <p>{@link #rebuild} ranks a whole snapshot once. After that, {@link #apply} re-ranks only the products an
+ * import changed, and {@link #rollTo} only the products whose discounts start or stop applying on the new
+ * day, found in an index of discount boundary dates, plus those priced in a currency whose exchange rate
+ * changed. An import that touches a few prices, or a day on which a few discounts start or expire, costs a
+ * handful of sorted-set updates rather than a pass over the catalog. Boards are concurrent skip lists:
+ * readers never block and may observe an update in progress entry by entry. Updates are serialized.</p>
+ */
+public final class CategoryLeaderboards {
+
+    /**
+     * One ranked product.
+     *
+     * @param category      the product category as spelled in the catalog
+     * @param unit          the normalized unit the product is ranked in
+     * @param storeName     the store name
+     * @param productId     the store-level product ID
+     * @param productName   the product name
+     * @param brand         the brand
+     * @param quantityMilli the package quantity in thousandths of {@code unit}
+     * @param priceMinor    the final package price, in minor units of the converter's currency
+     * @param basisPoints   the best active discount, {@code 0} if none
+     * @param perUnitMinor  the final price per {@code unit}, in minor units
+     */
+    public record Entry(String category, String unit, String storeName, String productId, String productName,
+                        String brand, long quantityMilli, long priceMinor, int basisPoints, long perUnitMinor) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong(Entry::perUnitMinor)
+            .thenComparing(Entry::storeName)
+            .thenComparing(Entry::productId);
+
+    /**
+     * A board, with {@code null} store or brand standing for all of them. Names are lower-cased.
+     */
+    private record Board(String category, String unit, String store, String brand) {
+    }
+
+    /**
+     * A product by store name and store-level product ID.
+     */
+    public record Key(String storeName, String productId) {
+    }
+
+    /**
+     * The entry of a product, with the currency its price was converted from.
+     */
+    private record Ranked(Entry entry, Currency currency) {
+    }
+
+    private final ConcurrentMap<Board, NavigableSet<Entry>> boards = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Set<String>> unitsByCategory = new ConcurrentHashMap<>();
+
+    /** Current entry of every ranked product; guarded by {@code this}. */
+    private final Map<Key, Ranked> entries = new HashMap<>();
+
+    /** Ranked products priced in a currency other than the boards'; guarded by {@code this}. */
+    private final Map<Currency, Set<Key>> foreignPriced = new EnumMap<>(Currency.class);
+
+    /**
+     * Products by the days after {@link #date} on which one of their discounts starts, or stops applying;
+     * guarded by {@code this}.
+     */
+    private final NavigableMap<LocalDate, Set<Key>> discountBoundaries = new TreeMap<>();
+
+    /** Stores whose products have been ranked; guarded by {@code this}. */
+    private final Set<String> stores = new HashSet<>();
+
+    /** Converts prices with the rates of {@link #date}; guarded by {@code this}. */
+    private CurrencyConverter converter;
+
+    private volatile long version = -1;
+
+    private volatile LocalDate date;
+
+    /**
+     * @return the catalog version the boards reflect, {@code -1} before the first update
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return the day whose discounts and exchange rates the boards reflect
+     */
+    public LocalDate date() {
+        return date;
+    }
+
+    /**
+     * Ranks every product of a snapshot on a day, moving only the entries that differ from the current ones.
+     * This is a pass over the whole catalog; use it to start the boards, or when the changes since the last
+     * update are not known.
+     *
+     * @param catalog   the snapshot
+     * @param date      the day whose active discounts determine final prices
+     * @param converter converts prices to the boards' currency with that day's rates
+     */
+    public synchronized void rebuild(CatalogSnapshot catalog, LocalDate date, CurrencyConverter converter) {
+        this.date = date;
+        this.converter = converter;
+        discountBoundaries.clear();
+        stores.clear();
+        int[] discounts = catalog.activeDiscountBasisPoints(date);
+        List<CatalogProduct> products = catalog.products();
+        Set<Key> ranked = HashSet.newHashSet(products.size());
+        for (int row = 0; row < products.size(); row++) {
+            CatalogProduct product = products.get(row);
+            Key key = new Key(product.storeName(), product.productId());
+            ranked.add(key);
+            rank(key, product, discounts[row]);
+            stores.add(product.storeName());
+        }
+        // Whatever is left was dropped from the catalog.
+        for (Key key : List.copyOf(entries.keySet())) {
+            if (!ranked.contains(key)) {
+                rank(key, null, 0);
+            }
+        }
+        for (CatalogDiscount discount : catalog.discounts()) {
+            indexBoundaries(discount);
+        }
+        this.version = catalog.version();
+    }
+
+    /**
+     * Re-ranks the products an import changed, on the boards' current day. The products of a store the boards
+     * have not seen yet are ranked too, as a store's first feed is not diffed.
+     *
+     * @param catalog the snapshot the changes are visible in, or a newer one
+     * @param changed the products whose price changed, that were added or removed, or that got a new discount
+     */
+    public synchronized void apply(CatalogSnapshot catalog, Collection<Key> changed) {
+        for (Key key : changed) {
+            rank(catalog, key);
+            for (CatalogDiscount discount : catalog.findDiscounts(key.storeName(), key.productId())) {
+                indexBoundaries(discount);
+            }
+        }
+        for (String store : catalog.storeNames()) {
+            CatalogSnapshot.StoreRows rows = catalog.storeRows(store);
+            if (rows.productFrom() == rows.productTo() || !stores.add(store)) {
+                continue;
+            }
+            for (CatalogProduct product : catalog.products().subList(rows.productFrom(), rows.productTo())) {
+                rank(catalog, new Key(product.storeName(), product.productId()));
+            }
+            for (CatalogDiscount discount : catalog.discounts().subList(rows.discountFrom(), rows.discountTo())) {
+                indexBoundaries(discount);
+            }
+        }
+        this.version = Math.max(version, catalog.version());
+    }
+
+    /**
+     * Moves the boards to another day. Only the products one of whose discounts starts or stops applying in
+     * between, and those priced in a currency whose rate changed, are re-ranked; going back in time ranks
+     * every product again.
+     *
+     * @param catalog   the snapshot the boards reflect
+     * @param date      the new day
+     * @param converter converts prices to the boards' currency with the new day's rates
+     */
+    public synchronized void rollTo(CatalogSnapshot catalog, LocalDate date, CurrencyConverter converter) {
+        if (this.date == null || date.isBefore(this.date)) {
+            rebuild(catalog, date, converter);
+            return;
+        }
+        Set<Key> changed = new HashSet<>();
+        NavigableMap<LocalDate, Set<Key>> passed = discountBoundaries.headMap(date, true);
+        passed.values().forEach(changed::addAll);
+        passed.clear();
+        for (Map.Entry<Currency, Set<Key>> priced : foreignPriced.entrySet()) {
+            if (converter.factor(priced.getKey()) != this.converter.factor(priced.getKey())) {
+                changed.addAll(priced.getValue());
+            }
+        }
+        this.date = date;
+        this.converter = converter;
+        for (Key key : changed) {
+            rank(catalog, key);
+        }
+    }
+
+    /**
+     * Records the days after {@link #date} on which a discount starts and stops applying.
+     */
+    private void indexBoundaries(CatalogDiscount discount) {
+        Key key = null;
+        for (LocalDate day : new LocalDate[]{discount.fromDate(), discount.toDate().plusDays(1)}) {
+            if (day.isAfter(date)) {
+                key = key != null ? key : new Key(discount.storeName(), discount.productId());
+                discountBoundaries.computeIfAbsent(day, d -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    private void rank(CatalogSnapshot catalog, Key key) {
+        CatalogProduct product = catalog.findProduct(key.storeName(), key.productId()).orElse(null);
+        rank(key, product, product != null ? catalog.activeDiscountBasisPoints(product, date) : 0);
+    }
+
+    /**
+     * Moves a product's entry on the boards if its price, discount or details changed.
+     *
+     * @param product the product, or {@code null} if it left the catalog
+     */
+    private void rank(Key key, CatalogProduct product, int basisPoints) {
+        Entry entry = product != null ? entry(product, basisPoints, converter) : null;
+        Ranked previous = entries.get(key);
+        if (previous != null && previous.entry().equals(entry)) {
+            return;
+        }
+        if (previous != null) {
+            remove(previous.entry());
+            entries.remove(key);
+            Set<Key> foreign = foreignPriced.get(previous.currency());
+            if (foreign != null) {
+                foreign.remove(key);
+            }
+        }
+        if (entry != null) {
+            add(entry);
+            entries.put(key, new Ranked(entry, product.currency()));
+            if (product.currency() != null && product.currency() != converter.target()) {
+                foreignPriced.computeIfAbsent(product.currency(), c -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    private static Entry entry(CatalogProduct product, int basisPoints, CurrencyConverter converter) {
+        if (product.productCategory() == null || product.packageUnit() == null || product.quantityMilli() <= 0) {
+            return null;
+        }
+        String unit = PackageUnits.normalize(product.packageUnit());
+        long quantityMilli = PackageUnits.normalizeMilli(product.quantityMilli(), product.packageUnit());
+        if (quantityMilli <= 0) {
+            return null;
+        }
+        long price = Money.applyDiscount(converter.convert(product.priceMinor(), product.currency()), basisPoints);
+        return new Entry(product.productCategory(), unit, product.storeName(), product.productId(),
+                product.productName(), product.brand(), quantityMilli, price, basisPoints,
+                Money.perUnit(price, quantityMilli));
+    }
+
+    private void add(Entry entry) {
+        unitsByCategory.computeIfAbsent(key(entry.category()), k -> ConcurrentHashMap.newKeySet())
+                .add(entry.unit());
+        for (Board board : boards(entry)) {
+            boards.computeIfAbsent(board, b -> new ConcurrentSkipListSet<>(ORDER)).add(entry);
+        }
+    }
+
+    private void remove(Entry entry) {
+        for (Board board : boards(entry)) {
+            boards.computeIfPresent(board, (b, ranked) -> ranked.remove(entry) && ranked.isEmpty() ? null : ranked);
+        }
+    }
+
+    private static List<Board> boards(Entry entry) {
+        String category = key(entry.category());
+        String store = key(entry.storeName());
+        String brand = entry.brand() != null ? key(entry.brand()) : null;
+        List<Board> boards = new ArrayList<>(4);
+        boards.add(new Board(category, entry.unit(), null, null));
+        boards.add(new Board(category, entry.unit(), store, null));
+        if (brand != null) {
+            boards.add(new Board(category, entry.unit(), null, brand));
+            boards.add(new Board(category, entry.unit(), store, brand));
+        }
+        return boards;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param category a product category, matched case-insensitively
+     * @return the normalized units products of the category have been ranked in, sorted; a unit whose
+     *         products have all left the catalog stays listed with an empty board
+     */
+    public List<String> units(String category) {
+        Set<String> units = unitsByCategory.get(key(category));
+        return units == null ? List.of() : units.stream().sorted().toList();
+    }
+
+    /**
+     * @return every category with at least one ranked product, lower-cased and sorted
+     */
+    public List<String> categories() {
+        return unitsByCategory.keySet().stream().sorted().toList();
+    }
+
+    /**
+     * Returns the cheapest products per unit of a category.
+     *
+     * @param category a product category, matched case-insensitively
+     * @param unit     the normalized unit, e.g. {@code kg} or {@code l}
+     * @param store    a store name to restrict to, or {@code null} for all stores
+     * @param brand    a brand to restrict to, or {@code null} for all brands
+     * @param limit    the most entries to return
+     * @return up to {@code limit} entries, cheapest per unit first
+     */
+    public List<Entry> top(String category, String unit, String store, String brand, int limit) {
+        NavigableSet<Entry> ranked = boards.get(new Board(key(category), key(unit),
+                store != null ? key(store) : null, brand != null ? key(brand) : null));
+        if (ranked == null) {
+            return List.of();
+        }
+        List<Entry> top = new ArrayList<>(Math.min(limit, 64));
+        for (Iterator<Entry> it = ranked.iterator(); it.hasNext() && top.size() < limit; ) {
+            top.add(it.next());
+        }
+        return top;
+    }
+}
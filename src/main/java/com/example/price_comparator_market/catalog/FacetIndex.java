@@ -0,0 +1,300 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
+import org.roaringbitmap.PeakableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compressed bitmap indexes over the products of one {@link CatalogSnapshot} on one day, for faceted browsing.
+ *
+ * <p>Products are numbered by ascending effective price on that day (base price in the index currency less
+ * the best active discount), so the IDs themselves are the sorted price column: a price range is a
+ * contiguous ID range found by binary search, and iterating a result bitmap yields products cheapest first,
+ * which makes pagination a matter of skipping to the n-th set bit. Each value of each {@link Facet}, and
+ * "has an active discount", is a {@link RoaringBitmap} of IDs; a query ORs the selected values within a facet
+ * and ANDs across facets, which takes time proportional to the compressed bitmap sizes rather than the
+ * number of products.</p>
+ *
+ * <p>Facet values are matched case-insensitively. Instances are immutable and safe to share.</p>
+ */
+public final class FacetIndex {
+
+    public enum Facet {
+        STORE,
+        BRAND,
+        CATEGORY,
+        PACKAGE_UNIT
+    }
+
+    /**
+     * A facet value, as first spelled in the catalog, and the IDs of the products carrying it.
+     */
+    private record Value(String name, RoaringBitmap ids) {
+    }
+
+    /**
+     * A facet value with the number of matching products carrying it.
+     */
+    public record Count(String value, int count) {
+    }
+
+    /**
+     * Facet filters, each facet's values ORed together and facets ANDed; an empty or missing set leaves a
+     * facet unconstrained.
+     *
+     * @param values         selected values per facet
+     * @param discountedOnly whether to keep only products with an active discount
+     * @param minPrice       lowest effective price in minor units of the index currency, inclusive; may be null
+     * @param maxPrice       highest effective price in minor units of the index currency, inclusive; may be null
+     */
+    public record Query(Map<Facet, ? extends Collection<String>> values, boolean discountedOnly, Long minPrice,
+                        Long maxPrice) {
+    }
+
+    private final CatalogSnapshot catalog;
+
+    private final LocalDate date;
+
+    private final int[] rows;
+
+    private final long[] prices;
+
+    private final int[] discounts;
+
+    private final Map<Facet, Map<String, Value>> values;
+
+    private final RoaringBitmap discounted;
+
+    private FacetIndex(CatalogSnapshot catalog, LocalDate date, int[] rows, long[] prices, int[] discounts,
+                       Map<Facet, Map<String, Value>> values, RoaringBitmap discounted) {
+        this.catalog = catalog;
+        this.date = date;
+        this.rows = rows;
+        this.prices = prices;
+        this.discounts = discounts;
+        this.values = values;
+        this.discounted = discounted;
+    }
+
+    /**
+     * Indexes every product of a snapshot.
+     *
+     * @param catalog   the snapshot to index
+     * @param date      the day whose active discounts determine effective prices
+     * @param converter converts prices to the index currency, with that day's rates
+     * @return the index
+     */
+    public static FacetIndex build(CatalogSnapshot catalog, LocalDate date, CurrencyConverter converter) {
+        List<CatalogProduct> products = catalog.products();
+        int n = products.size();
+        int[] bestDiscount = catalog.activeDiscountBasisPoints(date);
+        long[] effective = new long[n];
+        long[] order = new long[n];
+        for (int row = 0; row < n; row++) {
+            CatalogProduct product = products.get(row);
+            effective[row] = Money.applyDiscount(converter.convert(product.priceMinor(), product.currency()),
+                    bestDiscount[row]);
+            // Price in the high bits, row in the low bits: one primitive sort orders by (price, row).
+            // Prices beyond Integer.MAX_VALUE minor units all sort as equal.
+            order[row] = Math.min(Math.max(effective[row], 0), Integer.MAX_VALUE) << 32 | row;
+        }
+        Arrays.sort(order);
+
+        int[] rows = new int[n];
+        long[] prices = new long[n];
+        int[] discounts = new int[n];
+        Map<Facet, Map<String, Value>> values = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            values.put(facet, new HashMap<>());
+        }
+        RoaringBitmap discounted = new RoaringBitmap();
+        for (int id = 0; id < n; id++) {
+            int row = (int) order[id];
+            CatalogProduct product = products.get(row);
+            rows[id] = row;
+            prices[id] = effective[row];
+            discounts[id] = bestDiscount[row];
+            // IDs are added in increasing order, which RoaringBitmap appends without searching.
+            add(values.get(Facet.STORE), product.storeName(), id);
+            add(values.get(Facet.BRAND), product.brand(), id);
+            add(values.get(Facet.CATEGORY), product.productCategory(), id);
+            add(values.get(Facet.PACKAGE_UNIT), product.packageUnit(), id);
+            if (bestDiscount[row] > 0) {
+                discounted.add(id);
+            }
+        }
+        values.values().forEach(byKey -> byKey.values().forEach(value -> value.ids().runOptimize()));
+        discounted.runOptimize();
+        return new FacetIndex(catalog, date, rows, prices, discounts, values, discounted);
+    }
+
+    private static void add(Map<String, Value> byKey, String name, int id) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        byKey.computeIfAbsent(key(name), k -> new Value(name, new RoaringBitmap())).ids().add(id);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the indexed snapshot; {@link #row(int)} refers to its product rows
+     */
+    public CatalogSnapshot catalog() {
+        return catalog;
+    }
+
+    /**
+     * @return the day the effective prices and the discount facet were computed for
+     */
+    public LocalDate date() {
+        return date;
+    }
+
+    /**
+     * @return the number of indexed products
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * Evaluates a query.
+     *
+     * @return the IDs of the matching products; iterating it yields them cheapest first
+     */
+    public RoaringBitmap match(Query query) {
+        RoaringBitmap result = priceRange(query.minPrice(), query.maxPrice());
+        if (query.values() != null) {
+            for (Facet facet : Facet.values()) {
+                Collection<String> selected = query.values().get(facet);
+                if (selected == null || selected.isEmpty()) {
+                    continue;
+                }
+                RoaringBitmap any = new RoaringBitmap();
+                for (String name : selected) {
+                    Value value = values.get(facet).get(key(name));
+                    if (value != null) {
+                        any.or(value.ids());
+                    }
+                }
+                result.and(any);
+            }
+        }
+        if (query.discountedOnly()) {
+            result.and(discounted);
+        }
+        return result;
+    }
+
+    private RoaringBitmap priceRange(Long minPrice, Long maxPrice) {
+        int from = minPrice != null ? firstAtLeast(minPrice) : 0;
+        int to = maxPrice != null ? firstAtLeast(maxPrice == Long.MAX_VALUE ? maxPrice : maxPrice + 1) : size();
+        return from < to ? RoaringBitmap.bitmapOfRange(from, to) : new RoaringBitmap();
+    }
+
+    /**
+     * @return the lowest ID whose price is at least {@code price}, or {@link #size()} if none is
+     */
+    private int firstAtLeast(long price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Counts, for every value of every facet, how many of the matching products carry it.
+     *
+     * @param match a result of {@link #match(Query)}
+     * @param limit the most values to return per facet, highest counts first
+     * @return the non-zero counts per facet
+     */
+    public Map<Facet, List<Count>> counts(RoaringBitmap match, int limit) {
+        Map<Facet, List<Count>> counts = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            List<Count> facetCounts = new ArrayList<>();
+            for (Value value : values.get(facet).values()) {
+                int count = RoaringBitmap.andCardinality(match, value.ids());
+                if (count > 0) {
+                    facetCounts.add(new Count(value.name(), count));
+                }
+            }
+            facetCounts.sort(Comparator.comparingInt(Count::count).reversed().thenComparing(Count::value));
+            counts.put(facet, facetCounts.size() > limit ? List.copyOf(facetCounts.subList(0, limit))
+                    : facetCounts);
+        }
+        return counts;
+    }
+
+    /**
+     * @return how many of the matching products have an active discount
+     */
+    public int discountedCount(RoaringBitmap match) {
+        return RoaringBitmap.andCardinality(match, discounted);
+    }
+
+    /**
+     * Returns one page of a result, cheapest first.
+     *
+     * @param match  a result of {@link #match(Query)}
+     * @param offset the number of matching products to skip
+     * @param limit  the page size
+     * @return the IDs on the page
+     */
+    public int[] page(RoaringBitmap match, int offset, int limit) {
+        int cardinality = match.getCardinality();
+        if (offset >= cardinality || limit <= 0) {
+            return new int[0];
+        }
+        int[] ids = new int[Math.min(limit, cardinality - offset)];
+        PeakableIntIterator iterator = match.getIntIterator();
+        iterator.advanceIfNeeded(match.select(offset));
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = iterator.next();
+        }
+        return ids;
+    }
+
+    /**
+     * @return the product row, in {@link #catalog()}, of an ID
+     */
+    public int row(int id) {
+        return rows[id];
+    }
+
+    /**
+     * @return the effective price of an ID, in minor units of the index currency
+     */
+    public long price(int id) {
+        return prices[id];
+    }
+
+    /**
+     * @return the best active discount of an ID in basis points, 0 if none
+     */
+    public int discountBasisPoints(int id) {
+        return discounts[id];
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.PriceChangeType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Differences between two price feeds of one store: products that appeared, disappeared, or changed price.
+ *
+ * <p>Both feeds are sorted by product ID (a no-op for rows read in index order) and merge-joined in one pass,
+ * so diffing two feeds of a million rows costs the sort of the new file plus a linear scan, with no per-row
+ * lookups. When a feed lists a product ID twice the last row wins, matching the import's upsert.</p>
+ */
+public final class PriceFeedDiff {
+
+    private static final Comparator<Row> BY_PRODUCT_ID = Comparator.comparing(Row::productId);
+
+    /**
+     * One product of a feed, with its price in minor units.
+     */
+    public record Row(String productId, String productName, long priceMinor, Currency currency) {
+    }
+
+    /**
+     * One difference; {@code previous} is {@code null} for {@link PriceChangeType#ADDED} and {@code next} for
+     * {@link PriceChangeType#REMOVED}.
+     */
+    public record Change(PriceChangeType type, Row previous, Row next) {
+
+        public String productId() {
+            return next != null ? next.productId() : previous.productId();
+        }
+
+        public String productName() {
+            return next != null ? next.productName() : previous.productName();
+        }
+    }
+
+    private PriceFeedDiff() {
+    }
+
+    /**
+     * Diffs a store's previous feed against its new one.
+     *
+     * @param previous the previous feed; sorted in place by product ID
+     * @param next     the new feed; sorted in place by product ID
+     * @return the changes, by product ID
+     */
+    public static List<Change> diff(List<Row> previous, List<Row> next) {
+        // List.sort is stable, so the last of several rows with the same ID stays last.
+        previous.sort(BY_PRODUCT_ID);
+        next.sort(BY_PRODUCT_ID);
+        List<Change> changes = new ArrayList<>();
+        int p = 0;
+        int n = 0;
+        while (p < previous.size() || n < next.size()) {
+            p = lastOfId(previous, p);
+            n = lastOfId(next, n);
+            Row before = p < previous.size() ? previous.get(p) : null;
+            Row after = n < next.size() ? next.get(n) : null;
+            int cmp = before == null ? 1 : after == null ? -1 : before.productId().compareTo(after.productId());
+            if (cmp < 0) {
+                changes.add(new Change(PriceChangeType.REMOVED, before, null));
+                p++;
+            } else if (cmp > 0) {
+                changes.add(new Change(PriceChangeType.ADDED, null, after));
+                n++;
+            } else {
+                PriceChangeType type = type(before, after);
+                if (type != null) {
+                    changes.add(new Change(type, before, after));
+                }
+                p++;
+                n++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @return the index of the last row with the same product ID as the row at {@code i}
+     */
+    private static int lastOfId(List<Row> rows, int i) {
+        while (i + 1 < rows.size() && rows.get(i + 1).productId().equals(rows.get(i).productId())) {
+            i++;
+        }
+        return i;
+    }
+
+    private static PriceChangeType type(Row before, Row after) {
+        if (before.currency() != after.currency()) {
+            return PriceChangeType.CURRENCY_CHANGED;
+        }
+        if (after.priceMinor() > before.priceMinor()) {
+            return PriceChangeType.INCREASED;
+        }
+        if (after.priceMinor() < before.priceMinor()) {
+            return PriceChangeType.DECREASED;
+        }
+        return null;
+    }
+}
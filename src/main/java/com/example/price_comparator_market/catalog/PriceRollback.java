@@ -0,0 +1,161 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.PriceChangeType;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Rolls the base prices of a {@link CatalogSnapshot} back to a past day, using the price changes imports
+ * recorded (see {@link PriceFeedDiff}).
+ *
+ * <p>A product's state on a day is the state before the first change recorded after that day: the old price
+ * of a price or currency change, the last price of a removal, and no product at all before it was added. A
+ * product with no later change is as it is in the snapshot. History starts with each store's second imported
+ * feed; earlier days see the prices of that store's first feed. Discounts are kept as they are, since their
+ * own date ranges already decide when they apply.</p>
+ *
+ * <p>The past day is a view over the snapshot's rows, which stay shared, heap or mapped, with only the rolled
+ * back and left out rows held on the side. Building it costs a lookup per changed product rather than a copy
+ * of the catalog, and reading a row of it a binary search over the changed rows.</p>
+ */
+public final class PriceRollback {
+
+    /**
+     * One recorded change; the old price is ignored for {@link PriceChangeType#ADDED}.
+     */
+    public record Change(String storeName, String productId, LocalDate feedDate, PriceChangeType type,
+                         long oldPriceMinor, Currency oldCurrency) {
+    }
+
+    private static final Comparator<Change> ORDER = Comparator
+            .comparing(Change::storeName)
+            .thenComparing(Change::productId)
+            .thenComparing(Change::feedDate);
+
+    private PriceRollback() {
+    }
+
+    /**
+     * Builds the snapshot of a past day.
+     *
+     * @param catalog the current snapshot
+     * @param date    the day to roll back to
+     * @param changes the changes recorded after {@code date}, in the order they were recorded, at least the
+     *                first one of every changed product; sorted in place, and changes on or before
+     *                {@code date} are ignored
+     * @return a snapshot with the same version, stores and discounts and the products as of {@code date}
+     */
+    public static CatalogSnapshot asOf(CatalogSnapshot catalog, LocalDate date, List<Change> changes) {
+        changes.removeIf(change -> !change.feedDate().isAfter(date));
+        if (changes.isEmpty()) {
+            return catalog;
+        }
+        // List.sort is stable, so of two changes on one feed date the first recorded stays first. Sorted by
+        // store and product ID, the changed rows come out in ascending order.
+        changes.sort(ORDER);
+        int[] removed = new int[changes.size()];
+        int removedCount = 0;
+        int[] replacedRows = new int[changes.size()];
+        CatalogProduct[] replacements = new CatalogProduct[changes.size()];
+        int replacedCount = 0;
+        for (int c = 0; c < changes.size(); c++) {
+            Change first = changes.get(c);
+            if (c > 0 && isSameProduct(changes.get(c - 1), first)) {
+                continue;
+            }
+            int row = catalog.productRow(first.storeName(), first.productId());
+            if (row < 0) {
+                continue;
+            }
+            if (first.type() == PriceChangeType.ADDED) {
+                removed[removedCount++] = row;
+            } else {
+                CatalogProduct product = catalog.products().get(row);
+                replacedRows[replacedCount] = row;
+                replacements[replacedCount++] = new CatalogProduct(product.storeName(), product.productId(),
+                        product.productName(), product.productCategory(), product.brand(), product.quantityMilli(),
+                        product.packageUnit(), first.oldPriceMinor(), first.oldCurrency());
+            }
+        }
+        if (removedCount == 0 && replacedCount == 0) {
+            return catalog;
+        }
+        RolledBackProducts products = new RolledBackProducts(catalog.products(),
+                Arrays.copyOf(removed, removedCount), Arrays.copyOf(replacedRows, replacedCount),
+                Arrays.copyOf(replacements, replacedCount));
+        Map<String, CatalogSnapshot.StoreRows> rowsByStore = new HashMap<>();
+        for (String store : catalog.storeNames()) {
+            CatalogSnapshot.StoreRows rows = catalog.storeRows(store);
+            rowsByStore.put(store, new CatalogSnapshot.StoreRows(products.viewRow(rows.productFrom()),
+                    products.viewRow(rows.productTo()), rows.discountFrom(), rows.discountTo()));
+        }
+        return new CatalogSnapshot(catalog, products, rowsByStore);
+    }
+
+    private static boolean isSameProduct(Change a, Change b) {
+        return a.storeName().equals(b.storeName()) && a.productId().equals(b.productId());
+    }
+
+    /**
+     * The products of a snapshot with some rows replaced and some left out; both sets of base rows are sorted.
+     */
+    private static final class RolledBackProducts extends AbstractList<CatalogProduct> implements RandomAccess {
+
+        private final List<CatalogProduct> base;
+
+        private final int[] removed;
+
+        private final int[] replacedRows;
+
+        private final CatalogProduct[] replacements;
+
+        RolledBackProducts(List<CatalogProduct> base, int[] removed, int[] replacedRows,
+                           CatalogProduct[] replacements) {
+            this.base = base;
+            this.removed = removed;
+            this.replacedRows = replacedRows;
+            this.replacements = replacements;
+        }
+
+        /**
+         * @return the row in this view of a base row, or of the first base row after it that was not removed
+         */
+        int viewRow(int baseRow) {
+            int before = Arrays.binarySearch(removed, baseRow);
+            return baseRow - (before >= 0 ? before : -before - 1);
+        }
+
+        @Override
+        public CatalogProduct get(int row) {
+            Objects.checkIndex(row, size());
+            // The view row of removed[i] is removed[i] - i, which never decreases: count those at or before row.
+            int low = 0;
+            int high = removed.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (removed[mid] - mid <= row) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int baseRow = row + low;
+            int replaced = Arrays.binarySearch(replacedRows, baseRow);
+            return replaced >= 0 ? replacements[replaced] : base.get(baseRow);
+        }
+
+        @Override
+        public int size() {
+            return base.size() - removed.length;
+        }
+    }
+}
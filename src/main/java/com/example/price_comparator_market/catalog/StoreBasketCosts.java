@@ -0,0 +1,129 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Daily cost of a reference basket at every store of a {@link CatalogSnapshot}.
+ *
+ * <p>Each store is one merge-join over its contiguous product and discount rows, which are both sorted by
+ * product ID: a product whose name is in the basket gets its best discount for every day of the range
+ * painted into a day array from its few discount rows, and the cheapest matching product per item and day is
+ * kept. No product is looked up twice and no discount is scanned per day, so a store costs one pass over its
+ * rows plus one array update per matching product and day. Stores are computed in parallel.</p>
+ */
+public final class StoreBasketCosts {
+
+    /**
+     * The basket's cost at one store.
+     *
+     * @param storeName       the store name
+     * @param missingProducts the basket items the store does not sell, in basket order
+     * @param dailyCostMinor  the cost of the items it does sell, cheapest matching product each, for every day
+     *                        of the range, in minor units of the converters' currency
+     */
+    public record StoreCosts(String storeName, List<String> missingProducts, long[] dailyCostMinor) {
+
+        public boolean complete() {
+            return missingProducts.isEmpty();
+        }
+    }
+
+    private StoreBasketCosts() {
+    }
+
+    /**
+     * Computes the daily basket cost at every store.
+     *
+     * @param catalog    the snapshot to price
+     * @param basket     product names, matched case-insensitively; a name listed twice is bought twice
+     * @param from       the first day of the range
+     * @param converters the converter for each day of the range, {@code from} first; its length is the
+     *                   number of days
+     * @return the costs per store, by store name
+     */
+    public static List<StoreCosts> compute(CatalogSnapshot catalog, List<String> basket, LocalDate from,
+                                           CurrencyConverter[] converters) {
+        Map<String, Integer> itemIndex = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[] counts = new int[basket.size()];
+        for (String name : basket) {
+            int item = itemIndex.computeIfAbsent(name.toLowerCase(Locale.ROOT), k -> {
+                names.add(name);
+                return names.size() - 1;
+            });
+            counts[item]++;
+        }
+        return catalog.storeNames().parallelStream()
+                .map(store -> store(catalog, store, itemIndex, names, counts, from, converters))
+                .toList();
+    }
+
+    private static StoreCosts store(CatalogSnapshot catalog, String store, Map<String, Integer> itemIndex,
+                                    List<String> names, int[] counts, LocalDate from,
+                                    CurrencyConverter[] converters) {
+        CatalogSnapshot.StoreRows rows = catalog.storeRows(store);
+        List<CatalogProduct> products = catalog.products();
+        List<CatalogDiscount> discounts = catalog.discounts();
+        int days = converters.length;
+        long[][] cheapest = new long[names.size()][];
+        int[] basisPoints = new int[days];
+
+        int d = rows.discountFrom();
+        for (int row = rows.productFrom(); row < rows.productTo(); row++) {
+            CatalogProduct product = products.get(row);
+            while (d < rows.discountTo() && discounts.get(d).productId().compareTo(product.productId()) < 0) {
+                d++;
+            }
+            Integer item = itemIndex.get(product.productName().toLowerCase(Locale.ROOT));
+            if (item == null) {
+                continue;
+            }
+            Arrays.fill(basisPoints, 0);
+            for (int k = d; k < rows.discountTo() && discounts.get(k).productId().equals(product.productId());
+                 k++) {
+                CatalogDiscount discount = discounts.get(k);
+                long first = Math.max(0, ChronoUnit.DAYS.between(from, discount.fromDate()));
+                long last = Math.min(days - 1, ChronoUnit.DAYS.between(from, discount.toDate()));
+                if (first > last) {
+                    continue;
+                }
+                for (int day = (int) first; day <= last; day++) {
+                    basisPoints[day] = Math.max(basisPoints[day], discount.basisPoints());
+                }
+            }
+            if (cheapest[item] == null) {
+                cheapest[item] = new long[days];
+                Arrays.fill(cheapest[item], Long.MAX_VALUE);
+            }
+            long[] itemCheapest = cheapest[item];
+            for (int day = 0; day < days; day++) {
+                long price = Money.applyDiscount(converters[day].convert(product.priceMinor(), product.currency()),
+                        basisPoints[day]);
+                itemCheapest[day] = Math.min(itemCheapest[day], price);
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        long[] cost = new long[days];
+        for (int item = 0; item < names.size(); item++) {
+            if (cheapest[item] == null) {
+                missing.add(names.get(item));
+                continue;
+            }
+            for (int day = 0; day < days; day++) {
+                cost[day] += cheapest[item][day] * counts[item];
+            }
+        }
+        return new StoreCosts(store, List.copyOf(missing), cost);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.price_comparator_market.catalog;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A cache of values computed from one {@link CatalogSnapshot} version, dropped as soon as a newer version
+ * is seen.
+ *
+ * <p>Entries live in a generation tagged with the catalog version, swapped by compare-and-set when a request
+ * for a newer version arrives, so readers never lock. A request that started before a newer import gets a
+ * private, throwaway generation for its own version: it cannot pollute the new generation with stale values.
+ * A generation holds at most {@code maxSize} entries; a {@linkplain #bounded bounded} cache then stops
+ * accepting new ones, while an {@linkplain #lru LRU} cache evicts the least recently used.</p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class VersionedCache<K, V> {
+
+    private final int maxSize;
+
+    private final boolean lru;
+
+    private final AtomicReference<Generation<K, V>> current;
+
+    private VersionedCache(int maxSize, boolean lru) {
+        this.maxSize = maxSize;
+        this.lru = lru;
+        this.current = new AtomicReference<>(newGeneration(-1));
+    }
+
+    /**
+     * @param maxSize the most entries per catalog version; later ones are not cached
+     * @return a cache keeping the first {@code maxSize} entries of each catalog version
+     */
+    public static <K, V> VersionedCache<K, V> bounded(int maxSize) {
+        return new VersionedCache<>(maxSize, false);
+    }
+
+    /**
+     * @param maxSize the most entries per catalog version
+     * @return a cache keeping the {@code maxSize} most recently used entries of each catalog version
+     */
+    public static <K, V> VersionedCache<K, V> lru(int maxSize) {
+        return new VersionedCache<>(maxSize, true);
+    }
+
+    /**
+     * @param version the catalog version the value must have been computed from
+     * @param key     the key
+     * @return the cached value, or {@code null}
+     */
+    public V get(long version, K key) {
+        return generation(version).entries().get(key);
+    }
+
+    /**
+     * Caches a value, unless a newer catalog version has been seen or the generation is full.
+     *
+     * @param version the catalog version the value was computed from
+     * @param key     the key
+     * @param value   the value
+     */
+    public void put(long version, K key, V value) {
+        Map<K, V> entries = generation(version).entries();
+        if (lru) {
+            entries.put(key, value);
+        } else if (entries.size() < maxSize) {
+            entries.putIfAbsent(key, value);
+        }
+    }
+
+    private Generation<K, V> generation(long version) {
+        Generation<K, V> generation = current.get();
+        while (generation.version() < version) {
+            Generation<K, V> next = newGeneration(version);
+            if (current.compareAndSet(generation, next)) {
+                return next;
+            }
+            generation = current.get();
+        }
+        return generation.version() == version ? generation : newGeneration(version);
+    }
+
+    private Generation<K, V> newGeneration(long version) {
+        if (!lru) {
+            return new Generation<>(version, new ConcurrentHashMap<>());
+        }
+        return new Generation<>(version, Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        }));
+    }
+
+    private record Generation<K, V>(long version, Map<K, V> entries) {
+    }
+}
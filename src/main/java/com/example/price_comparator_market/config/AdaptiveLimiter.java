@@ -0,0 +1,173 @@
+package com.example.price_comparator_market.config;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrency limit that adapts to observed latency, with a bounded first-come, first-served wait queue.
+ *
+ * <p>The limit follows the gradient algorithm of Netflix's concurrency-limits. Each completed request updates
+ * a smoothed latency and a no-load latency, the smallest seen in the current window of samples; the window
+ * restarts every {@value #WINDOW} samples so the baseline can follow data growth. While the smoothed latency
+ * stays within {@code tolerance} times the baseline the limit holds, and grows in steps of a fraction of its
+ * square root while requests are waiting for it; past that, it shrinks in proportion to the excess. Queueing
+ * inside the service therefore turns into queueing here, where it is bounded.</p>
+ *
+ * <p>A request is admitted while fewer than the limit are in flight and nobody is waiting. Otherwise it joins
+ * the queue if the queue has room and waits up to the caller's deadline for a slot.</p>
+ */
+public final class AdaptiveLimiter {
+
+    /**
+     * Samples after which the no-load latency is re-measured.
+     */
+    static final int WINDOW = 500;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double LATENCY_SMOOTHING = 0.1;
+
+    /**
+     * How a request fared.
+     */
+    public enum Outcome {
+        ADMITTED,
+        QUEUE_FULL,
+        TIMED_OUT
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final double tolerance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    /** Guarded by {@code lock}, as are all the fields below. */
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double smoothedNanos;
+    private long noLoadNanos = Long.MAX_VALUE;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    /**
+     * @param initialLimit the limit before any request completes
+     * @param minLimit     the smallest the limit may shrink to
+     * @param maxLimit     the largest the limit may grow to
+     * @param queueSize    how many requests may wait for a slot
+     * @param tolerance    how many times the no-load latency the smoothed latency may reach before the limit
+     *                     shrinks
+     */
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, int queueSize, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || queueSize < 0 || tolerance < 1) {
+            throw new IllegalArgumentException("Invalid limiter settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.tolerance = tolerance;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Takes a slot, waiting for one if needed. Every {@link Outcome#ADMITTED} must be followed by one
+     * {@link #release(long)}.
+     *
+     * @param maxWaitNanos the longest to wait in the queue
+     * @return whether the request was admitted, or why not
+     * @throws InterruptedException if interrupted while waiting; no slot is taken
+     */
+    public Outcome acquire(long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (waiting == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return Outcome.ADMITTED;
+            }
+            if (waiting >= queueSize) {
+                return Outcome.QUEUE_FULL;
+            }
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return Outcome.TIMED_OUT;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+                return Outcome.ADMITTED;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot and feeds the request's latency into the limit.
+     *
+     * @param latencyNanos how long the admitted request took
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean saturated = waiting > 0 || inFlight >= (int) limit;
+            inFlight--;
+            update(Math.max(latencyNanos, 1), saturated);
+            for (int free = Math.min((int) limit - inFlight, waiting); free > 0; free--) {
+                slotFreed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long latencyNanos, boolean saturated) {
+        windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+        noLoadNanos = Math.min(noLoadNanos, latencyNanos);
+        if (++windowSamples == WINDOW) {
+            noLoadNanos = windowMinNanos;
+            windowMinNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        smoothedNanos = smoothedNanos == 0 ? latencyNanos
+                : smoothedNanos * (1 - LATENCY_SMOOTHING) + latencyNanos * LATENCY_SMOOTHING;
+
+        double gradient = Math.clamp(tolerance * noLoadNanos / smoothedNanos, 0.5, 1.0);
+        double target = limit * gradient + (saturated ? Math.sqrt(limit) : 0);
+        limit = Math.clamp(limit * (1 - SMOOTHING) + target * SMOOTHING, minLimit, maxLimit);
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int waiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
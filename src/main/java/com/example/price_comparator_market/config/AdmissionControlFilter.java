@@ -0,0 +1,171 @@
+package com.example.price_comparator_market.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caps how many requests each heavy endpoint runs at once, so a burst on one of them cannot take the request
+ * threads and database connections that cheap lookups need.
+ *
+ * <p>Every endpoint in {@code admission.endpoints} gets its own {@link AdaptiveLimiter}, whose limit moves
+ * between {@code admission.min-limit} and {@code admission.max-limit} with the endpoint's latency. A request
+ * over the limit waits in the endpoint's queue of {@code admission.queue} for up to
+ * {@code admission.max-wait}. When the queue is full it is rejected at once with 429 Too Many Requests, and
+ * when the wait runs out with 503 Service Unavailable, both with a {@code Retry-After} header. Other
+ * endpoints are not limited.</p>
+ *
+ * <p>Each endpoint reports its {@code admission.limit}, {@code admission.in.flight} and
+ * {@code admission.queue.depth} gauges and an {@code admission.rejected} counter tagged with the reason.
+ * Requests sent by this instance's {@link WarmupReplay} bypass the limits: they run before the instance is
+ * ready, and their cold latencies would skew the baseline the limits adapt to.</p>
+ */
+@Component
+// After the HTTP observation filter, so rejected requests still show up in http.server.requests.
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    private final WarmupReplay warmupReplay;
+
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+    /**
+     * The limited endpoints, as {@code "METHOD /path"}.
+     */
+    @Value("${admission.endpoints:}")
+    private List<String> endpointKeys;
+
+    @Value("${admission.initial-limit:4}")
+    private int initialLimit;
+
+    @Value("${admission.min-limit:1}")
+    private int minLimit;
+
+    @Value("${admission.max-limit:8}")
+    private int maxLimit;
+
+    @Value("${admission.queue:16}")
+    private int queueSize;
+
+    @Value("${admission.max-wait:250ms}")
+    private Duration maxWait;
+
+    @Value("${admission.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${admission.retry-after:1s}")
+    private Duration retryAfter;
+
+    private record Endpoint(AdaptiveLimiter limiter, Counter queueFull, Counter timedOut) {
+    }
+
+    @PostConstruct
+    void registerEndpoints() {
+        for (String key : endpointKeys) {
+            String[] parts = key.trim().split("\\s+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected \"METHOD /path\" in admission.endpoints: " + key);
+            }
+            String method = parts[0].toUpperCase();
+            String path = parts[1];
+            AdaptiveLimiter limiter = new AdaptiveLimiter(initialLimit, minLimit, maxLimit, queueSize,
+                    latencyTolerance);
+            Gauge.builder("admission.limit", limiter, AdaptiveLimiter::limit)
+                    .description("Concurrent requests the endpoint currently admits")
+                    .tag("method", method)
+                    .tag("uri", path)
+                    .register(meterRegistry);
+            Gauge.builder("admission.in.flight", limiter, AdaptiveLimiter::inFlight)
+                    .description("Admitted requests running on the endpoint")
+                    .tag("method", method)
+                    .tag("uri", path)
+                    .register(meterRegistry);
+            Gauge.builder("admission.queue.depth", limiter, AdaptiveLimiter::waiting)
+                    .description("Requests waiting for a slot on the endpoint")
+                    .tag("method", method)
+                    .tag("uri", path)
+                    .register(meterRegistry);
+            endpoints.put(method + " " + path, new Endpoint(limiter,
+                    rejected(method, path, "queue_full"), rejected(method, path, "timed_out")));
+        }
+    }
+
+    private Counter rejected(String method, String path, String reason) {
+        return Counter.builder("admission.rejected")
+                .description("Requests turned away by admission control")
+                .tag("method", method)
+                .tag("uri", path)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return endpoints.isEmpty() || warmupReplay.isWarmup(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Endpoint endpoint = endpoints.get(request.getMethod() + " "
+                + request.getRequestURI().substring(request.getContextPath().length()));
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveLimiter.Outcome outcome;
+        try {
+            outcome = endpoint.limiter().acquire(maxWait.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = AdaptiveLimiter.Outcome.TIMED_OUT;
+        }
+        switch (outcome) {
+            case QUEUE_FULL -> {
+                endpoint.queueFull().increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS);
+            }
+            case TIMED_OUT -> {
+                endpoint.timedOut().increment();
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            case ADMITTED -> {
+                long start = System.nanoTime();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    endpoint.limiter().release(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status) {
+        response.setStatus(status.value());
+        long seconds = Math.max(1, retryAfter.plusMillis(999).toSeconds());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+    }
+}
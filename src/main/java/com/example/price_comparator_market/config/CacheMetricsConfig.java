@@ -0,0 +1,54 @@
+package com.example.price_comparator_market.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes second-level cache hit ratios next to the raw hit/miss counters Spring Boot already
+ * publishes as {@code hibernate.second.level.cache.requests} and {@code hibernate.cache.query.requests}.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    private static final String[] ENTITY_REGIONS = {"store"};
+
+    private static final String[] QUERY_REGIONS = {"store-queries"};
+
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : ENTITY_REGIONS) {
+                hitRatio(registry, region, statistics, s -> ratio(s.getDomainDataRegionStatistics(region)));
+            }
+            for (String region : QUERY_REGIONS) {
+                hitRatio(registry, region, statistics, s -> ratio(s.getQueryRegionStatistics(region)));
+            }
+        };
+    }
+
+    private static void hitRatio(MeterRegistry registry, String region, Statistics statistics,
+                                 ToDoubleFunction<Statistics> ratio) {
+        Gauge.builder("hibernate.cache.hit.ratio", statistics, ratio)
+                .tag("region", region)
+                .description("Share of second-level cache lookups served without hitting the database")
+                .register(registry);
+    }
+
+    private static double ratio(CacheRegionStatistics region) {
+        if (region == null) {
+            return Double.NaN;
+        }
+        long requests = region.getHitCount() + region.getMissCount();
+        return requests == 0 ? Double.NaN : (double) region.getHitCount() / requests;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.price_comparator_market.config;
+
+import com.example.price_comparator_market.catalog.VersionedCache;
+import com.example.price_comparator_market.service.CatalogService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Conditional GET and response caching for the catalog list endpoints.
+ * <p>
+ * These responses only change when an import publishes a new catalog version, so their strong ETag is
+ * derived from that version (plus the effective date for best discounts, the requested JSON or CBOR
+ * representation, and the content encoding).
+ * A matching {@code If-None-Match} is answered with 304 before the controller runs. Otherwise the
+ * serialized body is cached per catalog version, both as-is and gzip-compressed, so repeated polls of the
+ * same version are served from memory without querying or serializing anything.
+ * <p>
+ * The cache is dropped as soon as a newer catalog version is seen. Instance start time is part of the ETag
+ * because catalog versions restart at 1 when the application restarts without a catalog file.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogETagFilter extends OncePerRequestFilter {
+
+    private static final Set<String> PATHS = Set.of("/api/products", "/api/discounts", "/api/discounts/best",
+            "/api/stores");
+
+    private static final String BEST_DISCOUNTS = "/api/discounts/best";
+
+    private static final String CBOR = "application/cbor";
+
+    private static final int MAX_CACHED_BODIES = 64;
+
+    private final CatalogService catalogService;
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    private final VersionedCache<String, CachedBody> bodies = VersionedCache.bounded(MAX_CACHED_BODIES);
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || !PATHS.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = path(request);
+        String variant = variant(path, request);
+        if (variant == null) {
+            // Let the controller reject the malformed request.
+            chain.doFilter(request, response);
+            return;
+        }
+        long version = catalogService.current().version();
+        boolean gzip = acceptsGzip(request);
+        String etag = "\"" + instance + "-" + version + variant + (gzip ? "-gzip" : "") + "\"";
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            setCacheHeaders(response, path, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String key = path + "?" + request.getQueryString() + variant;
+        CachedBody body = bodies.get(version, key);
+        if (body == null) {
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+                wrapper.copyBodyToResponse();
+                return;
+            }
+            body = CachedBody.of(wrapper.getContentType(), wrapper.getContentAsByteArray());
+            bodies.put(version, key, body);
+        }
+
+        byte[] bytes = gzip ? body.gzip() : body.identity();
+        setCacheHeaders(response, path, etag);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(body.contentType());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * @return the part of the ETag that depends on the request beyond its URL and encoding: the requested
+     *         representation, and the effective date for best discounts, from {@code asOf} or the {@code date}
+     *         header; {@code null} if the request is malformed
+     */
+    private static String variant(String path, HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String representation = accept != null && accept.contains(CBOR) ? "-cbor" : "";
+        if (!BEST_DISCOUNTS.equals(path)) {
+            return representation;
+        }
+        String date = request.getParameter("asOf");
+        if (date == null) {
+            date = request.getHeader("date");
+        }
+        try {
+            return representation + "-" + (date != null ? LocalDate.parse(date) : LocalDate.now());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return whether {@code Accept-Encoding} lists {@code gzip}, or else {@code *}, with a non-zero q-value;
+     *         {@code gzip;q=0} refuses gzip even after {@code *}
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality(parameters));
+            } else if (name.equals("*")) {
+                any = Math.max(any, quality(parameters));
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    /**
+     * @return the {@code q} parameter of a content coding, {@code 1} if there is none and {@code 0} if it is
+     *         malformed
+     */
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void setCacheHeaders(HttpServletResponse response, String path, String etag) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY,
+                BEST_DISCOUNTS.equals(path) ? "Accept, Accept-Encoding, date" : "Accept, Accept-Encoding");
+    }
+
+    private record CachedBody(String contentType, byte[] identity, byte[] gzip) {
+
+        static CachedBody of(String contentType, byte[] identity) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(identity.length / 4, 64));
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(identity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new CachedBody(contentType, identity, compressed.toByteArray());
+        }
+    }
+}
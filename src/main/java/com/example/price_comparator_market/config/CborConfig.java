@@ -0,0 +1,31 @@
+package com.example.price_comparator_market.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Adds {@code application/cbor} as an alternative representation for every controller response.
+ * <p>
+ * Clients opt in with {@code Accept: application/cbor}; JSON stays the default and is unchanged. The CBOR
+ * mapper is built from the same {@link Jackson2ObjectMapperBuilder} as the JSON one, so field names and
+ * date handling match. Repeated strings (store names, brands, units) are written once per response and
+ * referenced afterwards using CBOR stringref (tags 256/25), and {@code BigDecimal} amounts are written as
+ * CBOR decimal fractions whose integer mantissa is the price in minor units.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        CBORFactory factory = CBORFactory.builder()
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .build();
+        ObjectMapper mapper = builder.factory(factory).build();
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+}
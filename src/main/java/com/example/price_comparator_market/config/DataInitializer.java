@@ -1,32 +1,96 @@
 package com.example.price_comparator_market.config;
 
+import com.example.price_comparator_market.service.CatalogService;
 import com.example.price_comparator_market.service.CsvImportService;
+import com.example.price_comparator_market.service.CurrencyConversionService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Loads the CSV files of {@code catalog.csv-dir}: the latest {@code exchange_rates_<date>.csv}, then every
+ * price file followed by every discount file, each group in file name order, unless the catalog file was built
+ * from these same files and still matches the database. A file counts as the same if its name, size and
+ * modification time are. This is the first of the {@link StartupPhases}.
+ */
 @Component
 @RequiredArgsConstructor
-public class DataInitializer implements CommandLineRunner {
+public class DataInitializer {
+
+    private static final String RATES_PREFIX = "exchange_rates_";
 
     private final CsvImportService csvImportService;
 
-    @Override
-    public void run(String... args) {
-       List<String> csvFiles = List.of(
-               "lidl_2025-05-08.csv",
-               "kaufland_2025-05-08.csv",
-               "profi_2025-05-08.csv",
-               "kaufland_discounts_2025-05-01.csv",
-               "profi_discounts_2025-05-01.csv",
-               "lidl_discounts_2025-05-01.csv"
-       );
-       for (String fileName : csvFiles) {
-           Path path = Path.of("src/main/resources/csv/" + fileName);
-           csvImportService.importCsv(path);
+    private final CurrencyConversionService currencyConversionService;
+
+    private final CatalogService catalogService;
+
+    @Value("${catalog.csv-dir:src/main/resources/csv}")
+    private String csvDir;
+
+    public void loadCatalog() {
+       List<Path> files = csvFiles(Path.of(csvDir));
+       files.stream()
+               .filter(file -> file.getFileName().toString().startsWith(RATES_PREFIX))
+               .max(Comparator.naturalOrder())
+               .ifPresent(currencyConversionService::loadRates);
+       if (catalogService.restore(fingerprint(files))) {
+           return;
+       }
+       List<Path> prices = new ArrayList<>();
+       List<Path> discounts = new ArrayList<>();
+       for (Path file : files) {
+           String fileName = file.getFileName().toString();
+           if (fileName.contains("_discounts_")) {
+               discounts.add(file);
+           } else if (!fileName.startsWith(RATES_PREFIX)) {
+               prices.add(file);
+           }
        }
+       prices.addAll(discounts);
+       csvImportService.importCsvFiles(prices);
+    }
+
+    private static long fingerprint(List<Path> files) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+                digest.update(ByteBuffer.allocate(2 * Long.BYTES)
+                        .putLong(attributes.size())
+                        .putLong(attributes.lastModifiedTime().toMillis())
+                        .flip());
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read CSV file attributes", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Path> csvFiles(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".csv"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list CSV directory " + dir, e);
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.example.price_comparator_market.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Times requests for {@link StartupPhases}' time-to-first-fast-request metric. Once that metric is recorded
+ * the filter steps aside.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class FirstFastRequestFilter extends OncePerRequestFilter {
+
+    private final StartupPhases startupPhases;
+
+    private final WarmupReplay warmupReplay;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return startupPhases.firstFastRequestRecorded();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        chain.doFilter(request, response);
+        startupPhases.requestCompleted(System.nanoTime() - start, warmupReplay.isWarmup(request));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.price_comparator_market.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements and entity loads each request caused, per endpoint, as the
+ * {@code http.server.requests.jdbc.statements} and {@code http.server.requests.entities.loaded} distributions.
+ * <p>
+ * When {@code query-count.warn-threshold} is positive (the {@code dev} profile sets it), a request issuing
+ * more statements than that is logged as a warning, which is how an N+1 shows up during development.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${query-count.warn-threshold:0}")
+    private int warnThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.Counts counts = QueryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCounter.stop(counts);
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCounter.Counts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        summary("http.server.requests.jdbc.statements", "SQL statements prepared per request", request, uri)
+                .record(counts.statements());
+        summary("http.server.requests.entities.loaded", "Entities loaded per request", request, uri)
+                .record(counts.entities());
+
+        if (warnThreshold > 0 && counts.statements() > warnThreshold) {
+            log.warn("{} {} issued {} SQL statements and loaded {} entities, above the threshold of {}",
+                    request.getMethod(), request.getRequestURI(), counts.statements(), counts.entities(),
+                    warnThreshold);
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.price_comparator_market.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the entities it loads on the current thread.
+ * <p>
+ * Counting only happens inside a scope opened with {@link #start()}: {@link QueryCountFilter} opens one per
+ * HTTP request, tests open their own around the calls they measure. Scopes nest; closing an inner scope adds
+ * its counts to the enclosing one. Work on other threads, such as a streaming export body written after the
+ * controller returned, is not attributed to the request.
+ * <p>
+ * Hibernate's own statistics are per session factory, so they cannot tell which request issued a statement;
+ * the {@link Statements} inspector and {@link Loads} interceptor registered by {@link QueryMetricsConfig} can.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Opens a counting scope on the current thread.
+     *
+     * @return the counts of the new scope, to be passed to {@link #stop(Counts)}
+     */
+    public static Counts start() {
+        Counts counts = new Counts(CURRENT.get());
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    /**
+     * Closes a scope opened by {@link #start()} and restores the enclosing one.
+     *
+     * @param counts the scope to close
+     * @return the same counts, now final
+     */
+    public static Counts stop(Counts counts) {
+        CURRENT.set(counts.parent);
+        if (counts.parent != null) {
+            counts.parent.statements += counts.statements;
+            counts.parent.entities += counts.entities;
+        }
+        return counts;
+    }
+
+    /**
+     * Statement and entity counts of one scope.
+     */
+    public static final class Counts {
+
+        private final Counts parent;
+
+        private long statements;
+
+        private long entities;
+
+        private Counts(Counts parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * @return the SQL statements Hibernate prepared in this scope, including native queries; the import's
+         *         {@code JdbcTemplate} batches bypass Hibernate and are not counted
+         */
+        public long statements() {
+            return statements;
+        }
+
+        /**
+         * @return the entities Hibernate loaded in this scope; projections and native row mappings are not entities
+         */
+        public long entities() {
+            return entities;
+        }
+    }
+
+    /**
+     * Counts every statement Hibernate prepares, without changing it.
+     */
+    public static class Statements implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.statements++;
+            }
+            return sql;
+        }
+    }
+
+    /**
+     * Counts every entity Hibernate hydrates from a result set.
+     */
+    public static class Loads implements Interceptor {
+
+        @Override
+        public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.entities++;
+            }
+            return false;
+        }
+    }
+}
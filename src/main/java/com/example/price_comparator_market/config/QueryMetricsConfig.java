@@ -0,0 +1,31 @@
+package com.example.price_comparator_market.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the timing and query-counting instrumentation.
+ * <p>
+ * {@link TimedAspect} turns {@code @Timed} on the services into {@code service.method} timers tagged with class
+ * and method; controller endpoints are already timed by Spring as {@code http.server.requests}.
+ */
+@Configuration
+public class QueryMetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter.Statements());
+            properties.putIfAbsent(AvailableSettings.INTERCEPTOR, new QueryCounter.Loads());
+        };
+    }
+}
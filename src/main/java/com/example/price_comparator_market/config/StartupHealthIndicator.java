@@ -0,0 +1,29 @@
+package com.example.price_comparator_market.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the {@link StartupPhases} progress as the {@code startup} health component: OUT_OF_SERVICE while the
+ * catalog is loading or warming up, DOWN if a phase failed, UP once ready. It is part of the readiness group,
+ * so {@code /actuator/health/readiness} only turns UP after warm-up.
+ */
+@Component
+@RequiredArgsConstructor
+public class StartupHealthIndicator implements HealthIndicator {
+
+    private final StartupPhases startupPhases;
+
+    @Override
+    public Health health() {
+        StartupPhases.Phase phase = startupPhases.phase();
+        Health.Builder health = switch (phase) {
+            case READY -> Health.up();
+            case FAILED -> Health.down();
+            default -> Health.outOfService();
+        };
+        return health.withDetail("phase", phase).build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.price_comparator_market.config;
+
+import com.example.price_comparator_market.service.CatalogService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Brings the catalog up in phases once the server is listening, and reports progress to the readiness probe.
+ * <p>
+ * The phases are: {@link Phase#CATALOG} restores the catalog file or imports the CSV directory,
+ * {@link Phase#INDEXES} builds the catalog indexes, and {@link Phase#WARM_UP} replays recorded requests
+ * through the real server. Only then does {@link StartupHealthIndicator}, part of the readiness group, report
+ * UP, so a load balancer sends no traffic to a cold instance. With {@code startup.async=true} (the default)
+ * the phases run on a background thread and liveness is UP throughout; otherwise they run on the main thread
+ * before {@code SpringApplication.run} returns.
+ * <p>
+ * Phase durations are recorded as the {@code startup.phase} timer. {@code startup.time.to.ready} and
+ * {@code startup.time.to.first.fast.request} measure, from JVM start, when the instance became ready and when
+ * the first real request completed within {@code startup.fast-request-threshold}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StartupPhases {
+
+    public enum Phase {
+        STARTING,
+        CATALOG,
+        INDEXES,
+        WARM_UP,
+        READY,
+        FAILED
+    }
+
+    private final DataInitializer dataInitializer;
+
+    private final CatalogService catalogService;
+
+    private final WarmupReplay warmupReplay;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private final AtomicLong timeToReadyMillis = new AtomicLong(-1);
+
+    private final AtomicLong timeToFirstFastRequestMillis = new AtomicLong(-1);
+
+    @Value("${startup.async:true}")
+    private boolean async;
+
+    @Value("${startup.fast-request-threshold:50ms}")
+    private Duration fastRequestThreshold;
+
+    private volatile Phase phase = Phase.STARTING;
+
+    @PostConstruct
+    void registerGauges() {
+        TimeGauge.builder("startup.time.to.ready", timeToReadyMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until the instance reported ready; -1 until then")
+                .register(meterRegistry);
+        TimeGauge.builder("startup.time.to.first.fast.request", timeToFirstFastRequestMillis,
+                        TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until the first non-warm-up request completed within "
+                        + "startup.fast-request-threshold; -1 until then")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the phase in progress, {@link Phase#READY} once done or {@link Phase#FAILED} if a phase threw
+     */
+    public Phase phase() {
+        return phase;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port");
+        String baseUrl = port != null ? "http://localhost:" + port : null;
+        if (async) {
+            Thread.ofPlatform().name("startup-phases").daemon().start(() -> {
+                try {
+                    run(baseUrl);
+                } catch (RuntimeException e) {
+                    log.error("Startup failed in phase {}; the instance stays unready", phase, e);
+                    phase = Phase.FAILED;
+                }
+            });
+        } else {
+            run(baseUrl);
+        }
+    }
+
+    boolean firstFastRequestRecorded() {
+        return timeToFirstFastRequestMillis.get() >= 0;
+    }
+
+    /**
+     * Records a completed request for the time-to-first-fast-request metric.
+     *
+     * @param nanos  the request's duration
+     * @param warmup whether it was replayed by {@link WarmupReplay}
+     */
+    void requestCompleted(long nanos, boolean warmup) {
+        if (warmup || phase != Phase.READY || timeToFirstFastRequestMillis.get() >= 0
+                || nanos > fastRequestThreshold.toNanos()) {
+            return;
+        }
+        if (timeToFirstFastRequestMillis.compareAndSet(-1, System.currentTimeMillis() - jvmStartMillis)) {
+            log.info("First fast request completed {} ms after JVM start", timeToFirstFastRequestMillis.get());
+        }
+    }
+
+    private void run(String baseUrl) {
+        phase(Phase.CATALOG, dataInitializer::loadCatalog);
+        phase(Phase.INDEXES, catalogService::buildIndexes);
+        if (baseUrl != null) {
+            phase(Phase.WARM_UP, () -> warmupReplay.replay(baseUrl));
+        }
+        timeToReadyMillis.set(System.currentTimeMillis() - jvmStartMillis);
+        phase = Phase.READY;
+        log.info("Ready to serve traffic {} ms after JVM start", timeToReadyMillis.get());
+    }
+
+    private void phase(Phase next, Runnable work) {
+        phase = next;
+        Timer.builder("startup.phase")
+                .description("Duration of one startup phase")
+                .tag("phase", next.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .record(work);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.price_comparator_market.config;
+
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.catalog.CatalogStore;
+import com.example.price_comparator_market.service.CatalogService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays a recorded set of representative requests against the running server so the JIT, the response
+ * caches and the connection pool are warm before the application reports ready.
+ * <p>
+ * Requests are read from {@code startup.warmup.requests}, one per line as {@code METHOD /path?query [body]}.
+ * The placeholders {@code {productName}}, {@code {storeName}}, {@code {storeId}} and {@code {date}} are filled
+ * from the loaded catalog, rotating through a sample of its products, so the same file warms up any dataset.
+ * Each of {@code startup.warmup.concurrency} clients replays the set {@code startup.warmup.iterations} times,
+ * or until {@code startup.warmup.max-duration} has passed. Replayed requests carry a {@value #HEADER} header
+ * holding a random token generated per instance, so clients cannot pass their requests off as warm-up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupReplay {
+
+    /**
+     * Marks warm-up traffic so it is not mistaken for the first real request.
+     */
+    public static final String HEADER = "X-Warmup";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(productName|storeName|storeId|date)}");
+
+    private static final int SAMPLE_PRODUCTS = 64;
+
+    private final CatalogService catalogService;
+
+    private final String token = UUID.randomUUID().toString();
+
+    @Value("${startup.warmup.requests:classpath:warmup-requests.txt}")
+    private Resource requests;
+
+    @Value("${startup.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${startup.warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${startup.warmup.max-duration:30s}")
+    private Duration maxDuration;
+
+    /**
+     * @return whether the request was sent by this instance's warm-up, rather than merely carrying the header
+     */
+    public boolean isWarmup(HttpServletRequest request) {
+        String header = request.getHeader(HEADER);
+        return header != null && MessageDigest.isEqual(header.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Recorded(String method, String target, String body) {
+    }
+
+    /**
+     * Replays the recorded requests against a server.
+     *
+     * @param baseUrl the server's base URL, e.g. {@code http://localhost:8080}
+     */
+    public void replay(String baseUrl) {
+        List<Recorded> recorded = read();
+        if (recorded.isEmpty() || iterations <= 0) {
+            return;
+        }
+        Values values = Values.of(catalogService.current());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                int offset = worker;
+                executor.submit(() -> {
+                    for (int pass = offset; pass < iterations + offset && System.nanoTime() < deadline; pass++) {
+                        for (Recorded request : recorded) {
+                            int status = send(client, baseUrl, request, values, pass);
+                            sent.incrementAndGet();
+                            if (status < 0 || status >= 500) {
+                                failed.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        log.info("Warm-up replayed {} requests ({} failed) in {} ms", sent.get(), failed.get(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private int send(HttpClient client, String baseUrl, Recorded recorded, Values values, int pass) {
+        String target = fill(recorded.target(), values, pass, true);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + target))
+                .header(HEADER, token)
+                .timeout(Duration.ofSeconds(30));
+        if (recorded.body() != null) {
+            request.header("Content-Type", "application/json")
+                    .method(recorded.method(), HttpRequest.BodyPublishers.ofString(
+                            fill(recorded.body(), values, pass, false)));
+        } else {
+            request.method(recorded.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        try {
+            return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    /**
+     * Replaces the placeholders of a request line; the n-th product placeholder of a pass takes the next
+     * sampled product, so a basket body gets distinct products.
+     */
+    private static String fill(String template, Values values, int pass, boolean url) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder filled = new StringBuilder();
+        int occurrence = 0;
+        while (matcher.find()) {
+            String value = values.get(matcher.group(1), pass * 7 + occurrence++);
+            String encoded = url ? URLEncoder.encode(value, StandardCharsets.UTF_8)
+                    : value.replace("\\", "\\\\").replace("\"", "\\\"");
+            matcher.appendReplacement(filled, Matcher.quoteReplacement(encoded));
+        }
+        matcher.appendTail(filled);
+        return filled.toString();
+    }
+
+    private List<Recorded> read() {
+        if (!requests.exists()) {
+            log.warn("Warm-up request file {} not found; skipping warm-up", requests);
+            return List.of();
+        }
+        List<Recorded> recorded = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(requests.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(" ", 3);
+                recorded.add(new Recorded(parts[0], parts[1], parts.length > 2 ? parts[2] : null));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read warm-up requests " + requests, e);
+        }
+        return recorded;
+    }
+
+    /**
+     * Placeholder values sampled evenly across the catalog.
+     */
+    private record Values(List<String> productNames, List<CatalogStore> stores, String date) {
+
+        static Values of(CatalogSnapshot catalog) {
+            List<CatalogProduct> products = catalog.products();
+            Set<String> names = new LinkedHashSet<>();
+            int step = Math.max(1, products.size() / SAMPLE_PRODUCTS);
+            for (int row = 0; row < products.size() && names.size() < SAMPLE_PRODUCTS; row += step) {
+                names.add(products.get(row).productName());
+            }
+            return new Values(List.copyOf(names), catalog.stores(), LocalDate.now().toString());
+        }
+
+        String get(String placeholder, int n) {
+            return switch (placeholder) {
+                case "productName" -> productNames.isEmpty() ? "" : productNames.get(n % productNames.size());
+                case "storeName" -> stores.isEmpty() ? "" : stores.get(n % stores.size()).name();
+                case "storeId" -> stores.isEmpty() ? "0" : String.valueOf(stores.get(n % stores.size()).id());
+                default -> date;
+            };
+        }
+    }
+}
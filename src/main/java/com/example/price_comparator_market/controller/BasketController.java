@@ -1,17 +1,24 @@
 package com.example.price_comparator_market.controller;
 
+import com.example.price_comparator_market.dto.BasketItemDTO;
 import com.example.price_comparator_market.dto.BasketRequestDTO;
 import com.example.price_comparator_market.dto.BasketResponseDTO;
 import com.example.price_comparator_market.service.BasketOptimizerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/basket")
 @RequiredArgsConstructor
 public class BasketController {
 
+    private static final int MAX_ITEM_QUANTITY = 1000;
+
     private final BasketOptimizerService basketOptimizerService;
 
     /**
@@ -20,12 +27,29 @@ public class BasketController {
      * <p>
      * Returns a response containing the optimal store-to-product price mappings
      * and a list of products that could not be found.
+     * <p>
+     * Besides product names, the request may list {@code items} with a quantity and unit, e.g.
+     * {@code {"productName": "făină albă", "quantity": 2, "unit": "kg"}}, which are covered with the cheapest
+     * combination of packs. A 400 (Bad Request) response is returned if an item lacks a name or unit, or its
+     * quantity is not positive and at most {@value #MAX_ITEM_QUANTITY}.
      *
      * @param request the {@link BasketRequestDTO} containing a list of product names to search for
+     * @param asOf    optional past day to price the basket on, in ISO format (yyyy-MM-dd); defaults to today
      * @return a {@link ResponseEntity} containing the {@link BasketResponseDTO} with the optimized basket
      */
     @PostMapping("/optimize")
-    public ResponseEntity<BasketResponseDTO> optimizeBasket(@RequestBody BasketRequestDTO request) {
-        return ResponseEntity.ok(basketOptimizerService.optimizeBasket(request));
+    public ResponseEntity<BasketResponseDTO> optimizeBasket(
+            @RequestBody BasketRequestDTO request,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        if (request.getItems() != null && !request.getItems().stream().allMatch(BasketController::isValid)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(basketOptimizerService.optimizeBasket(request, asOf));
+    }
+
+    private static boolean isValid(BasketItemDTO item) {
+        return item != null && item.getProductName() != null && item.getUnit() != null && !item.getUnit().isBlank()
+                && item.getQuantity() != null && item.getQuantity().signum() > 0
+                && item.getQuantity().compareTo(BigDecimal.valueOf(MAX_ITEM_QUANTITY)) <= 0;
     }
 }
\ No newline at end of file
@@ -3,12 +3,17 @@ package com.example.price_comparator_market.controller;
 import com.example.price_comparator_market.dto.BestDiscountDTO;
 import com.example.price_comparator_market.dto.DiscountDTO;
 import com.example.price_comparator_market.dto.NewDiscountDTO;
+import com.example.price_comparator_market.model.Currency;
 import com.example.price_comparator_market.service.DiscountService;
+import com.example.price_comparator_market.service.DiscountStreamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -19,6 +24,8 @@ public class DiscountController {
 
     private final DiscountService discountService;
 
+    private final DiscountStreamService discountStreamService;
+
     /**
      * Retrieves all available discounts.
      *
@@ -49,20 +56,30 @@ public class DiscountController {
      * If no date is provided in the "date" request header, the current date is used by default.
      * The best discount is defined as the highest percentage discount available for a given product
      * across all stores on the specified date.
+     * <p>
+     * The {@code date} header only selects the discounts; prices are the current ones. The {@code asOf}
+     * parameter evaluates everything as of that day, base prices included, and takes precedence.
      *
      * @param date the date to evaluate discounts against, passed as a request header in ISO format (yyyy-MM-dd);
      *             if null, the current date is used
+     * @param currency optional currency to express prices in (defaults to RON)
+     * @param asOf optional past day to evaluate prices and discounts on, in ISO format (yyyy-MM-dd)
      * @return a {@link ResponseEntity} containing a list of {@link BestDiscountDTO} objects representing
      *         the best discount per product
      */
     @GetMapping("/best")
     public ResponseEntity<List<BestDiscountDTO>> getBestDiscounts(
             @RequestHeader(value = "date", required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        if (asOf != null) {
+            return ResponseEntity.ok(discountService.getBestDiscountsAsOf(asOf, currency));
+        }
         if (date == null) {
             date = LocalDate.now();
         }
-        return ResponseEntity.ok(discountService.getBestDiscounts(date));
+        return ResponseEntity.ok(discountService.getBestDiscounts(date, currency));
     }
 
     /**
@@ -79,4 +96,37 @@ public class DiscountController {
     public ResponseEntity<List<NewDiscountDTO>> getNewDiscounts() {
         return ResponseEntity.ok(discountService.getNewDiscounts());
     }
+
+    /**
+     * Streams new discounts and price drops as server-sent events while imports publish them, e.g.
+     * {@code /api/discounts/stream?store=Lidl&category=lactate&minPercentage=15}.
+     * <p>
+     * Each event carries its ID; a reconnecting {@code EventSource} sends the last one it received as the
+     * {@code Last-Event-ID} header and gets the retained events it missed first. Clients that cannot set the
+     * header pass it as {@code lastEventId}. A {@code dropped} event tells a client that fell too far behind
+     * how many of the oldest events it lost. A 400 (Bad Request) response is returned if
+     * {@code minPercentage} is not between 0 and 100.
+     *
+     * @param store         optional store name
+     * @param category      optional product category
+     * @param minPercentage optional smallest discount or price drop, in percent
+     * @param lastEventId   optional ID of the last event received, as a {@code Last-Event-ID} header or a
+     *                      parameter
+     * @return a {@link ResponseEntity} containing the {@link SseEmitter} of the stream
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDiscounts(
+            @RequestParam(required = false) String store,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPercentage,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        if (minPercentage != null
+                && (minPercentage.signum() < 0 || minPercentage.compareTo(BigDecimal.valueOf(100)) > 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        DiscountStreamService.Filter filter = new DiscountStreamService.Filter(store, category, minPercentage);
+        return ResponseEntity.ok(discountStreamService.subscribe(filter,
+                lastEventIdHeader != null ? lastEventIdHeader : lastEventId));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.price_comparator_market.controller;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final ExportService exportService;
+
+    /**
+     * Streams the effective price of every product on a given date, for bulk consumers.
+     * <p>
+     * The response is written while it is produced, one row per product ordered by store and product ID,
+     * so exports of any size run in constant memory.
+     *
+     * @param date     the day to evaluate discounts for, in ISO format (yyyy-MM-dd); defaults to today
+     * @param format   {@code NDJSON} (default) for one JSON object per line, or {@code CSV}
+     * @param currency optional currency to express prices in; by default each product keeps its own currency
+     * @return a {@link ResponseEntity} streaming the rows with HTTP status 200 (OK)
+     */
+    @GetMapping("/effective-prices")
+    public ResponseEntity<StreamingResponseBody> exportEffectivePrices(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "NDJSON") ExportService.Format format,
+            @RequestParam(required = false) Currency currency) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        return ResponseEntity.ok()
+                .contentType(format == ExportService.Format.CSV ? CSV : NDJSON)
+                .body(exportService.effectivePrices(day, currency, format));
+    }
+}
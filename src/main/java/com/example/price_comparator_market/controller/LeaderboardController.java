@@ -0,0 +1,46 @@
+package com.example.price_comparator_market.controller;
+
+import com.example.price_comparator_market.dto.LeaderboardDTO;
+import com.example.price_comparator_market.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Retrieves the cheapest products per unit of each category, e.g.
+     * {@code /api/leaderboards?category=lactate&unit=l&store=Lidl&limit=5}.
+     *
+     * <p>Without a category, every category is returned; without a unit, every unit of the category. A 400
+     * (Bad Request) response is returned for a limit outside 1 to {@value #MAX_LIMIT}.</p>
+     *
+     * @param category optional product category
+     * @param unit     optional unit, {@code kg}, {@code l} or a count unit such as {@code buc}
+     * @param store    optional store to restrict the ranking to
+     * @param brand    optional brand to restrict the ranking to
+     * @param limit    the most products per leaderboard (defaults to 10)
+     * @return a {@link ResponseEntity} containing the list of {@link LeaderboardDTO}, cheapest per unit first
+     */
+    @GetMapping
+    public ResponseEntity<List<LeaderboardDTO>> getLeaderboards(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String unit,
+            @RequestParam(required = false) String store,
+            @RequestParam(required = false) String brand,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leaderboardService.getLeaderboards(category, unit, store, brand, limit));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.price_comparator_market.controller;
+
+import com.example.price_comparator_market.dto.PriceChangeDTO;
+import com.example.price_comparator_market.model.PriceChangeType;
+import com.example.price_comparator_market.service.PriceChangeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/price-changes")
+@RequiredArgsConstructor
+public class PriceChangeController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final PriceChangeService priceChangeService;
+
+    /**
+     * Retrieves the price changes imports have detected since a feed date, e.g.
+     * {@code /api/price-changes?since=2025-05-08&store=Lidl&type=DECREASED}.
+     *
+     * <p>Changes are returned by ID; pass the last ID received as {@code afterId} to fetch the next page or
+     * to poll for new changes. A 400 (Bad Request) response is returned if {@code limit} is not between 1 and
+     * {@value #MAX_LIMIT} or {@code afterId} is negative.</p>
+     *
+     * @param since   the earliest feed date, in ISO format (yyyy-MM-dd)
+     * @param store   optional store name
+     * @param type    optional change type: ADDED, REMOVED, INCREASED, DECREASED or CURRENCY_CHANGED
+     * @param afterId only changes with a larger ID; defaults to 0
+     * @param limit   the most changes to return; defaults to 1000
+     * @return a {@link ResponseEntity} containing the list of {@link PriceChangeDTO}
+     */
+    @GetMapping
+    public ResponseEntity<List<PriceChangeDTO>> getPriceChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since,
+            @RequestParam(required = false) String store,
+            @RequestParam(required = false) PriceChangeType type,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT || afterId < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(priceChangeService.getPriceChanges(since, store, type, afterId, limit));
+    }
+}
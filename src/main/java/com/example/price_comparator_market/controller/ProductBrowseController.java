@@ -0,0 +1,73 @@
+package com.example.price_comparator_market.controller;
+
+import com.example.price_comparator_market.catalog.FacetIndex;
+import com.example.price_comparator_market.dto.ProductBrowseResponseDTO;
+import com.example.price_comparator_market.service.ProductBrowseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductBrowseController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final ProductBrowseService productBrowseService;
+
+    /**
+     * Browses products by facets with counts, e.g.
+     * {@code /api/products/browse?category=lactate&brand=Zuzu&brand=Pilos&discounted=true&maxPrice=15}.
+     *
+     * <p>Each facet parameter may be repeated; a product matches if it has any of the given values of every
+     * given facet. Values are matched case-insensitively. A 400 (Bad Request) response is returned for a
+     * negative page or a page size outside 1 to {@value #MAX_PAGE_SIZE}.</p>
+     *
+     * @param store       store names to keep
+     * @param brand       brands to keep
+     * @param category    product categories to keep
+     * @param packageUnit package units to keep, e.g. {@code kg}
+     * @param discounted  {@code true} to keep only products with a discount active today
+     * @param minPrice    the lowest final price in RON, inclusive
+     * @param maxPrice    the highest final price in RON, inclusive
+     * @param page        the zero-based page number (defaults to 0)
+     * @param size        the page size (defaults to 20)
+     * @return a {@link ResponseEntity} containing a {@link ProductBrowseResponseDTO} with the page of products,
+     *         cheapest first, the total number of matches and the facet counts of all matches
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<ProductBrowseResponseDTO> browse(
+            @RequestParam(required = false) List<String> store,
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> packageUnit,
+            @RequestParam(defaultValue = "false") boolean discounted,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<FacetIndex.Facet, List<String>> facets = new EnumMap<>(FacetIndex.Facet.class);
+        if (store != null) {
+            facets.put(FacetIndex.Facet.STORE, store);
+        }
+        if (brand != null) {
+            facets.put(FacetIndex.Facet.BRAND, brand);
+        }
+        if (category != null) {
+            facets.put(FacetIndex.Facet.CATEGORY, category);
+        }
+        if (packageUnit != null) {
+            facets.put(FacetIndex.Facet.PACKAGE_UNIT, packageUnit);
+        }
+        return ResponseEntity.ok(productBrowseService.browse(facets, discounted, minPrice, maxPrice, page, size));
+    }
+}
@@ -3,8 +3,11 @@ package com.example.price_comparator_market.controller;
 import com.example.price_comparator_market.dto.ProductDTO;
 import com.example.price_comparator_market.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,11 +23,13 @@ public class ProductController {
      * Delegates to the {@code productService} to fetch all products and returns the result
      * wrapped in a {@code ResponseEntity} with HTTP 200 OK status.
      *
+     * @param asOf optional past day to list the products and prices of, in ISO format (yyyy-MM-dd)
      * @return a {@code ResponseEntity} containing a list of {@code ProductDTO}s
      */
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<ProductDTO>> getAllProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(productService.getAllProducts(asOf));
     }
 
     /**
@@ -38,7 +43,7 @@ public class ProductController {
      * * @throws ProductNotFoundException if no product is found with the given ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable String id) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
         return ResponseEntity.ok(productService.getProductById(id));
     }
 }
\ No newline at end of file
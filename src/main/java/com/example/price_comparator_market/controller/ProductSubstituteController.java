@@ -1,11 +1,15 @@
 package com.example.price_comparator_market.controller;
 
 import com.example.price_comparator_market.dto.ProductSubstitutesResponseDTO;
+import com.example.price_comparator_market.model.Currency;
 import com.example.price_comparator_market.service.ProductSubstituteService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
@@ -20,12 +24,18 @@ public class ProductSubstituteController {
      * If no substitutes are found, a 404 (Not Found) response is returned.</p>
      *
      * @param productName the name of the product for which substitutes are being searched
+     * @param currency optional currency to express and compare prices in (defaults to RON)
+     * @param asOf optional past day to evaluate prices and discounts on, in ISO format (yyyy-MM-dd)
      * @return a {@link ResponseEntity} containing a {@link ProductSubstitutesResponseDTO} with the list of substitute products,
      *         or a 404 response if no substitutes are found
      */
     @GetMapping("/substitutes")
-    public ResponseEntity<ProductSubstitutesResponseDTO> getSubstitutes(@RequestParam String productName) {
-        ProductSubstitutesResponseDTO dto = productSubstituteService.getProductsByProductName(productName);
+    public ResponseEntity<ProductSubstitutesResponseDTO> getSubstitutes(
+            @RequestParam String productName,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        ProductSubstitutesResponseDTO dto = productSubstituteService.getProductsByProductName(productName, currency,
+                asOf);
         if (dto == null || dto.getProducts().isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,56 @@
+package com.example.price_comparator_market.controller;
+
+import com.example.price_comparator_market.dto.PriceIndexReportDTO;
+import com.example.price_comparator_market.service.PriceIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private static final int MAX_DAYS = 366;
+
+    private final PriceIndexService priceIndexService;
+
+    /**
+     * Retrieves the store price index: the daily cost of a reference basket at each store, e.g.
+     * {@code /api/reports/price-index?from=2025-05-01&to=2025-05-07}.
+     *
+     * <p>The basket is {@code price-index.basket} unless {@code product} parameters name one. The range defaults
+     * to the seven days ending today. A 400 (Bad Request) response is returned if {@code from} is after
+     * {@code to}, the range is longer than {@value #MAX_DAYS} days, or there is no basket to price.</p>
+     *
+     * @param from    the first day, inclusive, in ISO format (yyyy-MM-dd)
+     * @param to      the last day, inclusive, in ISO format (yyyy-MM-dd)
+     * @param product optional product names replacing the reference basket; repeat a name to buy it twice
+     * @return a {@link ResponseEntity} containing the {@link PriceIndexReportDTO}
+     */
+    @GetMapping("/price-index")
+    public ResponseEntity<PriceIndexReportDTO> getPriceIndex(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> product) {
+        if (to == null) {
+            to = LocalDate.now();
+        }
+        if (from == null) {
+            from = to.minusDays(6);
+        }
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        PriceIndexReportDTO report = priceIndexService.getReport(product, from, to);
+        if (report.getBasket().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.price_comparator_market.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketItemDTO {
+    private String productName;
+    private BigDecimal quantity;
+    private String unit;
+}
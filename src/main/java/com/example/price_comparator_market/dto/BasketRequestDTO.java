@@ -1,9 +1,12 @@
 package com.example.price_comparator_market.dto;
 
+import com.example.price_comparator_market.model.Currency;
 import lombok.Data;
 import java.util.List;
 
 @Data
 public class BasketRequestDTO {
     private List<String> products;
-}
\ No newline at end of file
+    private List<BasketItemDTO> items;
+    private Currency currency;
+}
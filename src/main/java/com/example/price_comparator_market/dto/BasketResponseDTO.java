@@ -1,5 +1,6 @@
 package com.example.price_comparator_market.dto;
 
+import com.example.price_comparator_market.model.Currency;
 import lombok.Data;
 import java.util.List;
 import java.util.Map;
@@ -8,4 +9,5 @@ import java.util.Map;
 public class BasketResponseDTO {
     private Map<String, List<ProductInStoreDTO>> storeBaskets;
     private List<String> notFound;
+    private Currency currency;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.price_comparator_market.dto;
 
+import com.example.price_comparator_market.model.Currency;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import java.math.BigDecimal;
@@ -13,4 +14,5 @@ public class BestDiscountDTO {
     private BigDecimal percentageOfDiscount;
     private BigDecimal discountedPrice;
     private String storeName;
+    private Currency currency;
 }
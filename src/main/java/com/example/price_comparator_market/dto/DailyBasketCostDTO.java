@@ -0,0 +1,14 @@
+package com.example.price_comparator_market.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class DailyBasketCostDTO {
+    private LocalDate date;
+    private BigDecimal cost;
+    private BigDecimal index;
+}
@@ -16,4 +16,5 @@ public class DiscountDTO {
     private LocalDate fromDate;
     private LocalDate toDate;
     private BigDecimal percentageOfDiscount;
+    private String storeName;
 }
\ No newline at end of file
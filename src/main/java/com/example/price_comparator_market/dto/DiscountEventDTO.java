@@ -0,0 +1,27 @@
+package com.example.price_comparator_market.dto;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.DiscountEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class DiscountEventDTO {
+    private long id;
+    private DiscountEventType type;
+    private String storeName;
+    private String productId;
+    private String productName;
+    private String brand;
+    private String productCategory;
+    private BigDecimal previousPrice;
+    private BigDecimal price;
+    private BigDecimal percentageOfDiscount;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Currency currency;
+}
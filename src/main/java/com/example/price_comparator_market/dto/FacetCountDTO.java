@@ -0,0 +1,11 @@
+package com.example.price_comparator_market.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FacetCountDTO {
+    private String value;
+    private int count;
+}
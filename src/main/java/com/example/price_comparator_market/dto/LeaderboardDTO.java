@@ -0,0 +1,15 @@
+package com.example.price_comparator_market.dto;
+
+import com.example.price_comparator_market.model.Currency;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardDTO {
+    private String category;
+    private String unit;
+    private List<LeaderboardEntryDTO> products;
+    private Currency currency;
+}
@@ -0,0 +1,18 @@
+package com.example.price_comparator_market.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private String productId;
+    private String productName;
+    private String brand;
+    private String store;
+    private BigDecimal packageQuantity;
+    private BigDecimal finalPrice;
+    private BigDecimal discountPercentage;
+    private BigDecimal finalPricePerUnit;
+}
@@ -0,0 +1,25 @@
+package com.example.price_comparator_market.dto;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.PriceChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class PriceChangeDTO {
+    private Long id;
+    private String store;
+    private String productId;
+    private String productName;
+    private PriceChangeType changeType;
+    private BigDecimal oldPrice;
+    private Currency oldCurrency;
+    private BigDecimal newPrice;
+    private Currency newCurrency;
+    private LocalDate previousFeedDate;
+    private LocalDate feedDate;
+}
@@ -0,0 +1,16 @@
+package com.example.price_comparator_market.dto;
+
+import com.example.price_comparator_market.model.Currency;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class PriceIndexReportDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private List<String> basket;
+    private long catalogVersion;
+    private List<StorePriceIndexDTO> stores;
+    private Currency currency;
+}
@@ -0,0 +1,19 @@
+package com.example.price_comparator_market.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class ProductBrowseDTO {
+    private String productId;
+    private String productName;
+    private String brand;
+    private String productCategory;
+    private String store;
+    private BigDecimal packageQuantity;
+    private String packageUnit;
+    private BigDecimal discountPercentage;
+    private BigDecimal finalPrice;
+}
@@ -0,0 +1,16 @@
+package com.example.price_comparator_market.dto;
+
+import com.example.price_comparator_market.model.Currency;
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class ProductBrowseResponseDTO {
+    private int total;
+    private int page;
+    private int size;
+    private List<ProductBrowseDTO> products;
+    private Map<String, List<FacetCountDTO>> facets;
+    private Currency currency;
+}
@@ -15,4 +15,5 @@ public class ProductDTO {
     private String packageUnit;
     private BigDecimal price;
     private Currency currency;
+    private String storeName;
 }
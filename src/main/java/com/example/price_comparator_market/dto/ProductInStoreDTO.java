@@ -9,4 +9,9 @@ import java.math.BigDecimal;
 public class ProductInStoreDTO {
     private String productName;
     private BigDecimal price;
-}
\ No newline at end of file
+    private String productId;
+    private String brand;
+    private BigDecimal packageQuantity;
+    private String packageUnit;
+    private int packs;
+}
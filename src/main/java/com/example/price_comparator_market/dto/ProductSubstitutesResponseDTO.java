@@ -1,9 +1,11 @@
 package com.example.price_comparator_market.dto;
 
+import com.example.price_comparator_market.model.Currency;
 import lombok.Data;
 import java.util.List;
 
 @Data
 public class ProductSubstitutesResponseDTO {
     private List<ProductSubstituteDTO> products;
+    private Currency currency;
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.price_comparator_market.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class StorePriceIndexDTO {
+    private String store;
+    private List<String> missingProducts;
+    private List<DailyBasketCostDTO> days;
+}
@@ -12,6 +12,11 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_discount_store_product_dates", columnList = "store_id, product_id, from_date, to_date", unique = true),
+        @Index(name = "ix_discount_dates", columnList = "from_date, to_date"),
+        @Index(name = "ix_discount_name_dates", columnList = "product_name, from_date")
+})
 public class Discount {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,6 @@
+package com.example.price_comparator_market.model;
+
+public enum DiscountEventType {
+    NEW_DISCOUNT,
+    PRICE_DROP
+}
@@ -0,0 +1,48 @@
+package com.example.price_comparator_market.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A product's price difference between two consecutive price feeds of a store. {@code oldPrice} is empty for
+ * {@link PriceChangeType#ADDED} and {@code newPrice} for {@link PriceChangeType#REMOVED}.
+ */
+@Data
+@Entity
+@Table(indexes = {
+        @Index(name = "ix_price_change_feed_date", columnList = "feed_date, id"),
+        @Index(name = "ix_price_change_store_product", columnList = "store_id, product_id")
+})
+public class PriceChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String productId;
+
+    private String productName;
+
+    @Enumerated(EnumType.STRING)
+    private PriceChangeType changeType;
+
+    private BigDecimal oldPrice;
+
+    private Currency oldCurrency;
+
+    private BigDecimal newPrice;
+
+    private Currency newCurrency;
+
+    private LocalDate previousFeedDate;
+
+    private LocalDate feedDate;
+
+    private LocalDateTime detectedAt;
+
+    @ManyToOne(optional = false)
+    private Store store;
+}
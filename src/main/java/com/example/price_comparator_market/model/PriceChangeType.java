@@ -0,0 +1,9 @@
+package com.example.price_comparator_market.model;
+
+public enum PriceChangeType {
+    ADDED,
+    REMOVED,
+    INCREASED,
+    DECREASED,
+    CURRENCY_CHANGED
+}
@@ -6,11 +6,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_product_store_product", columnList = "store_id, product_id", unique = true),
+        @Index(name = "ix_product_name", columnList = "product_name"),
+        @Index(name = "ix_product_store_feed", columnList = "store_id, feed_date, product_id")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,4 +40,7 @@ public class Product {
 
     @ManyToOne(optional = false)
     private Store store;
+
+    /** Date of the latest price file that listed the product; the store's latest feed is its baseline. */
+    private LocalDate feedDate;
 }
@@ -3,12 +3,16 @@ package com.example.price_comparator_market.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Data
 @Entity
-@Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "store")
+@Table(indexes = @Index(name = "ux_store_name", columnList = "name", unique = true))
 public class Store {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -0,0 +1,50 @@
+package com.example.price_comparator_market.pricing;
+
+import com.example.price_comparator_market.model.Currency;
+
+/**
+ * Converts minor-unit amounts into a single target currency using one day's precomputed factors.
+ *
+ * <p>Obtain one per request from {@link ExchangeRateTable#converter} and reuse it for every price
+ * in the request; a conversion is a single multiplication rounded half-up to the minor unit.</p>
+ */
+public final class CurrencyConverter {
+
+    private final Currency target;
+
+    private final double[] factors;
+
+    CurrencyConverter(Currency target, double[] factors) {
+        this.target = target;
+        this.factors = factors;
+    }
+
+    /**
+     * @return the currency converted amounts are expressed in
+     */
+    public Currency target() {
+        return target;
+    }
+
+    /**
+     * @param from a currency; {@code null} is treated as the target currency
+     * @return the factor amounts in {@code from} are multiplied by, {@code 1} for the target currency
+     */
+    public double factor(Currency from) {
+        return from == null || from == target ? 1 : factors[from.ordinal()];
+    }
+
+    /**
+     * Converts an amount to the target currency.
+     *
+     * @param minor the amount in minor units of {@code from}
+     * @param from  the currency of the amount; {@code null} is treated as already being in the target currency
+     * @return the amount in minor units of the target currency
+     */
+    public long convert(long minor, Currency from) {
+        if (from == null || from == target) {
+            return minor;
+        }
+        return Math.round(minor * factors[from.ordinal()]);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.price_comparator_market.pricing;
+
+import com.example.price_comparator_market.model.Currency;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable, dated exchange-rate table with precomputed conversion factors.
+ *
+ * <p>Rates are quoted as the value of one unit of a currency in {@link Currency#RON}. For every day
+ * between the first and last quoted date, the table stores one {@code double} factor per
+ * (source, target) currency pair in a single flat array, so converting a price is one array read
+ * and one multiplication. Days without a quote (weekends, holidays) reuse the last known rate;
+ * dates outside the table are clamped to its first or last day.</p>
+ */
+public final class ExchangeRateTable {
+
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private static final int PAIRS = CURRENCIES.length * CURRENCIES.length;
+
+    private final long firstEpochDay;
+
+    private final int days;
+
+    private final double[] factors;
+
+    private ExchangeRateTable(long firstEpochDay, int days, double[] factors) {
+        this.firstEpochDay = firstEpochDay;
+        this.days = days;
+        this.factors = factors;
+    }
+
+    /**
+     * Returns a table where every currency converts at par. Used until rates are loaded.
+     *
+     * @return an identity table
+     */
+    public static ExchangeRateTable identity() {
+        double[] factors = new double[PAIRS];
+        Arrays.fill(factors, 1.0);
+        return new ExchangeRateTable(0, 1, factors);
+    }
+
+    /**
+     * Builds a table from dated RON quotes.
+     *
+     * <p>A currency quoted for the first time after the table's first day uses its earliest
+     * quote for the preceding days. Currencies that are never quoted convert at par.</p>
+     *
+     * @param quotes for each date, the RON value of one unit of each quoted currency
+     * @return the table, or {@link #identity()} if there are no quotes
+     */
+    public static ExchangeRateTable of(Map<LocalDate, Map<Currency, BigDecimal>> quotes) {
+        if (quotes.isEmpty()) {
+            return identity();
+        }
+        long first = quotes.keySet().stream().mapToLong(LocalDate::toEpochDay).min().getAsLong();
+        long last = quotes.keySet().stream().mapToLong(LocalDate::toEpochDay).max().getAsLong();
+        int days = Math.toIntExact(last - first + 1);
+
+        double[][] ronRates = new double[days][CURRENCIES.length];
+        for (Currency currency : CURRENCIES) {
+            double earliest = currency == Currency.RON ? 1.0 : Double.NaN;
+            for (int day = 0; day < days && Double.isNaN(earliest); day++) {
+                earliest = quote(quotes, first + day, currency);
+            }
+            double rate = Double.isNaN(earliest) ? 1.0 : earliest;
+            for (int day = 0; day < days; day++) {
+                double quoted = currency == Currency.RON ? Double.NaN : quote(quotes, first + day, currency);
+                if (!Double.isNaN(quoted)) {
+                    rate = quoted;
+                }
+                ronRates[day][currency.ordinal()] = rate;
+            }
+        }
+
+        double[] factors = new double[days * PAIRS];
+        for (int day = 0; day < days; day++) {
+            for (Currency from : CURRENCIES) {
+                for (Currency to : CURRENCIES) {
+                    factors[index(day, from, to)] = ronRates[day][from.ordinal()] / ronRates[day][to.ordinal()];
+                }
+            }
+        }
+        return new ExchangeRateTable(first, days, factors);
+    }
+
+    private static double quote(Map<LocalDate, Map<Currency, BigDecimal>> quotes, long epochDay, Currency currency) {
+        Map<Currency, BigDecimal> day = quotes.get(LocalDate.ofEpochDay(epochDay));
+        BigDecimal rate = day == null ? null : day.get(currency);
+        return rate == null ? Double.NaN : rate.doubleValue();
+    }
+
+    private static int index(int day, Currency from, Currency to) {
+        return day * PAIRS + from.ordinal() * CURRENCIES.length + to.ordinal();
+    }
+
+    /**
+     * Returns a converter that normalizes prices to {@code target} using the rates of {@code date}.
+     *
+     * @param date   the day whose rates apply
+     * @param target the currency every converted price is expressed in
+     * @return a converter holding the day's factors for {@code target}
+     */
+    public CurrencyConverter converter(LocalDate date, Currency target) {
+        int day = (int) Math.min(Math.max(date.toEpochDay() - firstEpochDay, 0), days - 1);
+        double[] dayFactors = new double[CURRENCIES.length];
+        for (Currency from : CURRENCIES) {
+            dayFactors[from.ordinal()] = factors[index(day, from, target)];
+        }
+        return new CurrencyConverter(target, dayFactors);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.price_comparator_market.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point pricing engine shared by every service that evaluates prices.
+ *
+ * <p>Amounts are carried as {@code long} minor units (bani/cents, two decimals), discounts as
+ * {@code int} basis points (1/100 of a percent) and package quantities as {@code long} thousandths
+ * of a unit. All arithmetic stays on primitives so no {@link BigDecimal} is allocated while a price
+ * is evaluated; conversion back to {@code BigDecimal} happens only when a DTO is built.</p>
+ *
+ * <p>There is a single rounding rule: every division rounds half-up (away from zero) to the
+ * nearest minor unit. A discount is applied by rounding the discount amount, then subtracting it
+ * from the base price.</p>
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    public static final int QUANTITY_SCALE = 3;
+
+    private static final long BASIS_POINTS = 10_000;
+
+    private static final long QUANTITY_FACTOR = 1_000;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount to minor units, rounding half-up to two decimals.
+     *
+     * @param amount the amount to convert
+     * @return the amount in minor units
+     * @throws ArithmeticException if the amount does not fit in a {@code long}
+     */
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts minor units back to a decimal amount with a scale of two.
+     *
+     * @param minor the amount in minor units
+     * @return the decimal amount
+     */
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /**
+     * Converts a percentage (e.g. {@code 12.5}) to basis points (e.g. {@code 1250}),
+     * rounding half-up.
+     *
+     * @param percentage the percentage to convert
+     * @return the percentage in basis points
+     */
+    public static int toBasisPoints(BigDecimal percentage) {
+        return percentage.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+
+    /**
+     * Converts basis points back to a percentage. Whole percentages are returned without
+     * a fractional part, so {@code 1000} becomes {@code 10} and {@code 1250} becomes {@code 12.50}.
+     *
+     * @param basisPoints the percentage in basis points
+     * @return the decimal percentage
+     */
+    public static BigDecimal toPercentage(int basisPoints) {
+        if (basisPoints % 100 == 0) {
+            return BigDecimal.valueOf(basisPoints / 100);
+        }
+        return BigDecimal.valueOf(basisPoints, SCALE);
+    }
+
+    /**
+     * Converts a package quantity to thousandths of a unit, rounding half-up.
+     *
+     * @param quantity the package quantity
+     * @return the quantity in thousandths of a unit
+     */
+    public static long toMilli(BigDecimal quantity) {
+        return quantity.setScale(QUANTITY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts a required quantity to thousandths of a unit, rounding up, so whatever covers the result
+     * covers the quantity: {@code 1.0004} becomes {@code 1001}.
+     *
+     * @param quantity the required quantity
+     * @return the quantity in thousandths of a unit, rounded up
+     */
+    public static long toMilliCeiling(BigDecimal quantity) {
+        return quantity.setScale(QUANTITY_SCALE, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts thousandths of a unit back to a package quantity without trailing zeros,
+     * so {@code 400} becomes {@code 0.4} and {@code 500000} becomes {@code 500}.
+     *
+     * @param quantityMilli the quantity in thousandths of a unit
+     * @return the decimal package quantity
+     */
+    public static BigDecimal toQuantity(long quantityMilli) {
+        BigDecimal quantity = BigDecimal.valueOf(quantityMilli, QUANTITY_SCALE).stripTrailingZeros();
+        return quantity.scale() < 0 ? quantity.setScale(0) : quantity;
+    }
+
+    /**
+     * Applies a percentage discount to a price.
+     *
+     * @param minor       the base price in minor units
+     * @param basisPoints the discount in basis points; {@code 0} leaves the price unchanged
+     * @return the discounted price in minor units
+     */
+    public static long applyDiscount(long minor, int basisPoints) {
+        if (basisPoints == 0) {
+            return minor;
+        }
+        return minor - divideHalfUp(minor * basisPoints, BASIS_POINTS);
+    }
+
+    /**
+     * Computes the price of a single unit (litre, kilogram, piece...) of a package.
+     *
+     * @param minor         the package price in minor units
+     * @param quantityMilli the package quantity in thousandths of a unit; must be positive
+     * @return the price per unit in minor units
+     * @throws ArithmeticException if the quantity is zero
+     */
+    public static long perUnit(long minor, long quantityMilli) {
+        return divideHalfUp(minor * QUANTITY_FACTOR, quantityMilli);
+    }
+
+    /**
+     * Divides two longs, rounding half-up (away from zero on ties).
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += Long.signum(dividend) * Long.signum(divisor);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.price_comparator_market.pricing;
+
+/**
+ * Cheapest way to buy at least a quantity from a set of package sizes, any number of each.
+ *
+ * <p>This is an unbounded knapsack in its covering form: {@code cost[q]} is the cheapest combination of packs
+ * holding at least {@code q} units, the minimum over every pack of its price plus {@code cost[q - size]}.
+ * Quantities are first divided by the greatest common divisor of the pack sizes, so 2 kg from 500 g, 1 kg and
+ * 2 kg packs is a table of 4 cells rather than 2000. The table and the choice behind each cell are two
+ * primitive arrays, filled in {@code cells x packs} steps with no allocation per step.</p>
+ */
+public final class PackageCover {
+
+    /**
+     * The most table cells one cover may use, to bound memory for absurd quantities.
+     */
+    public static final int MAX_CELLS = 1 << 20;
+
+    private PackageCover() {
+    }
+
+    /**
+     * Finds the cheapest combination of packs holding at least {@code required} units. Of two combinations
+     * that cost the same, the one using earlier packs wins.
+     *
+     * @param sizes    the size of each pack, in any positive integer unit such as thousandths of a kilogram
+     * @param prices   the price of each pack, in minor units
+     * @param required the quantity to cover, in the same unit as {@code sizes}
+     * @return how many of each pack to buy, or {@code null} if there are no packs
+     * @throws IllegalArgumentException if the quantity needs more than {@link #MAX_CELLS} cells
+     */
+    public static int[] solve(long[] sizes, long[] prices, long required) {
+        if (sizes.length == 0) {
+            return null;
+        }
+        long unit = 0;
+        for (long size : sizes) {
+            unit = gcd(unit, size);
+        }
+        long cellCount = (required + unit - 1) / unit;
+        if (cellCount > MAX_CELLS) {
+            throw new IllegalArgumentException("Quantity " + required + " needs " + cellCount + " cells");
+        }
+        int cells = (int) Math.max(cellCount, 0);
+        int[] packCells = new int[sizes.length];
+        for (int p = 0; p < sizes.length; p++) {
+            packCells[p] = (int) Math.min(sizes[p] / unit, cells);
+        }
+
+        long[] cost = new long[cells + 1];
+        int[] choice = new int[cells + 1];
+        for (int q = 1; q <= cells; q++) {
+            long best = Long.MAX_VALUE;
+            int bestPack = -1;
+            for (int p = 0; p < packCells.length; p++) {
+                long candidate = prices[p] + cost[Math.max(0, q - packCells[p])];
+                if (candidate < best) {
+                    best = candidate;
+                    bestPack = p;
+                }
+            }
+            cost[q] = best;
+            choice[q] = bestPack;
+        }
+
+        int[] counts = new int[sizes.length];
+        for (int q = cells; q > 0; q = Math.max(0, q - packCells[choice[q]])) {
+            counts[choice[q]]++;
+        }
+        return counts;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
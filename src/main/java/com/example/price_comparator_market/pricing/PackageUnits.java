@@ -0,0 +1,55 @@
+package com.example.price_comparator_market.pricing;
+
+import java.util.Locale;
+
+/**
+ * Normalized package units, so quantities sold in grams and kilograms, or millilitres and litres, compare.
+ *
+ * <p>Grams count as kilograms and millilitres as litres; every other unit is only lower-cased. Quantities stay
+ * in thousandths of a unit (see {@link Money}), so 500 g is 500 thousandths of a kilogram.</p>
+ */
+public final class PackageUnits {
+
+    private PackageUnits() {
+    }
+
+    /**
+     * @param unit a package unit as spelled in the catalog or a request
+     * @return the unit quantities in {@code unit} are compared in
+     */
+    public static String normalize(String unit) {
+        String lower = unit.toLowerCase(Locale.ROOT);
+        return switch (lower) {
+            case "g" -> "kg";
+            case "ml" -> "l";
+            default -> lower;
+        };
+    }
+
+    /**
+     * @param quantityMilli a quantity in thousandths of {@code unit}
+     * @param unit          its unit
+     * @return the quantity in thousandths of {@link #normalize(String) normalize(unit)}
+     */
+    public static long normalizeMilli(long quantityMilli, String unit) {
+        return switch (unit.toLowerCase(Locale.ROOT)) {
+            case "g", "ml" -> quantityMilli / 1000;
+            default -> quantityMilli;
+        };
+    }
+
+    /**
+     * Like {@link #normalizeMilli(long, String)}, but rounds up, for quantities that must be covered:
+     * 1500.7 g is 1501 thousandths of a kilogram.
+     *
+     * @param quantityMilli a quantity in thousandths of {@code unit}
+     * @param unit          its unit
+     * @return the quantity in thousandths of {@link #normalize(String) normalize(unit)}, rounded up
+     */
+    public static long normalizeMilliCeiling(long quantityMilli, String unit) {
+        return switch (unit.toLowerCase(Locale.ROOT)) {
+            case "g", "ml" -> Math.ceilDiv(quantityMilli, 1000);
+            default -> quantityMilli;
+        };
+    }
+}
@@ -2,13 +2,15 @@ package com.example.price_comparator_market.repository;
 
 import com.example.price_comparator_market.model.Discount;
 import com.example.price_comparator_market.model.Store;
+import com.example.price_comparator_market.repository.projection.DiscountView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
-public interface DiscountRepository extends JpaRepository<Discount, Long> {
+public interface DiscountRepository extends JpaRepository<Discount, Long>, DiscountRepositoryCustom {
     Optional<Discount> findByProductIdAndStoreAndFromDateAndToDate(
             String product_id, Store store, java.time.LocalDate from_date, java.time.LocalDate to_date
     );
@@ -22,4 +24,22 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
     List<Discount> findByFromDateGreaterThanEqual(LocalDate fromDate);
 
     List<Discount> findByProductIdAndStore(String productId, Store store);
+
+    @Query("""
+            select new com.example.price_comparator_market.repository.projection.DiscountView(
+                d.productId, d.productName, d.brand, d.packageQuantity, d.packageUnit,
+                d.productCategory, d.fromDate, d.toDate, d.percentageOfDiscount, s.name)
+            from Discount d join d.store s
+            order by s.name, d.productId, d.fromDate
+            """)
+    List<DiscountView> findAllViews();
+
+    @Query("""
+            select new com.example.price_comparator_market.repository.projection.DiscountView(
+                d.productId, d.productName, d.brand, d.packageQuantity, d.packageUnit,
+                d.productCategory, d.fromDate, d.toDate, d.percentageOfDiscount, s.name)
+            from Discount d join d.store s
+            where d.id = :id
+            """)
+    Optional<DiscountView> findViewById(Long id);
 }
\ No newline at end of file
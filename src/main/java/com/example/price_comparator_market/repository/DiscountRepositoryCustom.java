@@ -0,0 +1,16 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.Discount;
+
+import java.util.Collection;
+
+public interface DiscountRepositoryCustom {
+    /**
+     * Inserts or updates discounts in one batched statement keyed on the
+     * {@code (store, productId, fromDate, toDate)} unique constraint. Existing rows take the new
+     * product details and percentage.
+     *
+     * @param discounts the discounts to upsert; each must reference a persisted store
+     */
+    void upsertAll(Collection<Discount> discounts);
+}
@@ -0,0 +1,40 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.Discount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DiscountRepositoryCustomImpl implements DiscountRepositoryCustom {
+
+    private static final String UPSERT_SQL = """
+            MERGE INTO discount (store_id, product_id, from_date, to_date, product_name, brand,
+                                 package_quantity, package_unit, product_category, percentage_of_discount)
+            KEY (store_id, product_id, from_date, to_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(Collection<Discount> discounts) {
+        List<Object[]> rows = discounts.stream()
+                .map(d -> new Object[]{
+                        d.getStore().getId(),
+                        d.getProductId(),
+                        d.getFromDate(),
+                        d.getToDate(),
+                        d.getProductName(),
+                        d.getBrand(),
+                        d.getPackageQuantity(),
+                        d.getPackageUnit(),
+                        d.getProductCategory(),
+                        d.getPercentageOfDiscount()
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+}
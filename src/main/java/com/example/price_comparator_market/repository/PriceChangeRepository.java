@@ -0,0 +1,56 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.PriceChange;
+import com.example.price_comparator_market.model.PriceChangeType;
+import com.example.price_comparator_market.repository.projection.PriceChangeView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PriceChangeRepository extends JpaRepository<PriceChange, Long>, PriceChangeRepositoryCustom {
+
+    /**
+     * @param since   the earliest feed date
+     * @param afterId only changes with a larger ID, to page through the results
+     * @param store   a store name to restrict to, case-insensitive; {@code null} for every store
+     * @param type    a change type to restrict to; {@code null} for every type
+     * @return the matching changes, by ID
+     */
+    @Query("""
+            select new com.example.price_comparator_market.repository.projection.PriceChangeView(
+                c.id, s.name, c.productId, c.productName, c.changeType, c.oldPrice, c.oldCurrency,
+                c.newPrice, c.newCurrency, c.previousFeedDate, c.feedDate)
+            from PriceChange c join c.store s
+            where c.feedDate >= :since and c.id > :afterId
+              and (:store is null or lower(s.name) = lower(:store))
+              and (:type is null or c.changeType = :type)
+            order by c.id
+            """)
+    List<PriceChangeView> findViewsSince(LocalDate since, long afterId, String store, PriceChangeType type,
+                                         Limit limit);
+
+    /**
+     * Only the first change matters to roll a product back, so this returns at most one row per product
+     * however many feeds changed it. Imports skip feeds older than a store's latest, so a product's first
+     * change by ID is also its first by feed date.
+     *
+     * @param date the last feed date to leave out
+     * @return the first change recorded by a feed dated after {@code date} of every product that has one,
+     *         in the order they were recorded
+     */
+    @Query("""
+            select new com.example.price_comparator_market.repository.projection.PriceChangeView(
+                c.id, s.name, c.productId, c.productName, c.changeType, c.oldPrice, c.oldCurrency,
+                c.newPrice, c.newCurrency, c.previousFeedDate, c.feedDate)
+            from PriceChange c join c.store s
+            where c.id in (
+                select min(f.id) from PriceChange f
+                where f.feedDate > :date
+                group by f.store, f.productId)
+            order by c.id
+            """)
+    List<PriceChangeView> findFirstViewsAfter(LocalDate date);
+}
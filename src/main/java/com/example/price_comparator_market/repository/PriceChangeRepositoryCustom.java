@@ -0,0 +1,14 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.PriceChange;
+
+import java.util.Collection;
+
+public interface PriceChangeRepositoryCustom {
+    /**
+     * Inserts price changes in one batched statement, without loading or returning entities.
+     *
+     * @param changes the changes to insert; each must reference a persisted store
+     */
+    void insertAll(Collection<PriceChange> changes);
+}
@@ -0,0 +1,40 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.PriceChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PriceChangeRepositoryCustomImpl implements PriceChangeRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO price_change (store_id, product_id, product_name, change_type, old_price, old_currency,
+                                      new_price, new_currency, previous_feed_date, feed_date, detected_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(Collection<PriceChange> changes) {
+        List<Object[]> rows = changes.stream()
+                .map(c -> new Object[]{
+                        c.getStore().getId(),
+                        c.getProductId(),
+                        c.getProductName(),
+                        c.getChangeType().name(),
+                        c.getOldPrice(),
+                        c.getOldCurrency() != null ? c.getOldCurrency().ordinal() : null,
+                        c.getNewPrice(),
+                        c.getNewCurrency() != null ? c.getNewCurrency().ordinal() : null,
+                        c.getPreviousFeedDate(),
+                        c.getFeedDate(),
+                        c.getDetectedAt()
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
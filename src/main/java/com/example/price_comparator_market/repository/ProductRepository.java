@@ -2,16 +2,55 @@ package com.example.price_comparator_market.repository;
 
 import com.example.price_comparator_market.model.Product;
 import com.example.price_comparator_market.model.Store;
+import com.example.price_comparator_market.repository.projection.ProductView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, String> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     Optional<Product> findByProductIdAndStore(String product_id, Store store);
 
     List<Product> findByProductName(String product_name);
-}
 
+    @Query("""
+            select new com.example.price_comparator_market.repository.projection.ProductView(
+                p.productId, p.productName, p.productCategory, p.brand, p.packageQuantity,
+                p.packageUnit, p.price, p.currency, s.name)
+            from Product p join p.store s
+            order by s.name, p.productId
+            """)
+    List<ProductView> findAllViews();
+
+    @Query("""
+            select new com.example.price_comparator_market.repository.projection.ProductView(
+                p.productId, p.productName, p.productCategory, p.brand, p.packageQuantity,
+                p.packageUnit, p.price, p.currency, s.name)
+            from Product p join p.store s
+            where p.id = :id
+            """)
+    Optional<ProductView> findViewById(Long id);
+
+    @Query("select max(p.feedDate) from Product p where p.store = :store")
+    LocalDate findLatestFeedDate(Store store);
+
+    @Query("select max(p.feedDate) from Product p")
+    LocalDate findLatestFeedDate();
+
+    /**
+     * @return the products of a store's price feed, by product ID
+     */
+    @Query("""
+            select new com.example.price_comparator_market.repository.projection.ProductView(
+                p.productId, p.productName, p.productCategory, p.brand, p.packageQuantity,
+                p.packageUnit, p.price, p.currency, s.name)
+            from Product p join p.store s
+            where p.store = :store and p.feedDate = :feedDate
+            order by p.productId
+            """)
+    List<ProductView> findFeedViews(Store store, LocalDate feedDate);
+}
@@ -0,0 +1,15 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.Product;
+
+import java.util.Collection;
+
+public interface ProductRepositoryCustom {
+    /**
+     * Inserts or updates products in one batched statement keyed on the {@code (store, productId)}
+     * unique constraint. Existing rows take the new name, category, brand, package, price and feed date.
+     *
+     * @param products the products to upsert; each must reference a persisted store
+     */
+    void upsertAll(Collection<Product> products);
+}
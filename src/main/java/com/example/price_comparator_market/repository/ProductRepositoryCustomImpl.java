@@ -0,0 +1,40 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String UPSERT_SQL = """
+            MERGE INTO product (store_id, product_id, product_name, product_category, brand,
+                                package_quantity, package_unit, price, currency, feed_date)
+            KEY (store_id, product_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(Collection<Product> products) {
+        List<Object[]> rows = products.stream()
+                .map(p -> new Object[]{
+                        p.getStore().getId(),
+                        p.getProductId(),
+                        p.getProductName(),
+                        p.getProductCategory(),
+                        p.getBrand(),
+                        p.getPackageQuantity(),
+                        p.getPackageUnit(),
+                        p.getPrice(),
+                        p.getCurrency() != null ? p.getCurrency().ordinal() : null,
+                        p.getFeedDate()
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+}
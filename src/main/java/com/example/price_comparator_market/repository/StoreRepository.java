@@ -1,9 +1,40 @@
 package com.example.price_comparator_market.repository;
 
 import com.example.price_comparator_market.model.Store;
+import com.example.price_comparator_market.repository.projection.StoreView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Store lookups are served from the Hibernate second-level cache: entities from the {@code store}
+ * region and query results from the {@code store-queries} region. Hibernate invalidates the cached
+ * queries whenever a store row is written through JPA, which only happens when an import creates
+ * a new store.
+ */
 public interface StoreRepository extends JpaRepository<Store, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "store-queries")
+    })
     Optional<Store> findByName(String name);
-}
\ No newline at end of file
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "store-queries")
+    })
+    List<Store> findAll();
+
+    @Query("select new com.example.price_comparator_market.repository.projection.StoreView(s.id, s.name) from Store s order by s.name")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "store-queries")
+    })
+    List<StoreView> findAllViews();
+}
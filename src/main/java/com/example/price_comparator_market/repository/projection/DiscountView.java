@@ -0,0 +1,21 @@
+package com.example.price_comparator_market.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a {@code Discount} row joined with its store name.
+ */
+public record DiscountView(
+        String productId,
+        String productName,
+        String brand,
+        BigDecimal packageQuantity,
+        String packageUnit,
+        String productCategory,
+        LocalDate fromDate,
+        LocalDate toDate,
+        BigDecimal percentageOfDiscount,
+        String storeName
+) {
+}
@@ -0,0 +1,25 @@
+package com.example.price_comparator_market.repository.projection;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.PriceChangeType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a {@code PriceChange} row joined with its store name.
+ */
+public record PriceChangeView(
+        Long id,
+        String storeName,
+        String productId,
+        String productName,
+        PriceChangeType changeType,
+        BigDecimal oldPrice,
+        Currency oldCurrency,
+        BigDecimal newPrice,
+        Currency newCurrency,
+        LocalDate previousFeedDate,
+        LocalDate feedDate
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.price_comparator_market.repository.projection;
+
+import com.example.price_comparator_market.model.Currency;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a {@code Product} row joined with its store name.
+ */
+public record ProductView(
+        String productId,
+        String productName,
+        String productCategory,
+        String brand,
+        BigDecimal packageQuantity,
+        String packageUnit,
+        BigDecimal price,
+        Currency currency,
+        String storeName
+) {
+}
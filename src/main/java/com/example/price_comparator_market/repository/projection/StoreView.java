@@ -0,0 +1,7 @@
+package com.example.price_comparator_market.repository.projection;
+
+/**
+ * Read-only projection of a {@code Store} row.
+ */
+public record StoreView(Long id, String name) {
+}
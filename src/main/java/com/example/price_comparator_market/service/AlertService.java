@@ -1,32 +1,37 @@
 package com.example.price_comparator_market.service;
 
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.catalog.PriceFeedDiff;
 import com.example.price_comparator_market.model.Alert;
-import com.example.price_comparator_market.model.Discount;
-import com.example.price_comparator_market.model.Product;
+import com.example.price_comparator_market.model.PriceChangeType;
 import com.example.price_comparator_market.model.Status;
+import com.example.price_comparator_market.pricing.Money;
 import com.example.price_comparator_market.repository.AlertRepository;
-import com.example.price_comparator_market.repository.DiscountRepository;
-import com.example.price_comparator_market.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Set;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class AlertService {
 
     private final AlertRepository alertRepository;
-    private final ProductRepository productRepository;
-    private final DiscountRepository discountRepository;
+    private final CatalogService catalogService;
 
     /**
      * Scheduled task that processes active price alerts.
@@ -35,43 +40,72 @@ public class AlertService {
      * only check once a day for discounts, as stores will most likely not
      * change prices or add discounts with immediate effect). It fetches all alerts
      * with {@link Status#ACTIVE}, checks all matching products by name, and calculates the
-     * final price including any active discounts.</p>
+     * final price including any active discounts. Prices are read from a single {@link CatalogSnapshot}
+     * for the whole run.</p>
      *
      * <p>If the final price of any matching product is less than or equal to the target price
      * specified in the alert, the alert is marked as {@link Status#PROCESSED} and saved.
      * A log message is also printed indicating that the alert was triggered.</p>
      *
+     * <p>The run is one transaction, so the triggered alerts are flushed together as a single JDBC batch
+     * at commit instead of one round trip each.</p>
+     *
      * <p>This method is intended to be used as a background scheduler for notifying
      * users when their desired price point is met.</p>
      */
     // use just 60 * 1000 for testing purposes
     @Scheduled(fixedRate = 24 * 60 * 60 * 1000)
+    @Timed(value = "alerts.run", description = "Duration of one run of the alert job", histogram = true)
+    @Transactional
     public void processAlerts() {
-        List<Alert> activeAlerts = alertRepository.findByStatus(Status.ACTIVE);
-        LocalDate today = LocalDate.now();
+        process(catalogService.current(), alertRepository.findByStatus(Status.ACTIVE));
+    }
 
-        for (Alert alert : activeAlerts) {
-            List<Product> products = productRepository.findAll().stream()
-                    .filter(p -> p.getProductName().equalsIgnoreCase(alert.getProductName()))
-                    .toList();
+    /**
+     * Checks the active alerts on the products an import made cheaper, as soon as the import is published.
+     *
+     * <p>Only alerts whose product name matches an added or cheaper product in the event's change sets, or a
+     * product with a new discount, are evaluated, the same way {@link #processAlerts()} evaluates them, so a
+     * price drop triggers its alerts without waiting for the daily run.</p>
+     *
+     * @param event the price changes of an import
+     */
+    @EventListener
+    @Transactional
+    public void onPriceChanges(PriceChangesEvent event) {
+        Set<String> cheaper = new HashSet<>();
+        for (PriceChangesEvent.ChangeSet changeSet : event.changeSets()) {
+            for (PriceFeedDiff.Change change : changeSet.changes()) {
+                if (change.type() == PriceChangeType.DECREASED || change.type() == PriceChangeType.ADDED) {
+                    cheaper.add(change.productName().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        for (CatalogDiscount discount : event.newDiscounts()) {
+            cheaper.add(discount.productName().toLowerCase(Locale.ROOT));
+        }
+        if (cheaper.isEmpty()) {
+            return;
+        }
+        List<Alert> alerts = alertRepository.findByStatus(Status.ACTIVE).stream()
+                .filter(alert -> cheaper.contains(alert.getProductName().toLowerCase(Locale.ROOT)))
+                .toList();
+        process(catalogService.current(), alerts);
+    }
 
-            for (Product product : products) {
-                List<Discount> discounts = discountRepository.findByProductIdAndStore(product.getProductId(), product.getStore());
-                Optional<Discount> activeDiscount = discounts.stream()
-                        .filter(d -> !today.isBefore(d.getFromDate()) && !today.isAfter(d.getToDate()))
-                        .max(Comparator.comparing(Discount::getPercentageOfDiscount));
+    private void process(CatalogSnapshot catalog, List<Alert> activeAlerts) {
+        LocalDate today = LocalDate.now();
 
-                BigDecimal finalPrice = product.getPrice();
-                if (activeDiscount.isPresent()) {
-                    BigDecimal discount = activeDiscount.get().getPercentageOfDiscount();
-                    finalPrice = finalPrice.subtract(finalPrice.multiply(discount).divide(BigDecimal.valueOf(100)));
-                }
+        for (Alert alert : activeAlerts) {
+            long targetPrice = Money.toMinor(alert.getTargetPrice());
+            for (CatalogProduct product : catalog.findProductsByName(alert.getProductName())) {
+                long finalPrice = Money.applyDiscount(product.priceMinor(), catalog.activeDiscountBasisPoints(product, today));
 
-                if (finalPrice.compareTo(alert.getTargetPrice()) <= 0) {
+                if (finalPrice <= targetPrice) {
                     alert.setStatus(Status.PROCESSED);
                     alert.setProcessedAt(LocalDateTime.now());
                     alertRepository.save(alert);
-                    log.info("Alert triggered for product: {} at price {}", product.getProductName(), finalPrice);
+                    log.info("Alert triggered for product: {} at price {}", product.productName(), Money.toBigDecimal(finalPrice));
                     break;
                 }
             }
@@ -1,25 +1,41 @@
 package com.example.price_comparator_market.service;
 
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.dto.BasketItemDTO;
 import com.example.price_comparator_market.dto.BasketRequestDTO;
 import com.example.price_comparator_market.dto.BasketResponseDTO;
 import com.example.price_comparator_market.dto.ProductInStoreDTO;
-import com.example.price_comparator_market.model.Discount;
-import com.example.price_comparator_market.model.Product;
-import com.example.price_comparator_market.model.Store;
-import com.example.price_comparator_market.repository.DiscountRepository;
-import com.example.price_comparator_market.repository.ProductRepository;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
+import com.example.price_comparator_market.pricing.PackageCover;
+import com.example.price_comparator_market.pricing.PackageUnits;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class BasketOptimizerService {
-    private final ProductRepository productRepository;
-    private final DiscountRepository discountRepository;
+
+    private static final Comparator<Pack> PACK_ORDER = Comparator
+            .comparingLong(Pack::price)
+            .thenComparing(pack -> pack.product().storeName())
+            .thenComparing(pack -> pack.product().productId());
+
+    private final CatalogService catalogService;
+    private final CurrencyConversionService currencyConversionService;
+
+    /**
+     * A product that can cover a quantity item: its size in thousandths of the normalized unit and its final
+     * price in the basket's currency.
+     */
+    private record Pack(CatalogProduct product, long sizeMilli, long price) {
+    }
 
     /**
      * Optimizes a shopping basket by finding the lowest available price for each requested product,
@@ -29,58 +45,108 @@ public class BasketOptimizerService {
      * the best price and groups the results by store. If a product is not found in any store, it is included
      * in a separate list of missing items.</p>
      *
-     * @param request the basket request containing a list of product names
+     * <p>Each of the request's {@code items} asks for a quantity instead, such as 2 kg of flour. It is covered
+     * with the cheapest combination of packs of products with that name, from any store and in any number, as
+     * solved by {@link PackageCover}; each pack bought is listed under its store with its count and the price
+     * of all of them. Grams count as kilograms and millilitres as litres, and only packs in the item's unit are
+     * considered. Quantities are rounded up to whole thousandths of the normalized unit, so the packs always
+     * cover at least what was asked for. An item no pack can cover is listed as missing.</p>
+     *
+     * <p>The whole basket is evaluated against a single {@link CatalogSnapshot}, without database access.</p>
+     *
+     * <p>Prices from different stores are compared after converting them to the requested currency
+     * (RON if none is given) with today's exchange rates; the returned prices are in that currency.</p>
+     *
+     * <p>With {@code asOf}, the basket is priced as it would have been on that day: with the base prices of
+     * {@link CatalogService#asOf}, the discounts active that day and that day's exchange rates.</p>
+     *
+     * @param request the basket request containing product names, quantity items and an optional target currency
+     * @param asOf    the day to price the basket on, or {@code null} for today
      * @return a {@link BasketResponseDTO} containing a mapping of store names to the list of
      *         found products with their lowest prices, and a list of product names that could not be found
      */
-    public BasketResponseDTO optimizeBasket(BasketRequestDTO request) {
+    public BasketResponseDTO optimizeBasket(BasketRequestDTO request, LocalDate asOf) {
+        CatalogSnapshot catalog = catalogService.asOf(asOf);
         Map<String, List<ProductInStoreDTO>> storeBaskets = new HashMap<>();
         List<String> notFound = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-
-        for (String productName : request.getProducts()) {
-            List<Discount> discounts = discountRepository.findByProductNameAndFromDateLessThanEqualAndToDateGreaterThanEqual(
-                    productName, today, today
-            );
-
-            Map<Store, BigDecimal> storeToDiscountedPrice = new HashMap<>();
-            for (Discount discount : discounts) {
-                Optional<Product> productOpt = productRepository.findByProductIdAndStore(discount.getProductId(), discount.getStore());
-                if (productOpt.isPresent()) {
-                    BigDecimal price = productOpt.get().getPrice();
-                    BigDecimal discountedPrice = price.subtract(price.multiply(discount.getPercentageOfDiscount()).divide(BigDecimal.valueOf(100)));
-                    storeToDiscountedPrice.put(discount.getStore(), discountedPrice);
-                }
-            }
-
-            List<Product> products = productRepository.findByProductName(productName);
-            for (Product product : products) {
-                Store store = product.getStore();
-                BigDecimal price = product.getPrice();
-                if (!storeToDiscountedPrice.containsKey(store) || price.compareTo(storeToDiscountedPrice.get(store)) < 0) {
-                    storeToDiscountedPrice.put(store, price);
-                }
-            }
+        LocalDate today = asOf != null ? asOf : LocalDate.now();
+        CurrencyConverter converter = currencyConversionService.converter(today, request.getCurrency());
 
-            Store bestStore = null;
-            BigDecimal bestPrice = null;
-            for (Map.Entry<Store, BigDecimal> entry : storeToDiscountedPrice.entrySet()) {
-                if (bestPrice == null || entry.getValue().compareTo(bestPrice) < 0) {
-                    bestStore = entry.getKey();
-                    bestPrice = entry.getValue();
+        for (String productName : Objects.requireNonNullElse(request.getProducts(), List.<String>of())) {
+            CatalogProduct bestProduct = null;
+            long bestPrice = Long.MAX_VALUE;
+            for (CatalogProduct product : catalog.findProductsByName(productName)) {
+                long price = converter.convert(product.priceMinor(), product.currency());
+                long discountedPrice = Money.applyDiscount(price, catalog.activeDiscountBasisPoints(product, today));
+                if (discountedPrice < bestPrice) {
+                    bestProduct = product;
+                    bestPrice = discountedPrice;
                 }
             }
-            if (bestStore != null) {
-                storeBaskets.computeIfAbsent(bestStore.getName(), k -> new ArrayList<>())
-                        .add(new ProductInStoreDTO(productName, bestPrice));
+            if (bestProduct != null) {
+                storeBaskets.computeIfAbsent(bestProduct.storeName(), k -> new ArrayList<>())
+                        .add(toDTO(productName, bestProduct, bestPrice, 1));
             } else {
                 notFound.add(productName);
             }
         }
 
+        for (BasketItemDTO item : Objects.requireNonNullElse(request.getItems(), List.<BasketItemDTO>of())) {
+            if (!cover(catalog, item, today, converter, storeBaskets)) {
+                notFound.add(item.getProductName());
+            }
+        }
+
         BasketResponseDTO response = new BasketResponseDTO();
         response.setStoreBaskets(storeBaskets);
         response.setNotFound(notFound);
+        response.setCurrency(converter.target());
         return response;
     }
+
+    /**
+     * Adds the cheapest packs covering an item to the store baskets.
+     *
+     * @return {@code false} if no pack of the item's name is sold in its unit
+     */
+    private static boolean cover(CatalogSnapshot catalog, BasketItemDTO item, LocalDate date,
+                                 CurrencyConverter converter, Map<String, List<ProductInStoreDTO>> storeBaskets) {
+        String unit = PackageUnits.normalize(item.getUnit());
+        // Rounded up, so the packs cover the item: 0.4 g still needs a pack and 1500.7 g more than 1.5 kg.
+        long required = PackageUnits.normalizeMilliCeiling(Money.toMilliCeiling(item.getQuantity()), item.getUnit());
+        List<Pack> packs = new ArrayList<>();
+        for (CatalogProduct product : catalog.findProductsByName(item.getProductName())) {
+            if (product.packageUnit() == null || !unit.equals(PackageUnits.normalize(product.packageUnit()))) {
+                continue;
+            }
+            long size = PackageUnits.normalizeMilli(product.quantityMilli(), product.packageUnit());
+            if (size > 0) {
+                long price = converter.convert(product.priceMinor(), product.currency());
+                packs.add(new Pack(product, size,
+                        Money.applyDiscount(price, catalog.activeDiscountBasisPoints(product, date))));
+            }
+        }
+        // Of equally cheap combinations, the solver keeps the one using earlier packs: cheaper packs first.
+        packs.sort(PACK_ORDER);
+        int[] counts = PackageCover.solve(
+                packs.stream().mapToLong(Pack::sizeMilli).toArray(),
+                packs.stream().mapToLong(Pack::price).toArray(),
+                required);
+        if (counts == null) {
+            return false;
+        }
+        for (int p = 0; p < counts.length; p++) {
+            if (counts[p] > 0) {
+                Pack pack = packs.get(p);
+                storeBaskets.computeIfAbsent(pack.product().storeName(), k -> new ArrayList<>())
+                        .add(toDTO(item.getProductName(), pack.product(), pack.price() * counts[p], counts[p]));
+            }
+        }
+        return true;
+    }
+
+    private static ProductInStoreDTO toDTO(String productName, CatalogProduct product, long price, int packs) {
+        return new ProductInStoreDTO(productName, Money.toBigDecimal(price), product.productId(), product.brand(),
+                product.packageQuantity(), product.packageUnit(), packs);
+    }
 }
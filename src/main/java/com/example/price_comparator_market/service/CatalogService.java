@@ -0,0 +1,255 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.CatalogFile;
+import com.example.price_comparator_market.catalog.CatalogIndex;
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.catalog.CatalogStore;
+import com.example.price_comparator_market.catalog.PriceRollback;
+import com.example.price_comparator_market.catalog.VersionedCache;
+import com.example.price_comparator_market.pricing.Money;
+import com.example.price_comparator_market.repository.DiscountRepository;
+import com.example.price_comparator_market.repository.PriceChangeRepository;
+import com.example.price_comparator_market.repository.ProductRepository;
+import com.example.price_comparator_market.repository.StoreRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogService {
+
+    private final StoreRepository storeRepository;
+
+    private final ProductRepository productRepository;
+
+    private final DiscountRepository discountRepository;
+
+    private final PriceChangeRepository priceChangeRepository;
+
+    private final ObjectProvider<CatalogIndex> indexes;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>(CatalogSnapshot.empty());
+
+    @Value("${catalog.file:}")
+    private String catalogFile;
+
+    @Value("${catalog.as-of-cache-size:32}")
+    private int asOfCacheSize;
+
+    private VersionedCache<LocalDate, CatalogSnapshot> asOfSnapshots;
+
+    /** Version of the snapshot the {@link CatalogIndex} beans were last built for; guarded by {@code this}. */
+    private long indexedVersion = -1;
+
+    /** Fingerprint of the CSV files given to {@link #restore(long)}; guarded by {@code this}. */
+    private long csvFiles;
+
+    @PostConstruct
+    void createAsOfCache() {
+        asOfSnapshots = VersionedCache.lru(asOfCacheSize);
+    }
+
+    /**
+     * Returns the catalog snapshot currently being served.
+     * <p>
+     * Read paths should call this once per request and evaluate everything against the returned snapshot,
+     * so a request never mixes data from two imports. This is a single volatile read; it never blocks.
+     *
+     * @return the current {@link CatalogSnapshot}
+     */
+    public CatalogSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Returns the catalog as it was on a past day, for time-travel reads.
+     * <p>
+     * The current snapshot's products are rolled back with {@link PriceRollback} to their prices on
+     * {@code date}, using the first price change imports recorded after it for each product, which is one
+     * indexed query. The result is a view sharing the current snapshot's rows, heap or mapped, holding only
+     * the changed products. Snapshots are cached per catalog version and day, keeping the
+     * {@code catalog.as-of-cache-size} most recently used days, so replaying a range of days repeatedly builds
+     * each one once. Today and later days are the current snapshot.
+     *
+     * @param date the day, or {@code null} for today
+     * @return the snapshot of {@code date}, with the current snapshot's version
+     */
+    @Timed("service.method")
+    @Transactional(readOnly = true)
+    public CatalogSnapshot asOf(LocalDate date) {
+        CatalogSnapshot catalog = current.get();
+        if (date == null || !date.isBefore(LocalDate.now())) {
+            return catalog;
+        }
+        CatalogSnapshot snapshot = asOfSnapshots.get(catalog.version(), date);
+        if (snapshot == null) {
+            List<PriceRollback.Change> changes = priceChangeRepository.findFirstViewsAfter(date).stream()
+                    .map(c -> new PriceRollback.Change(
+                            c.storeName(),
+                            c.productId(),
+                            c.feedDate(),
+                            c.changeType(),
+                            c.oldPrice() != null ? Money.toMinor(c.oldPrice()) : 0,
+                            c.oldCurrency()
+                    ))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            snapshot = PriceRollback.asOf(catalog, date, changes);
+            asOfSnapshots.put(catalog.version(), date, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the catalog snapshot from the database and publishes it.
+     * <p>
+     * The new snapshot is assembled off to the side from read-only projection queries while readers keep
+     * using the previous one, then swapped in with a single atomic reference update. Calls are serialized
+     * so versions are published in order.
+     * <p>
+     * When {@code catalog.file} is set, the snapshot is written to that {@link CatalogFile}, along with the
+     * {@link CatalogFile.Source} it was built from, and the memory-mapped copy is published instead, so the
+     * catalog is served off-heap and survives a restart.
+     * If the file cannot be written the in-heap snapshot is published and a warning is logged.
+     * Every {@link CatalogIndex} is built for the new snapshot before it is published.
+     *
+     * @return the newly published snapshot
+     */
+    @Timed("service.method")
+    @Transactional(readOnly = true)
+    public synchronized CatalogSnapshot refresh() {
+        List<CatalogStore> stores = storeRepository.findAllViews().stream()
+                .map(s -> new CatalogStore(s.id(), s.name()))
+                .toList();
+        List<CatalogProduct> products = productRepository.findAllViews().stream()
+                .map(p -> new CatalogProduct(
+                        p.storeName(),
+                        p.productId(),
+                        p.productName(),
+                        p.productCategory(),
+                        p.brand(),
+                        Money.toMilli(p.packageQuantity()),
+                        p.packageUnit(),
+                        Money.toMinor(p.price()),
+                        p.currency()
+                ))
+                .toList();
+        List<CatalogDiscount> discounts = discountRepository.findAllViews().stream()
+                .map(d -> new CatalogDiscount(
+                        d.storeName(),
+                        d.productId(),
+                        d.productName(),
+                        d.brand(),
+                        Money.toMilli(d.packageQuantity()),
+                        d.packageUnit(),
+                        d.productCategory(),
+                        d.fromDate(),
+                        d.toDate(),
+                        Money.toBasisPoints(d.percentageOfDiscount())
+                ))
+                .toList();
+
+        CatalogSnapshot snapshot = persist(
+                CatalogSnapshot.of(current.get().version() + 1, stores, products, discounts));
+        buildIndexes(snapshot);
+        current.set(snapshot);
+        log.info("Published catalog version {} ({} stores, {} products, {} discounts)",
+                snapshot.version(), stores.size(), products.size(), discounts.size());
+        return snapshot;
+    }
+
+    /**
+     * Publishes the catalog persisted by the previous run, if any.
+     * <p>
+     * The {@link CatalogFile} is memory-mapped, so this takes the same time whatever the catalog size and
+     * the application can serve catalog reads as soon as it returns. The {@link CatalogIndex} beans are not
+     * built here; startup builds them as a separate phase with {@link #buildIndexes()}.
+     * <p>
+     * The file is up to date only if it was built from the same CSV files and from a database with the same
+     * product, discount and price change counts and latest feed date as now. An out-of-date file is still
+     * published, to serve reads until the import that must follow refreshes it.
+     *
+     * @param csvFiles fingerprint of the CSV files the startup import reads, recorded in every catalog file
+     *                 written from now on
+     * @return {@code true} if an up-to-date catalog file was published, meaning the CSV import can be
+     *         skipped; {@code false} otherwise
+     */
+    @Timed("service.method")
+    public synchronized boolean restore(long csvFiles) {
+        this.csvFiles = csvFiles;
+        if (catalogFile == null || catalogFile.isBlank() || !Files.exists(Path.of(catalogFile))) {
+            return false;
+        }
+        CatalogSnapshot snapshot;
+        CatalogFile.Source source;
+        try {
+            snapshot = CatalogFile.map(Path.of(catalogFile));
+            source = CatalogFile.source(Path.of(catalogFile));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable catalog file {}: {}", catalogFile, e.getMessage());
+            return false;
+        }
+        current.set(snapshot);
+        log.info("Restored catalog version {} ({} products, {} discounts) from {}",
+                snapshot.version(), snapshot.products().size(), snapshot.discounts().size(), catalogFile);
+        CatalogFile.Source now = source();
+        if (!source.equals(now)) {
+            log.info("Catalog file {} is out of date: built from {}, now {}", catalogFile, source, now);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Builds every {@link CatalogIndex} for the current snapshot, unless they already are.
+     */
+    @Timed("service.method")
+    public synchronized void buildIndexes() {
+        buildIndexes(current.get());
+    }
+
+    private void buildIndexes(CatalogSnapshot snapshot) {
+        if (snapshot.version() == indexedVersion) {
+            return;
+        }
+        indexes.orderedStream().forEach(index -> index.build(snapshot));
+        indexedVersion = snapshot.version();
+    }
+
+    private CatalogSnapshot persist(CatalogSnapshot snapshot) {
+        if (catalogFile == null || catalogFile.isBlank()) {
+            return snapshot;
+        }
+        try {
+            Path path = Path.of(catalogFile);
+            CatalogFile.write(snapshot, source(), path);
+            return CatalogFile.map(path);
+        } catch (IOException e) {
+            log.warn("Could not persist catalog version {} to {}: {}", snapshot.version(), catalogFile,
+                    e.getMessage());
+            return snapshot;
+        }
+    }
+
+    private CatalogFile.Source source() {
+        return new CatalogFile.Source(csvFiles, productRepository.count(), discountRepository.count(),
+                priceChangeRepository.count(), productRepository.findLatestFeedDate());
+    }
+}
@@ -1,17 +1,31 @@
 package com.example.price_comparator_market.service;
 
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.catalog.PriceFeedDiff;
 import com.example.price_comparator_market.exception.CsvImportException;
 import com.example.price_comparator_market.model.Currency;
 import com.example.price_comparator_market.model.Discount;
+import com.example.price_comparator_market.model.PriceChange;
 import com.example.price_comparator_market.model.Product;
 import com.example.price_comparator_market.model.Store;
+import com.example.price_comparator_market.pricing.Money;
 import com.example.price_comparator_market.repository.DiscountRepository;
+import com.example.price_comparator_market.repository.PriceChangeRepository;
 import com.example.price_comparator_market.repository.ProductRepository;
 import com.example.price_comparator_market.repository.StoreRepository;
+import com.example.price_comparator_market.repository.projection.ProductView;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -20,17 +34,66 @@ import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
+@Slf4j
 public class CsvImportService {
 
+    private static final int BATCH_SIZE = 1000;
+
+    private static final Pattern FEED_DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+
     private final StoreRepository storeRepository;
 
     private final ProductRepository productRepository;
 
     private final DiscountRepository discountRepository;
 
+    private final PriceChangeRepository priceChangeRepository;
+
+    private final CatalogService catalogService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Imports several CSV files, then publishes a new catalog snapshot once all of them are written.
+     * <p>
+     * Readers keep seeing the previous snapshot while the files are imported, so a store's products and
+     * its discounts become visible together rather than one file at a time. Once they are, the price changes
+     * detected in the files and the discounts the previous snapshot did not have are published as one
+     * {@link PriceChangesEvent}. Discounts are not reported when the previous snapshot was empty, as on the
+     * first import after a fresh start.
+     *
+     * @param filePaths the CSV files to import, in order
+     * @throws CsvImportException if any file cannot be read; the snapshot is not republished in that case
+     */
+    public void importCsvFiles(List<Path> filePaths) {
+        CatalogSnapshot previous = catalogService.current();
+        List<PriceChangesEvent.ChangeSet> changeSets = new ArrayList<>();
+        for (Path filePath : filePaths) {
+            PriceChangesEvent.ChangeSet changeSet = importCsv(filePath);
+            if (changeSet != null) {
+                changeSets.add(changeSet);
+            }
+        }
+        CatalogSnapshot catalog = catalogService.refresh();
+        List<CatalogDiscount> newDiscounts = previous.products().isEmpty() ? List.of()
+                : catalog.discountsAddedSince(previous);
+        if (!changeSets.isEmpty() || !newDiscounts.isEmpty()) {
+            eventPublisher.publishEvent(new PriceChangesEvent(catalog.version(), changeSets, newDiscounts));
+        }
+    }
+
     /**
      * Imports product or discount data from a CSV file and saves it to the repository.
      * <p>
@@ -41,21 +104,39 @@ public class CsvImportService {
      * <p>
      * If the filename contains {@code "_discounts_"}, the file is treated as containing discount data.
      * Otherwise, it is treated as containing product data.
+     * <p>
+     * Rows are written in batches with {@code MERGE INTO} statements keyed on the natural unique constraints
+     * ({@code (store, productId)} for products, {@code (store, productId, fromDate, toDate)} for discounts),
+     * so re-importing a file updates the existing rows instead of duplicating them, and two imports touching
+     * the same store cannot race each other into duplicates.
+     * <p>
+     * The rows are not visible to read services until {@link CatalogService#refresh()} publishes a new
+     * snapshot; use {@link #importCsvFiles(List)} to import and publish in one step.
      * Throws a {@code CsvImportException} if there is an error while reading or parsing the file.
+     * <p>
+     * A price file is also diffed against the store's previous feed, the products whose feed date is the
+     * store's latest, read before the upsert. The feed date is the {@code yyyy-MM-dd} date in the file name
+     * (today if there is none). The change set is persisted as {@link PriceChange} rows; there is none for a
+     * store's first feed. A price file older than the store's latest feed is skipped altogether, with a
+     * warning: upserting it would roll current prices back and split the latest feed across two feed dates.
+     * <p>
+     * Each import records its duration as {@code csv.import} and its rows per second as
+     * {@code csv.import.throughput}, both tagged with the file type, and each diff its duration as
+     * {@code csv.import.diff}.
      *
      * @param filePath the path to the CSV file to import
+     * @return the price changes of a price file against the store's previous feed, or {@code null} for a
+     *         discount file, a store's first feed or a skipped file
      * @throws CsvImportException if an {@link IOException} occurs during CSV processing
      */
-    public void importCsv(Path filePath) {
+    public PriceChangesEvent.ChangeSet importCsv(Path filePath) {
+        long start = System.nanoTime();
+        long rows = 0;
         String filename = filePath.getFileName().toString();
         String storeName = capitalize(filename.split("_")[0]);
 
-        Store store = storeRepository.findByName(storeName)
-                .orElseGet(() -> {
-                    Store s = new Store();
-                    s.setName(storeName);
-                    return storeRepository.save(s);
-                });
+        Store store = findOrCreateStore(storeName);
+        PriceChangesEvent.ChangeSet changeSet = null;
 
         try (Reader reader = Files.newBufferedReader(filePath)) {
             CSVFormat format = CSVFormat.DEFAULT.builder()
@@ -68,43 +149,139 @@ public class CsvImportService {
             CSVParser csvParser = format.parse(reader);
 
             if (filename.contains("_discounts_")) {
+                List<Discount> batch = new ArrayList<>(BATCH_SIZE);
                 for (CSVRecord csvRecord : csvParser) {
-                    String productId = csvRecord.get("product_id");
-                    LocalDate fromDate = LocalDate.parse(csvRecord.get("from_date"));
-                    LocalDate toDate = LocalDate.parse(csvRecord.get("to_date"));
-
-                    boolean exists = discountRepository.findByProductIdAndStoreAndFromDateAndToDate(
-                            productId, store, fromDate, toDate
-                    ).isPresent();
-                    if (exists) continue;
-
-                    Discount discount = mapCsvRecordToDiscount(csvRecord, store);
-
-                    discountRepository.save(discount);
+                    rows++;
+                    batch.add(mapCsvRecordToDiscount(csvRecord, store));
+                    if (batch.size() == BATCH_SIZE) {
+                        discountRepository.upsertAll(batch);
+                        batch.clear();
+                    }
                 }
+                discountRepository.upsertAll(batch);
             } else {
+                LocalDate feedDate = feedDate(filename);
+                LocalDate previousFeedDate = productRepository.findLatestFeedDate(store);
+                if (previousFeedDate != null && feedDate.isBefore(previousFeedDate)) {
+                    log.warn("Skipping {}: {} already has a newer price feed from {}", filename, store.getName(),
+                            previousFeedDate);
+                    return null;
+                }
+                boolean diff = previousFeedDate != null;
+                List<PriceFeedDiff.Row> previous = diff ? feedRows(store, previousFeedDate) : null;
+                List<PriceFeedDiff.Row> next = diff ? new ArrayList<>(previous.size()) : null;
 
+                List<Product> batch = new ArrayList<>(BATCH_SIZE);
                 for (CSVRecord csvRecord : csvParser) {
-                    String productId = csvRecord.get("product_id");
-
-                    boolean exists = productRepository.findByProductIdAndStore(productId, store).isPresent();
-
-                    if (exists) {
-                        continue;
+                    rows++;
+                    Product product = mapCsvRecordToProduct(csvRecord, store, feedDate);
+                    batch.add(product);
+                    if (next != null) {
+                        next.add(new PriceFeedDiff.Row(product.getProductId(), product.getProductName(),
+                                Money.toMinor(product.getPrice()), product.getCurrency()));
+                    }
+                    if (batch.size() == BATCH_SIZE) {
+                        productRepository.upsertAll(batch);
+                        batch.clear();
                     }
-
-                    Product product = mapCsvRecordToProduct(csvRecord, store);
-
-                    productRepository.save(product);
+                }
+                productRepository.upsertAll(batch);
+                if (diff) {
+                    changeSet = recordChanges(store, previousFeedDate, feedDate, previous, next);
                 }
             }
         } catch (IOException e) {
             throw new CsvImportException("Error importing CSV data: " + e.getMessage());
         }
+        recordImport(filename.contains("_discounts_") ? "discounts" : "products", rows, System.nanoTime() - start);
+        return changeSet;
+    }
+
+    private List<PriceFeedDiff.Row> feedRows(Store store, LocalDate feedDate) {
+        List<ProductView> views = productRepository.findFeedViews(store, feedDate);
+        List<PriceFeedDiff.Row> rows = new ArrayList<>(views.size());
+        for (ProductView view : views) {
+            rows.add(new PriceFeedDiff.Row(view.productId(), view.productName(), Money.toMinor(view.price()),
+                    view.currency()));
+        }
+        return rows;
+    }
+
+    /**
+     * Diffs a price file against the store's previous feed and persists the changes.
+     */
+    private PriceChangesEvent.ChangeSet recordChanges(Store store, LocalDate previousFeedDate, LocalDate feedDate,
+                                                      List<PriceFeedDiff.Row> previous,
+                                                      List<PriceFeedDiff.Row> next) {
+        long start = System.nanoTime();
+        List<PriceFeedDiff.Change> changes = PriceFeedDiff.diff(previous, next);
+        LocalDateTime detectedAt = LocalDateTime.now();
+        List<PriceChange> batch = new ArrayList<>(BATCH_SIZE);
+        for (PriceFeedDiff.Change change : changes) {
+            batch.add(mapChangeToPriceChange(change, store, previousFeedDate, feedDate, detectedAt));
+            if (batch.size() == BATCH_SIZE) {
+                priceChangeRepository.insertAll(batch);
+                batch.clear();
+            }
+        }
+        priceChangeRepository.insertAll(batch);
+        Timer.builder("csv.import.diff")
+                .description("Duration of diffing one price file against the store's previous feed")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("{} price feed {} against {}: {} products, {} changes", store.getName(), feedDate,
+                previousFeedDate, next.size(), changes.size());
+        return new PriceChangesEvent.ChangeSet(store.getName(), previousFeedDate, feedDate, List.copyOf(changes));
+    }
+
+    private static LocalDate feedDate(String filename) {
+        Matcher matcher = FEED_DATE.matcher(filename);
+        LocalDate date = null;
+        while (matcher.find()) {
+            date = LocalDate.parse(matcher.group());
+        }
+        return date != null ? date : LocalDate.now();
+    }
 
+    private void recordImport(String type, long rows, long nanos) {
+        Timer.builder("csv.import")
+                .description("Duration of one CSV file import")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("csv.import.throughput")
+                .description("Rows imported per second, per CSV file")
+                .baseUnit("rows.per.second")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos > 0 ? rows * 1e9 / nanos : 0);
     }
 
-    private Product mapCsvRecordToProduct(CSVRecord csvRecord, Store store) {
+    /**
+     * Retrieves the store with the given name, creating it if it does not exist yet.
+     * <p>
+     * Store names are unique in the database; if a concurrent import creates the same store between
+     * the lookup and the insert, the insert fails on the constraint and the winner's row is returned.
+     *
+     * @param storeName the capitalized store name
+     * @return the persisted {@link Store}
+     */
+    private Store findOrCreateStore(String storeName) {
+        return storeRepository.findByName(storeName)
+                .orElseGet(() -> {
+                    Store s = new Store();
+                    s.setName(storeName);
+                    try {
+                        return storeRepository.save(s);
+                    } catch (DataIntegrityViolationException e) {
+                        return storeRepository.findByName(storeName).orElseThrow(() -> e);
+                    }
+                });
+    }
+
+    private Product mapCsvRecordToProduct(CSVRecord csvRecord, Store store, LocalDate feedDate) {
         Product product = new Product();
         product.setProductId(csvRecord.get("product_id"));
         product.setProductName(csvRecord.get("product_name"));
@@ -115,9 +292,31 @@ public class CsvImportService {
         product.setPrice(new BigDecimal(csvRecord.get("price")));
         product.setCurrency(Currency.valueOf(csvRecord.get("currency")));
         product.setStore(store);
+        product.setFeedDate(feedDate);
         return product;
     }
 
+    private PriceChange mapChangeToPriceChange(PriceFeedDiff.Change change, Store store, LocalDate previousFeedDate,
+                                               LocalDate feedDate, LocalDateTime detectedAt) {
+        PriceChange priceChange = new PriceChange();
+        priceChange.setProductId(change.productId());
+        priceChange.setProductName(change.productName());
+        priceChange.setChangeType(change.type());
+        if (change.previous() != null) {
+            priceChange.setOldPrice(Money.toBigDecimal(change.previous().priceMinor()));
+            priceChange.setOldCurrency(change.previous().currency());
+        }
+        if (change.next() != null) {
+            priceChange.setNewPrice(Money.toBigDecimal(change.next().priceMinor()));
+            priceChange.setNewCurrency(change.next().currency());
+        }
+        priceChange.setPreviousFeedDate(previousFeedDate);
+        priceChange.setFeedDate(feedDate);
+        priceChange.setDetectedAt(detectedAt);
+        priceChange.setStore(store);
+        return priceChange;
+    }
+
     private Discount mapCsvRecordToDiscount(CSVRecord csvRecord, Store store) {
         Discount discount = new Discount();
         discount.setProductId(csvRecord.get("product_id"));
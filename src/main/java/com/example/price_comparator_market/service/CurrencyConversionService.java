@@ -0,0 +1,71 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.exception.CsvImportException;
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.ExchangeRateTable;
+import io.micrometer.core.annotation.Timed;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@Timed("service.method")
+public class CurrencyConversionService {
+
+    private volatile ExchangeRateTable rates = ExchangeRateTable.identity();
+
+    /**
+     * Loads dated exchange rates from a CSV file and replaces the current rate table.
+     * <p>
+     * The file must have the columns {@code date}, {@code currency} and {@code rate}, where {@code rate}
+     * is the value of one unit of {@code currency} in RON (e.g. {@code 2025-05-01,EUR,4.9774}).
+     * Rates loaded from several files are not merged; the last file loaded wins.
+     *
+     * @param filePath the path to the CSV file to load
+     * @throws CsvImportException if an {@link IOException} occurs while reading the file
+     */
+    public void loadRates(Path filePath) {
+        Map<LocalDate, Map<Currency, BigDecimal>> quotes = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(filePath)) {
+            CSVFormat format = CSVFormat.DEFAULT.builder()
+                    .setHeader()
+                    .setSkipHeaderRecord(true)
+                    .setIgnoreHeaderCase(true)
+                    .setTrim(true)
+                    .build();
+
+            for (CSVRecord csvRecord : format.parse(reader)) {
+                quotes.computeIfAbsent(LocalDate.parse(csvRecord.get("date")), d -> new EnumMap<>(Currency.class))
+                        .put(Currency.valueOf(csvRecord.get("currency")), new BigDecimal(csvRecord.get("rate")));
+            }
+        } catch (IOException e) {
+            throw new CsvImportException("Error importing exchange rates: " + e.getMessage());
+        }
+        rates = ExchangeRateTable.of(quotes);
+    }
+
+    /**
+     * Returns a converter normalizing prices to the given currency with the rates of the given day.
+     * <p>
+     * Callers should obtain one converter per request and reuse it for every price they compare.
+     *
+     * @param date   the day whose rates apply
+     * @param target the currency to normalize to; {@code null} defaults to {@link Currency#RON}
+     * @return a {@link CurrencyConverter} for the day and target currency
+     */
+    public CurrencyConverter converter(LocalDate date, Currency target) {
+        return rates.converter(date, target != null ? target : Currency.RON);
+    }
+}
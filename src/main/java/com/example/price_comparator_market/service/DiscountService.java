@@ -1,17 +1,21 @@
 package com.example.price_comparator_market.service;
 
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
 import com.example.price_comparator_market.dto.BestDiscountDTO;
 import com.example.price_comparator_market.dto.DiscountDTO;
 import com.example.price_comparator_market.dto.NewDiscountDTO;
 import com.example.price_comparator_market.exception.DiscountNotFoundException;
-import com.example.price_comparator_market.model.Discount;
-import com.example.price_comparator_market.model.Product;
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
 import com.example.price_comparator_market.repository.DiscountRepository;
-import com.example.price_comparator_market.repository.ProductRepository;
+import com.example.price_comparator_market.repository.projection.DiscountView;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
@@ -19,33 +23,40 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class DiscountService {
 
     private final DiscountRepository discountRepository;
 
-    private final ProductRepository productRepository;
+    private final CatalogService catalogService;
+
+    private final CurrencyConversionService currencyConversionService;
 
     /**
-     * Retrieves all discounts from the repository.
+     * Retrieves all discounts of the current catalog snapshot.
      *
-     * @return a list of {@link DiscountDTO} objects representing all discounts
+     * @return a list of {@link DiscountDTO} objects representing all discounts, ordered by store and product ID
      */
     public List<DiscountDTO> getAllDiscounts() {
-        return discountRepository.findAll().stream()
+        return catalogService.current().discounts().stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
     /**
      * Retrieves a discount by its unique identifier.
+     * <p>
+     * Only the DTO columns are selected, as a {@link DiscountView} projection joined with the store name,
+     * in a read-only transaction.
      *
      * @param id the ID of the discount to retrieve
      * @return a {@link DiscountDTO} representing the discount with the specified ID
      * @throws DiscountNotFoundException if no discount is found with the given ID
      */
+    @Transactional(readOnly = true)
     public DiscountDTO getDiscountById(Long id) {
-        return discountRepository.findById(id)
+        return discountRepository.findViewById(id)
                 .map(this::mapToDTO)
                 .orElseThrow(() -> new DiscountNotFoundException("Discount not found with id: " + id));
     }
@@ -57,32 +68,51 @@ public class DiscountService {
      * using the original price of the associated product and the discount percentage.
      * Only discounts for which a corresponding product with a known original price exists are included.
      * The resulting list is sorted in descending order by the percentage of discount.
+     * Prices are converted to the requested currency with the exchange rates of the given date,
+     * and all lookups are made against a single catalog snapshot.
      *
      * @param date the date for which to retrieve applicable discounts
+     * @param currency the currency to express prices in; {@code null} defaults to RON
      * @return a sorted list of {@link BestDiscountDTO} objects containing product name, brand,
      *         original price, discount percentage, discounted price, and store name
      */
-    public List<BestDiscountDTO> getBestDiscounts(LocalDate date) {
-        List<Discount> discounts = discountRepository.findByFromDateLessThanEqualAndToDateGreaterThanEqual(date, date);
-
-        return discounts.stream().map(discount -> {
-            Optional<Product> product = productRepository.findByProductIdAndStore(discount.getProductId(), discount.getStore());
-            BigDecimal originalPrice = product.map(Product::getPrice).orElse(null);
-            BigDecimal discountedPrice = null;
-            if (originalPrice != null) {
-                discountedPrice = originalPrice.subtract(
-                        originalPrice.multiply(discount.getPercentageOfDiscount()).divide(BigDecimal.valueOf(100))
-                );
-            }
-            return new BestDiscountDTO(
-                    discount.getProductName(),
-                    discount.getBrand(),
-                    originalPrice,
-                    discount.getPercentageOfDiscount(),
-                    discountedPrice,
-                    discount.getStore().getName()
-            );
-        }).filter(dto -> dto.getOriginalPrice() != null && dto.getDiscountedPrice() != null).sorted(Comparator.comparing(BestDiscountDTO::getPercentageOfDiscount).reversed()).collect(Collectors.toList());
+    public List<BestDiscountDTO> getBestDiscounts(LocalDate date, Currency currency) {
+        return getBestDiscounts(catalogService.current(), date, currency);
+    }
+
+    /**
+     * Retrieves the best discounts as they were on a past day: like {@link #getBestDiscounts(LocalDate, Currency)}
+     * for that day, but with the base prices of that day from {@link CatalogService#asOf} instead of the
+     * current ones.
+     *
+     * @param asOf     the day to evaluate
+     * @param currency the currency to express prices in; {@code null} defaults to RON
+     * @return a sorted list of {@link BestDiscountDTO} objects, as for {@link #getBestDiscounts(LocalDate, Currency)}
+     */
+    public List<BestDiscountDTO> getBestDiscountsAsOf(LocalDate asOf, Currency currency) {
+        return getBestDiscounts(catalogService.asOf(asOf), asOf, currency);
+    }
+
+    private List<BestDiscountDTO> getBestDiscounts(CatalogSnapshot catalog, LocalDate date, Currency currency) {
+        CurrencyConverter converter = currencyConversionService.converter(date, currency);
+
+        return catalog.discounts().stream()
+                .filter(discount -> discount.isActiveOn(date))
+                .map(discount -> catalog.findProduct(discount.storeName(), discount.productId()).map(product -> {
+                    long price = converter.convert(product.priceMinor(), product.currency());
+                    return new BestDiscountDTO(
+                            discount.productName(),
+                            discount.brand(),
+                            Money.toBigDecimal(price),
+                            discount.percentageOfDiscount(),
+                            Money.toBigDecimal(Money.applyDiscount(price, discount.basisPoints())),
+                            discount.storeName(),
+                            converter.target()
+                    );
+                }))
+                .flatMap(Optional::stream)
+                .sorted(Comparator.comparing(BestDiscountDTO::getPercentageOfDiscount).reversed())
+                .collect(Collectors.toList());
     }
 
     /**
@@ -96,36 +126,50 @@ public class DiscountService {
      * @return a list of {@link NewDiscountDTO} objects representing newly added discounts
      */
     public List<NewDiscountDTO> getNewDiscounts() {
+        CatalogSnapshot catalog = catalogService.current();
         LocalDate since = LocalDate.now().minusDays(1);
-        List<Discount> newDiscounts = discountRepository.findByFromDateGreaterThanEqual(since);
-
-        return newDiscounts.stream()
-                .map(discount -> {
-                    Optional<Product> productOpt = productRepository.findByProductIdAndStore(discount.getProductId(), discount.getStore());
-                    BigDecimal originalPrice = productOpt.map(Product::getPrice).orElse(null);
-                    return new NewDiscountDTO(
-                            discount.getProductName(),
-                            discount.getBrand(),
-                            originalPrice,
-                            discount.getPercentageOfDiscount(),
-                            discount.getStore().getName()
-                    );
-                })
-                .filter(dto -> dto.getPrice() != null)
+
+        return catalog.discounts().stream()
+                .filter(discount -> !discount.fromDate().isBefore(since))
+                .map(discount -> catalog.findProduct(discount.storeName(), discount.productId())
+                        .map(product -> new NewDiscountDTO(
+                                discount.productName(),
+                                discount.brand(),
+                                product.price(),
+                                discount.percentageOfDiscount(),
+                                discount.storeName()
+                        )))
+                .flatMap(Optional::stream)
                 .collect(Collectors.toList());
     }
 
-    private DiscountDTO mapToDTO(Discount discount) {
+    private DiscountDTO mapToDTO(CatalogDiscount discount) {
+        DiscountDTO dto = new DiscountDTO();
+        dto.setProductId(discount.productId());
+        dto.setProductName(discount.productName());
+        dto.setBrand(discount.brand());
+        dto.setPackageQuantity(discount.packageQuantity());
+        dto.setPackageUnit(discount.packageUnit());
+        dto.setProductCategory(discount.productCategory());
+        dto.setFromDate(discount.fromDate());
+        dto.setToDate(discount.toDate());
+        dto.setPercentageOfDiscount(discount.percentageOfDiscount());
+        dto.setStoreName(discount.storeName());
+        return dto;
+    }
+
+    private DiscountDTO mapToDTO(DiscountView discount) {
         DiscountDTO dto = new DiscountDTO();
-        dto.setProductId(discount.getProductId());
-        dto.setProductName(discount.getProductName());
-        dto.setBrand(discount.getBrand());
-        dto.setPackageQuantity(discount.getPackageQuantity());
-        dto.setPackageUnit(discount.getPackageUnit());
-        dto.setProductCategory(discount.getProductCategory());
-        dto.setFromDate(discount.getFromDate());
-        dto.setToDate(discount.getToDate());
-        dto.setPercentageOfDiscount(discount.getPercentageOfDiscount());
+        dto.setProductId(discount.productId());
+        dto.setProductName(discount.productName());
+        dto.setBrand(discount.brand());
+        dto.setPackageQuantity(discount.packageQuantity());
+        dto.setPackageUnit(discount.packageUnit());
+        dto.setProductCategory(discount.productCategory());
+        dto.setFromDate(discount.fromDate());
+        dto.setToDate(discount.toDate());
+        dto.setPercentageOfDiscount(discount.percentageOfDiscount());
+        dto.setStoreName(discount.storeName());
         return dto;
     }
-}
\ No newline at end of file
+}
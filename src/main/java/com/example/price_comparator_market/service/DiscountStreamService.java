@@ -0,0 +1,428 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.catalog.PriceFeedDiff;
+import com.example.price_comparator_market.dto.DiscountEventDTO;
+import com.example.price_comparator_market.model.DiscountEventType;
+import com.example.price_comparator_market.model.PriceChangeType;
+import com.example.price_comparator_market.pricing.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes new discounts and price drops to server-sent event subscribers as imports publish them.
+ *
+ * <p>Every {@link PriceChangesEvent} is turned into one event per new discount and per cheaper product,
+ * numbered in publication order. The importing thread only numbers the events and appends them to a bounded
+ * in-memory history; a single fan-out thread then offers them, in order and without holding the service
+ * lock, to each subscriber whose filter matches, into that subscriber's own bounded buffer. A subscriber
+ * that falls more than {@code discount-stream.buffer} events behind loses the oldest ones and is sent a
+ * {@code dropped} event with their count before the rest. A new or resuming subscriber first reads the
+ * history through its own cursor, a buffer's worth at a time, and only then starts being offered events, so
+ * the buffer bound never cuts a replay short.</p>
+ *
+ * <p>Connections are asynchronous servlet requests, so an idle subscriber holds no thread. A subscriber
+ * with buffered events is drained by one virtual thread, which ends when the buffer is empty, so thousands
+ * of subscribers share the few carrier threads and a slow client only ever delays itself. A comment is
+ * sent every 15 seconds so proxies keep idle connections open and closed ones are noticed.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class DiscountStreamService {
+
+    private final CatalogService catalogService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ExecutorService fanOut = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("discount-stream-fan-out").factory());
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The most recent {@code historySize} events, event {@code n} at index {@code (n - 1) % historySize};
+     * created on first use and guarded by {@code this}.
+     */
+    private DiscountEventDTO[] history;
+
+    /** ID of the last event published, {@code 0} before the first; guarded by {@code this}. */
+    private long lastEventId;
+
+    @Value("${discount-stream.history:10000}")
+    private int historySize;
+
+    @Value("${discount-stream.buffer:256}")
+    private int bufferSize;
+
+    @Value("${discount-stream.timeout:30m}")
+    private Duration timeout;
+
+    /**
+     * What a subscriber wants to receive; {@code null} fields match everything.
+     *
+     * @param store         a store name, case-insensitive
+     * @param category      a product category, case-insensitive
+     * @param minPercentage the smallest discount or price drop, in percent
+     */
+    public record Filter(String store, String category, BigDecimal minPercentage) {
+
+        boolean matches(DiscountEventDTO event) {
+            return (store == null || store.equalsIgnoreCase(event.getStoreName()))
+                    && (category == null || category.equalsIgnoreCase(event.getProductCategory()))
+                    && (minPercentage == null || event.getPercentageOfDiscount().compareTo(minPercentage) >= 0);
+        }
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("discounts.stream.subscribers", subscribers, Set::size)
+                .description("Open discount stream connections")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void closeSubscribers() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        fanOut.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for a new subscriber.
+     *
+     * <p>With {@code lastEventId}, the retained events after it that match the filter are sent first, so a
+     * client that reconnects misses nothing that is still in the history. An ID this instance never issued,
+     * such as one from before a restart, replays the whole history.</p>
+     *
+     * @param filter      the events to send
+     * @param lastEventId the ID of the last event the client received, or {@code null} for only new events
+     * @return the emitter to return from the request handler
+     */
+    public SseEmitter subscribe(Filter filter, Long lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        emitter.onTimeout(emitter::complete);
+        synchronized (this) {
+            long after = this.lastEventId;
+            if (lastEventId != null) {
+                after = Math.max(lastEventId > this.lastEventId ? 0 : lastEventId, firstRetainedId() - 1);
+            }
+            // Even without a last event ID, events published but not yet fanned out come from the history.
+            subscriber.replayAfter(after);
+            subscribers.add(subscriber);
+        }
+        // Flushes the response headers right away, even when there is nothing to replay.
+        subscriber.ping();
+        subscriber.wake();
+        return emitter;
+    }
+
+    /**
+     * @return the emitter of a new subscriber; tests override this to record what is sent
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    /**
+     * Turns the new discounts and price drops of an import into stream events and publishes them.
+     * <p>
+     * This runs on the importing thread, which only numbers the events and appends them to the history;
+     * matching them against the subscribers' filters happens on the fan-out thread.
+     *
+     * @param event the price changes of an import
+     */
+    @EventListener
+    public void onPriceChanges(PriceChangesEvent event) {
+        CatalogSnapshot catalog = catalogService.current();
+        List<DiscountEventDTO> events = new ArrayList<>();
+        for (CatalogDiscount discount : event.newDiscounts()) {
+            catalog.findProduct(discount.storeName(), discount.productId())
+                    .ifPresent(product -> events.add(newDiscount(discount, product)));
+        }
+        for (PriceChangesEvent.ChangeSet changeSet : event.changeSets()) {
+            for (PriceFeedDiff.Change change : changeSet.changes()) {
+                if (change.type() == PriceChangeType.DECREASED && change.previous().priceMinor() > 0) {
+                    events.add(priceDrop(change, changeSet,
+                            catalog.findProduct(changeSet.storeName(), change.productId())));
+                }
+            }
+        }
+        if (!events.isEmpty()) {
+            publish(events);
+        }
+    }
+
+    @Scheduled(fixedRate = 15, timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.ping();
+            subscriber.wake();
+        }
+    }
+
+    private void publish(List<DiscountEventDTO> events) {
+        synchronized (this) {
+            for (DiscountEventDTO event : events) {
+                event.setId(++lastEventId);
+                if (historySize > 0) {
+                    history()[(int) ((lastEventId - 1) % historySize)] = event;
+                }
+            }
+            // Submitted under the lock so batches fan out in the order they were numbered.
+            fanOut.execute(() -> fanOut(events));
+        }
+        Counter.builder("discounts.stream.events")
+                .description("Discount stream events published")
+                .register(meterRegistry)
+                .increment(events.size());
+    }
+
+    private void fanOut(List<DiscountEventDTO> events) {
+        for (Subscriber subscriber : subscribers) {
+            boolean offered = false;
+            for (DiscountEventDTO event : events) {
+                if (subscriber.filter.matches(event)) {
+                    offered |= subscriber.offer(event);
+                }
+            }
+            if (offered) {
+                subscriber.wake();
+            }
+        }
+    }
+
+    private DiscountEventDTO[] history() {
+        if (history == null) {
+            history = new DiscountEventDTO[historySize];
+        }
+        return history;
+    }
+
+    private long firstRetainedId() {
+        return Math.max(1, lastEventId - historySize + 1);
+    }
+
+    private static DiscountEventDTO newDiscount(CatalogDiscount discount, CatalogProduct product) {
+        return new DiscountEventDTO(
+                0,
+                DiscountEventType.NEW_DISCOUNT,
+                discount.storeName(),
+                discount.productId(),
+                discount.productName(),
+                product.brand(),
+                product.productCategory(),
+                product.price(),
+                Money.toBigDecimal(Money.applyDiscount(product.priceMinor(), discount.basisPoints())),
+                discount.percentageOfDiscount(),
+                discount.fromDate(),
+                discount.toDate(),
+                product.currency()
+        );
+    }
+
+    private static DiscountEventDTO priceDrop(PriceFeedDiff.Change change, PriceChangesEvent.ChangeSet changeSet,
+                                              Optional<CatalogProduct> product) {
+        long before = change.previous().priceMinor();
+        long after = change.next().priceMinor();
+        return new DiscountEventDTO(
+                0,
+                DiscountEventType.PRICE_DROP,
+                changeSet.storeName(),
+                change.productId(),
+                change.productName(),
+                product.map(CatalogProduct::brand).orElse(null),
+                product.map(CatalogProduct::productCategory).orElse(null),
+                Money.toBigDecimal(before),
+                Money.toBigDecimal(after),
+                Money.toPercentage((int) ((before - after) * 10_000 / before)),
+                changeSet.feedDate(),
+                null,
+                change.next().currency()
+        );
+    }
+
+    /**
+     * One open stream. Buffered events are sent by at most one sender at a time, in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Filter filter;
+
+        /** Guarded by {@code this}, as are {@code dropped}, {@code heartbeat} and {@code cursor}. */
+        private final ArrayDeque<DiscountEventDTO> buffer = new ArrayDeque<>();
+
+        private long dropped;
+
+        private boolean heartbeat;
+
+        /** ID of the last event the replay went through or that was buffered since. */
+        private long cursor;
+
+        /**
+         * Whether the subscriber still reads the history instead of being offered published events; only
+         * changed while holding both the service and the subscriber.
+         */
+        private volatile boolean replaying;
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Filter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        synchronized void replayAfter(long id) {
+            cursor = id;
+            replaying = true;
+        }
+
+        /**
+         * Buffers a published event, dropping the oldest one when the buffer is full. A replaying subscriber
+         * ignores it and reads it from the history instead, as does one whose replay already went past it.
+         *
+         * @return whether the event was buffered
+         */
+        synchronized boolean offer(DiscountEventDTO event) {
+            if (replaying || event.getId() <= cursor) {
+                return false;
+            }
+            cursor = event.getId();
+            if (buffer.size() == bufferSize) {
+                buffer.removeFirst();
+                drop(1);
+            }
+            buffer.addLast(event);
+            return true;
+        }
+
+        private void drop(long count) {
+            dropped += count;
+            Counter.builder("discounts.stream.dropped")
+                    .description("Discount stream events dropped because a subscriber fell behind")
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+
+        synchronized void ping() {
+            heartbeat = true;
+        }
+
+        void wake() {
+            if (!closed && sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void send() {
+            try {
+                while (!closed) {
+                    if (replaying) {
+                        replay();
+                    }
+                    SseEmitter.SseEventBuilder event = next();
+                    if (event != null) {
+                        emitter.send(event);
+                        continue;
+                    }
+                    sending.set(false);
+                    // Something offered between next() and the reset would otherwise wait for the next wake.
+                    if (!pending() || !sending.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter completed; the container ends the request.
+                close();
+            }
+        }
+
+        /**
+         * Once the buffer is empty, fills it from the history with up to {@code bufferSize} events after the
+         * cursor that match the filter, and stops replaying when the cursor reaches the latest event, all
+         * under the service lock so no event is published in between. Events that left the history before
+         * the replay got to them are counted as dropped, whether or not they matched.
+         */
+        private void replay() {
+            synchronized (DiscountStreamService.this) {
+                synchronized (this) {
+                    if (!replaying || !buffer.isEmpty()) {
+                        return;
+                    }
+                    long first = firstRetainedId();
+                    if (cursor < first - 1) {
+                        drop(first - 1 - cursor);
+                        cursor = first - 1;
+                    }
+                    while (cursor < lastEventId && buffer.size() < bufferSize) {
+                        DiscountEventDTO event = history()[(int) (cursor++ % historySize)];
+                        if (filter.matches(event)) {
+                            buffer.addLast(event);
+                        }
+                    }
+                    replaying = cursor < lastEventId;
+                }
+            }
+        }
+
+        private synchronized SseEmitter.SseEventBuilder next() {
+            if (dropped > 0) {
+                SseEmitter.SseEventBuilder event = SseEmitter.event().name("dropped").data(dropped);
+                dropped = 0;
+                return event;
+            }
+            DiscountEventDTO event = buffer.pollFirst();
+            if (event != null) {
+                heartbeat = false;
+                return SseEmitter.event().id(Long.toString(event.getId())).data(event);
+            }
+            if (heartbeat) {
+                heartbeat = false;
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return null;
+        }
+
+        private synchronized boolean pending() {
+            return dropped > 0 || heartbeat || replaying || !buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@Timed("service.method")
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER =
+            "store,productId,name,basePrice,discountPct,finalPrice,pricePerUnit,packageUnit,currency\n";
+
+    private final CatalogService catalogService;
+
+    private final CurrencyConversionService currencyConversionService;
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Prepares a streaming export of the effective price of every product on a given date.
+     * <p>
+     * Each row carries the store, product ID, name, base price, best active discount percentage, final price
+     * and final price per package unit. Rows are produced by a single merge-join of the catalog's products and
+     * discounts, which are both sorted by store and product ID, and written through a fixed-size buffer,
+     * so memory use does not depend on the number of rows. The catalog snapshot is captured when this method
+     * is called; an import published while the export is streaming does not affect it.
+     *
+     * @param date     the day whose active discounts apply
+     * @param currency the currency to express prices in; {@code null} keeps each product's own currency
+     * @param format   the output format, one JSON object per line or CSV with a header row
+     * @return a body that writes the export, ordered by store and product ID
+     */
+    public StreamingResponseBody effectivePrices(LocalDate date, Currency currency, Format format) {
+        CatalogSnapshot catalog = catalogService.current();
+        CurrencyConverter converter = currency != null ? currencyConversionService.converter(date, currency) : null;
+        return out -> writeEffectivePrices(catalog, date, converter, format, out);
+    }
+
+    private void writeEffectivePrices(CatalogSnapshot catalog, LocalDate date, CurrencyConverter converter,
+                                      Format format, OutputStream out) throws IOException {
+        List<CatalogProduct> products = catalog.products();
+        List<CatalogDiscount> discounts = catalog.discounts();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        StringBuilder row = new StringBuilder(256);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        int d = 0;
+        CatalogDiscount discount = d < discounts.size() ? discounts.get(d) : null;
+        for (int p = 0; p < products.size(); p++) {
+            CatalogProduct product = products.get(p);
+            while (discount != null && compareKey(discount, product) < 0) {
+                discount = ++d < discounts.size() ? discounts.get(d) : null;
+            }
+            int basisPoints = 0;
+            while (discount != null && compareKey(discount, product) == 0) {
+                if (discount.isActiveOn(date) && discount.basisPoints() > basisPoints) {
+                    basisPoints = discount.basisPoints();
+                }
+                discount = ++d < discounts.size() ? discounts.get(d) : null;
+            }
+
+            long price = converter != null ? converter.convert(product.priceMinor(), product.currency())
+                    : product.priceMinor();
+            long finalPrice = Money.applyDiscount(price, basisPoints);
+            Currency currency = converter != null ? converter.target() : product.currency();
+
+            row.setLength(0);
+            if (format == Format.CSV) {
+                appendCsvRow(row, product, price, basisPoints, finalPrice, currency);
+            } else {
+                appendJsonRow(row, product, price, basisPoints, finalPrice, currency);
+            }
+            writer.append(row);
+        }
+        writer.flush();
+    }
+
+    private static int compareKey(CatalogDiscount discount, CatalogProduct product) {
+        int cmp = discount.storeName().compareTo(product.storeName());
+        return cmp != 0 ? cmp : discount.productId().compareTo(product.productId());
+    }
+
+    private static void appendJsonRow(StringBuilder row, CatalogProduct product, long price, int basisPoints,
+                                      long finalPrice, Currency currency) {
+        row.append("{\"store\":");
+        appendJsonString(row, product.storeName());
+        row.append(",\"productId\":");
+        appendJsonString(row, product.productId());
+        row.append(",\"name\":");
+        appendJsonString(row, product.productName());
+        row.append(",\"basePrice\":");
+        appendDecimal(row, price);
+        row.append(",\"discountPct\":");
+        appendPercentage(row, basisPoints);
+        row.append(",\"finalPrice\":");
+        appendDecimal(row, finalPrice);
+        row.append(",\"pricePerUnit\":");
+        if (product.quantityMilli() > 0) {
+            appendDecimal(row, Money.perUnit(finalPrice, product.quantityMilli()));
+        } else {
+            row.append("null");
+        }
+        row.append(",\"packageUnit\":");
+        appendJsonString(row, product.packageUnit());
+        row.append(",\"currency\":");
+        appendJsonString(row, currency != null ? currency.name() : null);
+        row.append("}\n");
+    }
+
+    private static void appendCsvRow(StringBuilder row, CatalogProduct product, long price, int basisPoints,
+                                     long finalPrice, Currency currency) {
+        appendCsvField(row, product.storeName());
+        row.append(',');
+        appendCsvField(row, product.productId());
+        row.append(',');
+        appendCsvField(row, product.productName());
+        row.append(',');
+        appendDecimal(row, price);
+        row.append(',');
+        appendPercentage(row, basisPoints);
+        row.append(',');
+        appendDecimal(row, finalPrice);
+        row.append(',');
+        if (product.quantityMilli() > 0) {
+            appendDecimal(row, Money.perUnit(finalPrice, product.quantityMilli()));
+        }
+        row.append(',');
+        appendCsvField(row, product.packageUnit());
+        row.append(',');
+        if (currency != null) {
+            row.append(currency.name());
+        }
+        row.append('\n');
+    }
+
+    /**
+     * Appends minor units as a decimal with two digits, without going through {@link java.math.BigDecimal}.
+     */
+    private static void appendDecimal(StringBuilder row, long minor) {
+        if (minor < 0) {
+            row.append('-');
+            minor = -minor;
+        }
+        long fraction = minor % 100;
+        row.append(minor / 100).append('.');
+        if (fraction < 10) {
+            row.append('0');
+        }
+        row.append(fraction);
+    }
+
+    /**
+     * Appends basis points the way {@link Money#toPercentage(int)} renders them: whole percentages without
+     * a fractional part.
+     */
+    private static void appendPercentage(StringBuilder row, int basisPoints) {
+        if (basisPoints % 100 == 0) {
+            row.append(basisPoints / 100);
+        } else {
+            appendDecimal(row, basisPoints);
+        }
+    }
+
+    private static void appendJsonString(StringBuilder row, String value) {
+        if (value == null) {
+            row.append("null");
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> row.append("\\\"");
+                case '\\' -> row.append("\\\\");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                case '\t' -> row.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        row.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        row.append(c);
+                    }
+                }
+            }
+        }
+        row.append('"');
+    }
+
+    private static void appendCsvField(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+}
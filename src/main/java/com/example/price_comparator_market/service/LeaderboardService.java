@@ -0,0 +1,150 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.CatalogIndex;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.catalog.CategoryLeaderboards;
+import com.example.price_comparator_market.catalog.PriceFeedDiff;
+import com.example.price_comparator_market.dto.LeaderboardDTO;
+import com.example.price_comparator_market.dto.LeaderboardEntryDTO;
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Timed("service.method")
+@RequiredArgsConstructor
+public class LeaderboardService implements CatalogIndex {
+
+    private final CatalogService catalogService;
+    private final CurrencyConversionService currencyConversionService;
+
+    private final CategoryLeaderboards leaderboards = new CategoryLeaderboards();
+
+    /** The snapshot the leaderboards were last updated with; guarded by {@code this}. */
+    private CatalogSnapshot indexed;
+
+    /**
+     * Ranks the products of stores new in a snapshot, or every product if the snapshot does not directly
+     * follow the last one, as at startup. The prices and discounts an import changed are applied from its
+     * {@link PriceChangesEvent}, published right after the snapshot. A product renamed or repackaged at the
+     * same price is not in those changes and keeps its entry until it is next repriced or discounted.
+     *
+     * @param snapshot the snapshot about to be published, or the current one at startup
+     */
+    @Override
+    public synchronized void build(CatalogSnapshot snapshot) {
+        LocalDate today = LocalDate.now();
+        if (leaderboards.version() < 0 || snapshot.version() != leaderboards.version() + 1) {
+            leaderboards.rebuild(snapshot, today, currencyConversionService.converter(today, Currency.RON));
+        } else {
+            leaderboards.apply(snapshot, List.of());
+            if (!today.equals(leaderboards.date())) {
+                leaderboards.rollTo(snapshot, today, currencyConversionService.converter(today, Currency.RON));
+            }
+        }
+        indexed = snapshot;
+    }
+
+    /**
+     * Re-ranks the products an import repriced, added, removed or discounted.
+     *
+     * @param event the import's changes
+     */
+    @EventListener
+    public synchronized void onPriceChanges(PriceChangesEvent event) {
+        if (indexed == null) {
+            return;
+        }
+        List<CategoryLeaderboards.Key> changed = new ArrayList<>();
+        for (PriceChangesEvent.ChangeSet changeSet : event.changeSets()) {
+            for (PriceFeedDiff.Change change : changeSet.changes()) {
+                changed.add(new CategoryLeaderboards.Key(changeSet.storeName(), change.productId()));
+            }
+        }
+        for (CatalogDiscount discount : event.newDiscounts()) {
+            changed.add(new CategoryLeaderboards.Key(discount.storeName(), discount.productId()));
+        }
+        // The snapshot last built is never older than the event's, and has the changed products' latest state.
+        leaderboards.apply(indexed, changed);
+    }
+
+    /**
+     * Returns the cheapest products per unit of each category, e.g. the cheapest milk per litre.
+     *
+     * <p>There is one leaderboard per category and unit, grams counted as kilograms and millilitres as
+     * litres. Prices are today's, in RON after the best active discount. Each leaderboard is read from
+     * {@link CategoryLeaderboards}, which keeps it sorted as imports change prices and as discounts start or
+     * expire, so a read costs {@code limit} entries whatever the size of the category.</p>
+     *
+     * @param category the category to rank, matched case-insensitively; {@code null} for every category
+     * @param unit     the unit to rank in, e.g. {@code l}; {@code null} for every unit of the category
+     * @param store    a store to restrict to; may be {@code null}
+     * @param brand    a brand to restrict to; may be {@code null}
+     * @param limit    the most products per leaderboard
+     * @return the non-empty leaderboards, by category then unit
+     */
+    public List<LeaderboardDTO> getLeaderboards(String category, String unit, String store, String brand,
+                                                int limit) {
+        syncWithCatalog();
+        List<String> categories = category != null ? List.of(category) : leaderboards.categories();
+        List<LeaderboardDTO> dtos = new ArrayList<>();
+        for (String c : categories) {
+            for (String u : unit != null ? List.of(unit) : leaderboards.units(c)) {
+                List<CategoryLeaderboards.Entry> top = leaderboards.top(c, u, store, brand, limit);
+                if (top.isEmpty()) {
+                    continue;
+                }
+                List<LeaderboardEntryDTO> entries = new ArrayList<>(top.size());
+                for (CategoryLeaderboards.Entry e : top) {
+                    entries.add(new LeaderboardEntryDTO(
+                            e.productId(),
+                            e.productName(),
+                            e.brand(),
+                            e.storeName(),
+                            Money.toQuantity(e.quantityMilli()),
+                            Money.toBigDecimal(e.priceMinor()),
+                            Money.toPercentage(e.basisPoints()),
+                            Money.toBigDecimal(e.perUnitMinor())
+                    ));
+                }
+                dtos.add(new LeaderboardDTO(top.getFirst().category(), top.getFirst().unit(), entries,
+                        Currency.RON));
+            }
+        }
+        return dtos;
+    }
+
+    /**
+     * Ranks the current catalog again if it is newer than the leaderboards, e.g. after a restore without
+     * indexes, and moves them to today on the first read of a new day.
+     */
+    private void syncWithCatalog() {
+        CatalogSnapshot catalog = catalogService.current();
+        LocalDate today = LocalDate.now();
+        if (leaderboards.version() < catalog.version() || !today.equals(leaderboards.date())) {
+            synchronized (this) {
+                catalog = catalogService.current();
+                // A newer snapshot than the current one is about to be published; never go back from it.
+                if (indexed != null && indexed.version() > catalog.version()) {
+                    catalog = indexed;
+                }
+                CurrencyConverter converter = currencyConversionService.converter(today, Currency.RON);
+                if (leaderboards.version() < catalog.version()) {
+                    leaderboards.rebuild(catalog, today, converter);
+                    indexed = catalog;
+                } else if (!today.equals(leaderboards.date())) {
+                    leaderboards.rollTo(indexed, today, converter);
+                }
+            }
+        }
+    }
+}
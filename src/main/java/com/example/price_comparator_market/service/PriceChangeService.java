@@ -0,0 +1,49 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.dto.PriceChangeDTO;
+import com.example.price_comparator_market.model.PriceChangeType;
+import com.example.price_comparator_market.repository.PriceChangeRepository;
+import com.example.price_comparator_market.repository.projection.PriceChangeView;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@Timed("service.method")
+@RequiredArgsConstructor
+public class PriceChangeService {
+
+    private final PriceChangeRepository priceChangeRepository;
+
+    /**
+     * Retrieves the price changes detected by imports, oldest first.
+     *
+     * <p>Every price file is diffed against its store's previous feed on import, and the products added,
+     * removed or repriced are stored as one row each, so this is a single indexed read however large the
+     * feeds are. Consumers keep the largest ID they have seen and pass it as {@code afterId} to fetch only
+     * what is new.</p>
+     *
+     * @param since   the earliest feed date to include
+     * @param store   optional store name, case-insensitive
+     * @param type    optional change type
+     * @param afterId only changes with a larger ID
+     * @param limit   the most changes to return
+     * @return the matching changes, by ID
+     */
+    public List<PriceChangeDTO> getPriceChanges(LocalDate since, String store, PriceChangeType type, long afterId,
+                                                int limit) {
+        return priceChangeRepository.findViewsSince(since, afterId, store, type, Limit.of(limit)).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    private PriceChangeDTO toDTO(PriceChangeView view) {
+        return new PriceChangeDTO(view.id(), view.storeName(), view.productId(), view.productName(),
+                view.changeType(), view.oldPrice(), view.oldCurrency(), view.newPrice(), view.newCurrency(),
+                view.previousFeedDate(), view.feedDate());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.PriceFeedDiff;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by {@link CsvImportService#importCsvFiles} once the imported files are visible in the catalog,
+ * with the change set of every price file that had a previous feed to be diffed against and the discounts
+ * the import added.
+ *
+ * @param catalogVersion the catalog version the changes are visible in
+ * @param changeSets     one per diffed price file, in import order
+ * @param newDiscounts   the discounts the previous catalog version did not have, in
+ *                       {@link com.example.price_comparator_market.catalog.CatalogSnapshot#DISCOUNT_ORDER}
+ */
+public record PriceChangesEvent(long catalogVersion, List<ChangeSet> changeSets,
+                                List<CatalogDiscount> newDiscounts) {
+
+    /**
+     * The changes of one store's price file against the store's previous feed.
+     */
+    public record ChangeSet(String storeName, LocalDate previousFeedDate, LocalDate feedDate,
+                            List<PriceFeedDiff.Change> changes) {
+    }
+}
@@ -1,25 +1,25 @@
 package com.example.price_comparator_market.service;
 
+import com.example.price_comparator_market.catalog.CatalogDiscount;
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
 import com.example.price_comparator_market.dto.PriceHistoryDTO;
 import com.example.price_comparator_market.dto.PriceHistoryResponseDTO;
-import com.example.price_comparator_market.model.Discount;
-import com.example.price_comparator_market.model.Product;
-import com.example.price_comparator_market.repository.DiscountRepository;
-import com.example.price_comparator_market.repository.ProductRepository;
+import com.example.price_comparator_market.pricing.Money;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class PriceHistoryService {
 
-    private final ProductRepository productRepository;
-    private final DiscountRepository discountRepository;
+    private final CatalogService catalogService;
 
     /**
      * Retrieves the historical pricing data for a given product, including the effects
@@ -29,7 +29,7 @@ public class PriceHistoryService {
      * <p>The method filters products by optional parameters such as store name, brand,
      * and category. For each matching product, it retrieves related discount intervals,
      * merges overlapping periods, and fills in non-discounted gaps to build a complete
-     * pricing timeline.</p>
+     * pricing timeline. All data comes from a single {@link CatalogSnapshot}.</p>
      *
      * @param productName the name of the product to search for
      * @param storeName   optional filter for the store name
@@ -44,28 +44,29 @@ public class PriceHistoryService {
             Optional<String> brand,
             Optional<String> category
     ) {
+        CatalogSnapshot catalog = catalogService.current();
 
-        List<Product> products = productRepository.findByProductName(productName).stream()
-                .filter(p -> storeName.map(s -> p.getStore().getName().equalsIgnoreCase(s)).orElse(true))
-                .filter(p -> brand.map(b -> p.getBrand().equalsIgnoreCase(b)).orElse(true))
-                .filter(p -> category.map(c -> p.getProductCategory().equalsIgnoreCase(c)).orElse(true))
+        List<CatalogProduct> products = catalog.findProductsByName(productName).stream()
+                .filter(p -> storeName.map(s -> p.storeName().equalsIgnoreCase(s)).orElse(true))
+                .filter(p -> brand.map(b -> p.brand().equalsIgnoreCase(b)).orElse(true))
+                .filter(p -> category.map(c -> p.productCategory().equalsIgnoreCase(c)).orElse(true))
                 .collect(Collectors.toList());
 
         if (products.isEmpty()) return null;
 
-        Product mainProduct = products.getFirst();
+        CatalogProduct mainProduct = products.getFirst();
 
         List<PriceHistoryDTO> intervals = new ArrayList<>();
 
-        for (Product product : products) {
-            List<Discount> discounts = discountRepository.findByProductIdAndStore(product.getProductId(), product.getStore());
+        for (CatalogProduct product : products) {
+            List<CatalogDiscount> discounts = catalog.findDiscounts(product.storeName(), product.productId());
 
             List<Interval> allIntervals = new ArrayList<>();
-            for (Discount discount : discounts) {
+            for (CatalogDiscount discount : discounts) {
                 allIntervals.add(new Interval(
-                        discount.getFromDate(),
-                        discount.getToDate(),
-                        discount.getPercentageOfDiscount()
+                        discount.fromDate(),
+                        discount.toDate(),
+                        discount.basisPoints()
                 ));
             }
 
@@ -80,7 +81,7 @@ public class PriceHistoryService {
             List<Interval> fullIntervals = new ArrayList<>();
 
             if (minDiscountDate != null && timelineStart.isBefore(minDiscountDate)) {
-                fullIntervals.add(new Interval(timelineStart, minDiscountDate.minusDays(1), BigDecimal.ZERO));
+                fullIntervals.add(new Interval(timelineStart, minDiscountDate.minusDays(1), 0));
             }
 
             for (int i = 0; i < merged.size(); i++) {
@@ -93,27 +94,26 @@ public class PriceHistoryService {
                         fullIntervals.add(new Interval(
                                 current.toDate.plusDays(1),
                                 next.fromDate.minusDays(1),
-                                BigDecimal.ZERO
+                                0
                         ));
                     }
                 }
             }
 
             if (maxDiscountDate != null && maxDiscountDate.isBefore(timelineEnd)) {
-                fullIntervals.add(new Interval(maxDiscountDate.plusDays(1), timelineEnd, BigDecimal.ZERO));
+                fullIntervals.add(new Interval(maxDiscountDate.plusDays(1), timelineEnd, 0));
             }
 
+            long basePrice = product.priceMinor();
             for (Interval interval : fullIntervals) {
-                BigDecimal basePrice = product.getPrice();
-                BigDecimal discount = interval.discountPercentage;
-                BigDecimal finalPrice = basePrice.subtract(basePrice.multiply(discount).divide(BigDecimal.valueOf(100)));
+                long finalPrice = Money.applyDiscount(basePrice, interval.discountBasisPoints);
                 intervals.add(new PriceHistoryDTO(
                         interval.fromDate,
                         interval.toDate,
-                        basePrice,
-                        finalPrice,
-                        discount,
-                        product.getStore().getName()
+                        Money.toBigDecimal(basePrice),
+                        Money.toBigDecimal(finalPrice),
+                        Money.toPercentage(interval.discountBasisPoints),
+                        product.storeName()
                 ));
             }
         }
@@ -121,39 +121,39 @@ public class PriceHistoryService {
         intervals.sort(Comparator.comparing(PriceHistoryDTO::getFromDate));
 
         PriceHistoryResponseDTO dto = new PriceHistoryResponseDTO();
-        dto.setProductId(mainProduct.getProductId());
-        dto.setProductName(mainProduct.getProductName());
-        dto.setBrand(mainProduct.getBrand());
-        dto.setCategory(mainProduct.getProductCategory());
-        dto.setPackageQuantity(mainProduct.getPackageQuantity());
-        dto.setPackageUnit(mainProduct.getPackageUnit());
+        dto.setProductId(mainProduct.productId());
+        dto.setProductName(mainProduct.productName());
+        dto.setBrand(mainProduct.brand());
+        dto.setCategory(mainProduct.productCategory());
+        dto.setPackageQuantity(mainProduct.packageQuantity());
+        dto.setPackageUnit(mainProduct.packageUnit());
         dto.setIntervals(intervals);
 
         return dto;
     }
 
     /**
-     * Represents a time interval during which a specific discount percentage is valid.
+     * Represents a time interval during which a specific discount, in basis points, is valid.
      *
      * <p>This class is used internally to model the duration and value of a discount,
      * with a start date, end date, and the associated discount percentage.</p>
      */
-    private static class Interval {
+    static class Interval {
         LocalDate fromDate;
         LocalDate toDate;
-        BigDecimal discountPercentage;
+        int discountBasisPoints;
 
         /**
-         * Constructs an {@code Interval} with the specified start and end dates, and discount percentage.
+         * Constructs an {@code Interval} with the specified start and end dates, and discount in basis points.
          *
          * @param from the start date of the interval (inclusive)
          * @param to the end date of the interval (inclusive)
-         * @param discount the discount percentage that applies during the interval
+         * @param discount the discount in basis points that applies during the interval
          */
-        Interval(LocalDate from, LocalDate to, BigDecimal discount) {
+        Interval(LocalDate from, LocalDate to, int discount) {
             this.fromDate = from;
             this.toDate = to;
-            this.discountPercentage = discount;
+            this.discountBasisPoints = discount;
         }
     }
 
@@ -169,7 +169,7 @@ public class PriceHistoryService {
      * @param intervals the list of original {@link Interval} objects, potentially overlapping
      * @return a list of merged {@link Interval} objects with no overlaps and consistent discounts
      */
-    private List<Interval> mergeIntervals(List<Interval> intervals) {
+    List<Interval> mergeIntervals(List<Interval> intervals) {
         if (intervals.isEmpty()) return Collections.emptyList();
 
         Set<LocalDate> datePoints = new HashSet<>();
@@ -188,12 +188,12 @@ public class PriceHistoryService {
 
         LocalDate currentStart = sortedDates.getFirst();
         LocalDate currentEnd = currentStart;
-        BigDecimal currentDiscount = getMaxDiscountForDay(currentStart, intervals);
+        int currentDiscount = getMaxDiscountForDay(currentStart, intervals);
 
         for (int i = 1; i < sortedDates.size(); i++) {
             LocalDate day = sortedDates.get(i);
-            BigDecimal discount = getMaxDiscountForDay(day, intervals);
-            if (discount.equals(currentDiscount) && day.equals(currentEnd.plusDays(1))) {
+            int discount = getMaxDiscountForDay(day, intervals);
+            if (discount == currentDiscount && day.equals(currentEnd.plusDays(1))) {
                 currentEnd = day;
             } else {
                 merged.add(new Interval(currentStart, currentEnd, currentDiscount));
@@ -211,18 +211,20 @@ public class PriceHistoryService {
      * checking all intervals that include that day.
      *
      * <p>This method filters the provided intervals to find those that cover the specified date,
-     * then returns the highest discount percentage among them. If no intervals apply,
-     * it returns {@code BigDecimal.ZERO}.</p>
+     * then returns the highest discount among them. If no intervals apply,
+     * it returns {@code 0}.</p>
      *
      * @param day the specific {@link LocalDate} for which to determine the maximum discount
      * @param intervals the list of {@link Interval} objects to search through
-     * @return the highest discount percentage found for the given day, or {@code BigDecimal.ZERO} if none apply
+     * @return the highest discount in basis points found for the given day, or {@code 0} if none apply
      */
-    private BigDecimal getMaxDiscountForDay(LocalDate day, List<Interval> intervals) {
-        return intervals.stream()
-                .filter(i -> (!day.isBefore(i.fromDate) && !day.isAfter(i.toDate)))
-                .map(i -> i.discountPercentage)
-                .max(Comparator.naturalOrder())
-                .orElse(BigDecimal.ZERO);
+    private int getMaxDiscountForDay(LocalDate day, List<Interval> intervals) {
+        int max = 0;
+        for (Interval i : intervals) {
+            if (!day.isBefore(i.fromDate) && !day.isAfter(i.toDate) && i.discountBasisPoints > max) {
+                max = i.discountBasisPoints;
+            }
+        }
+        return max;
     }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.catalog.StoreBasketCosts;
+import com.example.price_comparator_market.catalog.VersionedCache;
+import com.example.price_comparator_market.dto.DailyBasketCostDTO;
+import com.example.price_comparator_market.dto.PriceIndexReportDTO;
+import com.example.price_comparator_market.dto.StorePriceIndexDTO;
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@Timed("service.method")
+@RequiredArgsConstructor
+public class PriceIndexService {
+
+    private static final int MAX_CACHED_REPORTS = 64;
+
+    private final CatalogService catalogService;
+    private final CurrencyConversionService currencyConversionService;
+
+    private final VersionedCache<ReportKey, PriceIndexReportDTO> reports = VersionedCache.bounded(MAX_CACHED_REPORTS);
+
+    @Value("${price-index.basket:}")
+    private List<String> referenceBasket;
+
+    /**
+     * Computes the store price index: the daily cost of a reference basket at each store over a date range.
+     *
+     * <p>For every store and day, each basket item is priced at the store's cheapest product of that name
+     * after the discounts active that day, converted to RON with that day's rate. A store's index for a day
+     * is its cost relative to the cheapest store selling the whole basket, which scores 100; stores missing
+     * an item get a cost for the items they sell and no index.</p>
+     *
+     * <p>All stores are priced in one pass over the catalog with {@link StoreBasketCosts}, in parallel.
+     * Reports are cached per catalog version, basket and range, and dropped when an import publishes a new
+     * version.</p>
+     *
+     * @param basket the product names to price; {@code null} or empty uses {@code price-index.basket}
+     * @param from   the first day, inclusive
+     * @param to     the last day, inclusive
+     * @return the report, with stores by name
+     */
+    public PriceIndexReportDTO getReport(List<String> basket, LocalDate from, LocalDate to) {
+        List<String> products = basket != null && !basket.isEmpty() ? List.copyOf(basket)
+                : List.copyOf(referenceBasket);
+        CatalogSnapshot catalog = catalogService.current();
+        ReportKey key = new ReportKey(products, from, to);
+        PriceIndexReportDTO report = reports.get(catalog.version(), key);
+        if (report == null) {
+            report = compute(catalog, products, from, to);
+            reports.put(catalog.version(), key, report);
+        }
+        return report;
+    }
+
+    private PriceIndexReportDTO compute(CatalogSnapshot catalog, List<String> basket, LocalDate from,
+                                        LocalDate to) {
+        CurrencyConverter[] converters = from.datesUntil(to.plusDays(1))
+                .map(day -> currencyConversionService.converter(day, Currency.RON))
+                .toArray(CurrencyConverter[]::new);
+        List<StoreBasketCosts.StoreCosts> costs = StoreBasketCosts.compute(catalog, basket, from, converters);
+
+        long[] cheapestComplete = new long[converters.length];
+        Arrays.fill(cheapestComplete, Long.MAX_VALUE);
+        for (StoreBasketCosts.StoreCosts store : costs) {
+            if (store.complete()) {
+                for (int day = 0; day < converters.length; day++) {
+                    cheapestComplete[day] = Math.min(cheapestComplete[day], store.dailyCostMinor()[day]);
+                }
+            }
+        }
+
+        List<StorePriceIndexDTO> stores = new ArrayList<>(costs.size());
+        for (StoreBasketCosts.StoreCosts store : costs) {
+            List<DailyBasketCostDTO> days = new ArrayList<>(converters.length);
+            for (int day = 0; day < converters.length; day++) {
+                long cost = store.dailyCostMinor()[day];
+                BigDecimal index = store.complete() && cheapestComplete[day] > 0
+                        ? BigDecimal.valueOf(cost * 100).divide(BigDecimal.valueOf(cheapestComplete[day]), 2,
+                        RoundingMode.HALF_UP)
+                        : null;
+                days.add(new DailyBasketCostDTO(from.plusDays(day), Money.toBigDecimal(cost), index));
+            }
+            stores.add(new StorePriceIndexDTO(store.storeName(), store.missingProducts(), days));
+        }
+
+        PriceIndexReportDTO report = new PriceIndexReportDTO();
+        report.setFrom(from);
+        report.setTo(to);
+        report.setBasket(basket);
+        report.setCatalogVersion(catalog.version());
+        report.setStores(stores);
+        report.setCurrency(Currency.RON);
+        return report;
+    }
+
+    private record ReportKey(List<String> basket, LocalDate from, LocalDate to) {
+    }
+}
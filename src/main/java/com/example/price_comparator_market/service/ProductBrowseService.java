@@ -0,0 +1,144 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogIndex;
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.catalog.FacetIndex;
+import com.example.price_comparator_market.dto.FacetCountDTO;
+import com.example.price_comparator_market.dto.ProductBrowseDTO;
+import com.example.price_comparator_market.dto.ProductBrowseResponseDTO;
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.Money;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@Timed("service.method")
+@RequiredArgsConstructor
+public class ProductBrowseService implements CatalogIndex {
+
+    /** The most values returned per facet. */
+    private static final int FACET_VALUES = 50;
+
+    private final CatalogService catalogService;
+    private final CurrencyConversionService currencyConversionService;
+
+    private final AtomicReference<FacetIndex> index = new AtomicReference<>();
+
+    /**
+     * Indexes a snapshot with today's discounts and exchange rates. Builds are serialized so a lazy rebuild
+     * cannot overwrite the index of a newer snapshot.
+     *
+     * @param snapshot the snapshot about to be published, or the current one at startup
+     */
+    @Override
+    public synchronized void build(CatalogSnapshot snapshot) {
+        LocalDate today = LocalDate.now();
+        index.set(FacetIndex.build(snapshot, today, currencyConversionService.converter(today, Currency.RON)));
+    }
+
+    /**
+     * Browses the catalog by facets, returning one page of matching products and the facet counts of all of
+     * them.
+     *
+     * <p>Products are filtered by store, brand, category and package unit (any of the given values of a facet,
+     * all of the given facets), by whether a discount is active today, and by final price. Results are sorted
+     * by final price, cheapest first. Prices are today's, in RON after the best active discount.</p>
+     *
+     * <p>The facet counts tell, for each value, how many of the matching products carry it, so they narrow as
+     * filters are added. They come from the {@link FacetIndex} of the current catalog, which is rebuilt with
+     * every catalog version and on the first request of a new day.</p>
+     *
+     * @param facets     selected values per facet; a facet without values is not filtered
+     * @param discounted {@code true} to keep only products with an active discount
+     * @param minPrice   the lowest final price in RON, inclusive; may be {@code null}
+     * @param maxPrice   the highest final price in RON, inclusive; may be {@code null}
+     * @param page       the zero-based page number
+     * @param size       the page size
+     * @return the page, the total number of matches and the facet counts
+     */
+    public ProductBrowseResponseDTO browse(Map<FacetIndex.Facet, List<String>> facets, boolean discounted,
+                                           BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+        FacetIndex facetIndex = current();
+        RoaringBitmap match = facetIndex.match(new FacetIndex.Query(facets, discounted,
+                minPrice != null ? Money.toMinor(minPrice) : null,
+                maxPrice != null ? Money.toMinor(maxPrice) : null));
+
+        List<CatalogProduct> products = facetIndex.catalog().products();
+        List<ProductBrowseDTO> dtos = new ArrayList<>();
+        for (int id : facetIndex.page(match, (int) Math.min((long) page * size, Integer.MAX_VALUE), size)) {
+            CatalogProduct p = products.get(facetIndex.row(id));
+            dtos.add(new ProductBrowseDTO(
+                    p.productId(),
+                    p.productName(),
+                    p.brand(),
+                    p.productCategory(),
+                    p.storeName(),
+                    p.packageQuantity(),
+                    p.packageUnit(),
+                    Money.toPercentage(facetIndex.discountBasisPoints(id)),
+                    Money.toBigDecimal(facetIndex.price(id))
+            ));
+        }
+
+        Map<String, List<FacetCountDTO>> counts = new LinkedHashMap<>();
+        facetIndex.counts(match, FACET_VALUES).forEach((facet, values) -> counts.put(name(facet),
+                values.stream().map(count -> new FacetCountDTO(count.value(), count.count())).toList()));
+        counts.put("discounted", List.of(new FacetCountDTO("true", facetIndex.discountedCount(match))));
+
+        ProductBrowseResponseDTO response = new ProductBrowseResponseDTO();
+        response.setTotal(match.getCardinality());
+        response.setPage(page);
+        response.setSize(size);
+        response.setProducts(dtos);
+        response.setFacets(counts);
+        response.setCurrency(Currency.RON);
+        return response;
+    }
+
+    /**
+     * @return the index of the current catalog for today, rebuilding it if the catalog was restored without
+     *         indexes or the day has changed since it was built
+     */
+    private FacetIndex current() {
+        FacetIndex facetIndex = index.get();
+        if (isStale(facetIndex)) {
+            synchronized (this) {
+                facetIndex = index.get();
+                if (isStale(facetIndex)) {
+                    CatalogSnapshot catalog = catalogService.current();
+                    build(facetIndex != null && facetIndex.catalog().version() > catalog.version()
+                            ? facetIndex.catalog() : catalog);
+                    facetIndex = index.get();
+                }
+            }
+        }
+        return facetIndex;
+    }
+
+    private boolean isStale(FacetIndex facetIndex) {
+        // A newer index than the current catalog is one built for a snapshot about to be published.
+        return facetIndex == null
+                || facetIndex.catalog().version() < catalogService.current().version()
+                || !facetIndex.date().equals(LocalDate.now());
+    }
+
+    private static String name(FacetIndex.Facet facet) {
+        return switch (facet) {
+            case STORE -> "store";
+            case BRAND -> "brand";
+            case CATEGORY -> "category";
+            case PACKAGE_UNIT -> "packageUnit";
+        };
+    }
+}
@@ -1,30 +1,39 @@
 package com.example.price_comparator_market.service;
 
+import com.example.price_comparator_market.catalog.CatalogProduct;
 import com.example.price_comparator_market.dto.ProductDTO;
 import com.example.price_comparator_market.exception.ProductNotFoundException;
-import com.example.price_comparator_market.model.Product;
 import com.example.price_comparator_market.repository.ProductRepository;
+import com.example.price_comparator_market.repository.projection.ProductView;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository productRepository;
 
+    private final CatalogService catalogService;
+
     /**
-     * Retrieves all products from the repository and converts them to DTOs.
+     * Retrieves all products of the current catalog snapshot and converts them to DTOs.
      * <p>
-     * This method fetches all {@code Product} entities, maps each to a {@code ProductDTO},
-     * and returns them as a list.
+     * This method reads the products of the current {@code CatalogSnapshot}, without querying the database,
+     * maps each to a {@code ProductDTO}, and returns them as a list ordered by store and product ID.
+     * With {@code asOf}, the products and base prices are those of that day, from {@link CatalogService#asOf}.
      *
+     * @param asOf the day to list the catalog of, or {@code null} for today
      * @return a list of all products represented as {@code ProductDTO}s
      */
-    public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll().stream()
+    public List<ProductDTO> getAllProducts(LocalDate asOf) {
+        return catalogService.asOf(asOf).products().stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -33,28 +42,45 @@ public class ProductService {
      * Retrieves a product by its ID and converts it to a DTO.
      * <p>
      * If a product with the specified ID exists in the repository, it is returned
-     * as a {@code ProductDTO}. Otherwise, a {@code RuntimeException} is thrown.
+     * as a {@code ProductDTO}, selected as a {@code ProductView} projection in a read-only transaction.
+     * Otherwise, a {@code RuntimeException} is thrown.
      *
      * @param id the ID of the product to retrieve
      * @return the {@code ProductDTO} corresponding to the given ID
      * @throws ProductNotFoundException if no product is found with the specified ID
      */
-    public ProductDTO getProductById(String id) {
-        return productRepository.findById(id)
+    @Transactional(readOnly = true)
+    public ProductDTO getProductById(Long id) {
+        return productRepository.findViewById(id)
                 .map(this::mapToDTO)
                 .orElseThrow(() -> new ProductNotFoundException(String.format("Product not found with id: %s", id)));
     }
 
-    private ProductDTO mapToDTO(Product product) {
+    private ProductDTO mapToDTO(CatalogProduct product) {
+        ProductDTO dto = new ProductDTO();
+        dto.setProductId(product.productId());
+        dto.setProductName(product.productName());
+        dto.setProductCategory(product.productCategory());
+        dto.setBrand(product.brand());
+        dto.setPackageQuantity(product.packageQuantity());
+        dto.setPackageUnit(product.packageUnit());
+        dto.setPrice(product.price());
+        dto.setCurrency(product.currency());
+        dto.setStoreName(product.storeName());
+        return dto;
+    }
+
+    private ProductDTO mapToDTO(ProductView product) {
         ProductDTO dto = new ProductDTO();
-        dto.setProductId(product.getProductId());
-        dto.setProductName(product.getProductName());
-        dto.setProductCategory(product.getProductCategory());
-        dto.setBrand(product.getBrand());
-        dto.setPackageQuantity(product.getPackageQuantity());
-        dto.setPackageUnit(product.getPackageUnit());
-        dto.setPrice(product.getPrice());
-        dto.setCurrency(product.getCurrency());
+        dto.setProductId(product.productId());
+        dto.setProductName(product.productName());
+        dto.setProductCategory(product.productCategory());
+        dto.setBrand(product.brand());
+        dto.setPackageQuantity(product.packageQuantity());
+        dto.setPackageUnit(product.packageUnit());
+        dto.setPrice(product.price());
+        dto.setCurrency(product.currency());
+        dto.setStoreName(product.storeName());
         return dto;
     }
 }
\ No newline at end of file
@@ -1,27 +1,28 @@
 package com.example.price_comparator_market.service;
 
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
 import com.example.price_comparator_market.dto.ProductSubstituteDTO;
 import com.example.price_comparator_market.dto.ProductSubstitutesResponseDTO;
-import com.example.price_comparator_market.model.Discount;
-import com.example.price_comparator_market.model.Product;
-import com.example.price_comparator_market.repository.DiscountRepository;
-import com.example.price_comparator_market.repository.ProductRepository;
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.Money;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class ProductSubstituteService {
 
-    private final ProductRepository productRepository;
-    private final DiscountRepository discountRepository;
+    private final CatalogService catalogService;
+    private final CurrencyConversionService currencyConversionService;
 
     /**
      * Finds all product variants (substitutes) with the given product name and calculates pricing details,
@@ -31,46 +32,44 @@ public class ProductSubstituteService {
      * calculates the final price after the discount (if applicable), and computes the price per unit both before and
      * after the discount. It then marks the best value substitute.</p>
      *
+     * <p>All prices are converted to the requested currency with today's exchange rates before
+     * they are compared, so substitutes priced in different currencies are ranked fairly.</p>
+     *
+     * <p>With {@code asOf}, products, prices, discounts and exchange rates are those of that day, from
+     * {@link CatalogService#asOf}.</p>
+     *
      * @param productName the name of the product for which substitutes are being retrieved
+     * @param currency    the currency to express and compare prices in; {@code null} defaults to RON
+     * @param asOf        the day to evaluate, or {@code null} for today
      * @return a {@link ProductSubstitutesResponseDTO} containing a list of {@link ProductSubstituteDTO},
      *         sorted by final price per unit in ascending order, with the best value(s) flagged
      */
-    public ProductSubstitutesResponseDTO getProductsByProductName(String productName) {
-        LocalDate today = LocalDate.now();
+    public ProductSubstitutesResponseDTO getProductsByProductName(String productName, Currency currency,
+                                                                  LocalDate asOf) {
+        CatalogSnapshot catalog = catalogService.asOf(asOf);
+        LocalDate today = asOf != null ? asOf : LocalDate.now();
+        CurrencyConverter converter = currencyConversionService.converter(today, currency);
 
-        List<Product> products = productRepository.findAll().stream()
-                .filter(p -> p.getProductName().equalsIgnoreCase(productName))
-                .collect(Collectors.toList());
-
-        List<ProductSubstituteDTO> dtos = products.stream()
+        List<ProductSubstituteDTO> dtos = catalog.findProductsByName(productName).stream()
                 .map(p -> {
-                    BigDecimal pricePerUnit = p.getPrice().divide(p.getPackageQuantity(), 2, RoundingMode.HALF_UP);
-
-                    List<Discount> discounts = discountRepository.findByProductIdAndStore(p.getProductId(), p.getStore());
-                    Discount activeDiscount = discounts.stream()
-                            .filter(d -> !today.isBefore(d.getFromDate()) && !today.isAfter(d.getToDate()))
-                            .max(Comparator.comparing(Discount::getPercentageOfDiscount))
-                            .orElse(null);
+                    long price = converter.convert(p.priceMinor(), p.currency());
+                    long quantity = p.quantityMilli();
 
-                    BigDecimal discountPercentage = activeDiscount != null ? activeDiscount.getPercentageOfDiscount() : BigDecimal.ZERO;
-                    BigDecimal finalPrice = p.getPrice();
-                    if (activeDiscount != null) {
-                        finalPrice = finalPrice.subtract(finalPrice.multiply(discountPercentage).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
-                    }
-                    BigDecimal finalPricePerUnit = finalPrice.divide(p.getPackageQuantity(), 2, RoundingMode.HALF_UP);
+                    int discountBasisPoints = catalog.activeDiscountBasisPoints(p, today);
+                    long finalPrice = Money.applyDiscount(price, discountBasisPoints);
 
                     return new ProductSubstituteDTO(
-                            p.getProductId(),
-                            p.getProductName(),
-                            p.getBrand(),
-                            p.getStore().getName(),
-                            p.getPackageQuantity(),
-                            p.getPackageUnit(),
-                            p.getPrice().setScale(2, RoundingMode.HALF_UP),
-                            pricePerUnit,
-                            discountPercentage,
-                            finalPrice.setScale(2, RoundingMode.HALF_UP),
-                            finalPricePerUnit,
+                            p.productId(),
+                            p.productName(),
+                            p.brand(),
+                            p.storeName(),
+                            p.packageQuantity(),
+                            p.packageUnit(),
+                            Money.toBigDecimal(price),
+                            Money.toBigDecimal(Money.perUnit(price, quantity)),
+                            Money.toPercentage(discountBasisPoints),
+                            Money.toBigDecimal(finalPrice),
+                            Money.toBigDecimal(Money.perUnit(finalPrice, quantity)),
                             false
                     );
                 })
@@ -88,6 +87,7 @@ public class ProductSubstituteService {
 
         ProductSubstitutesResponseDTO response = new ProductSubstitutesResponseDTO();
         response.setProducts(dtos);
+        response.setCurrency(converter.target());
         return response;
     }
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package com.example.price_comparator_market.service;
 
+import com.example.price_comparator_market.catalog.CatalogStore;
 import com.example.price_comparator_market.dto.StoreDTO;
 import com.example.price_comparator_market.exception.StoreNotFoundException;
-import com.example.price_comparator_market.model.Store;
-import com.example.price_comparator_market.repository.StoreRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -11,21 +11,22 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class StoreService {
 
-    private final StoreRepository storeRepository;
+    private final CatalogService catalogService;
 
     /**
-     * Retrieves all stores from the repository and converts them to DTOs.
+     * Retrieves all stores of the current catalog snapshot and converts them to DTOs.
      * <p>
-     * This method fetches all {@code Store} entities, maps each to a {@code StoreDTO},
-     * and returns them as a list.
+     * This method reads the stores of the current {@code CatalogSnapshot}, maps each to a {@code StoreDTO},
+     * and returns them as a list ordered by name.
      *
      * @return a list of all {@code StoreDTO}s
      */
     public List<StoreDTO> getAllStores() {
-        return storeRepository.findAll().stream()
+        return catalogService.current().stores().stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -33,7 +34,7 @@ public class StoreService {
     /**
      * Retrieves a store by its ID and converts it to a DTO.
      * <p>
-     * If a store with the specified ID exists, it is returned as a {@code StoreDTO}.
+     * If a store with the specified ID exists in the current catalog snapshot, it is returned as a {@code StoreDTO}.
      * Otherwise, a {@code StoreNotFoundException} is thrown.
      *
      * @param id the ID of the store to retrieve
@@ -41,15 +42,17 @@ public class StoreService {
      * @throws StoreNotFoundException if no store is found with the specified ID
      */
     public StoreDTO getStoreById(Long id) {
-        Store store = storeRepository.findById(id)
+        return catalogService.current().stores().stream()
+                .filter(store -> store.id().equals(id))
+                .findFirst()
+                .map(this::mapToDTO)
                 .orElseThrow(() -> new StoreNotFoundException("Store not found with id: " + id));
-        return mapToDTO(store);
     }
 
-    private StoreDTO mapToDTO(Store store) {
+    private StoreDTO mapToDTO(CatalogStore store) {
         StoreDTO dto = new StoreDTO();
-        dto.setId(store.getId());
-        dto.setName(store.getName());
+        dto.setId(store.id());
+        dto.setName(store.name());
         return dto;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,227 @@
+package com.example.price_comparator_market;
+
+import com.example.price_comparator_market.config.QueryCounter;
+import com.example.price_comparator_market.dto.AlertRequestDTO;
+import com.example.price_comparator_market.dto.BasketItemDTO;
+import com.example.price_comparator_market.dto.BasketRequestDTO;
+import com.example.price_comparator_market.model.Alert;
+import com.example.price_comparator_market.repository.AlertRepository;
+import com.example.price_comparator_market.service.AlertService;
+import com.example.price_comparator_market.service.CatalogService;
+import com.example.price_comparator_market.service.CsvImportService;
+import com.example.price_comparator_market.service.CurrencyConversionService;
+import com.example.price_comparator_market.service.ExportService;
+import com.example.price_comparator_market.synthetic.MarketDataGenerator;
+import com.example.price_comparator_market.synthetic.MarketDataSpec;
+import com.example.price_comparator_market.synthetic.MarketDataset;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count regression tests for every endpoint and every service entry point that is not behind one.
+ *
+ * <p>Each scenario runs inside a {@link QueryCounter} scope, first on a generated catalog and again after a
+ * ten times larger one has been imported over it, and must stay within a fixed number of SQL statements and
+ * loaded entities at both sizes. A per-row lookup makes the counts grow with the catalog and fails here
+ * rather than in production. Bounds are upper limits: lower them when a query is removed.</p>
+ */
+@SpringBootTest(properties = {
+        "db_url=jdbc:h2:mem:query-count;DB_CLOSE_DELAY=-1",
+        "db_username=sa",
+        "db_password=",
+        "catalog.file=",
+        "startup.async=false"
+})
+@AutoConfigureMockMvc
+class QueryCountRegressionTest {
+
+    private static final int ALERTS = 20;
+
+    private static final MarketDataSpec SMALL = MarketDataSpec.defaults()
+            .withSkus(300)
+            .withAlerts(ALERTS)
+            .withBaskets(1);
+
+    private static final MarketDataSpec LARGE = SMALL.withSkus(3_000);
+
+    private static final LocalDate DAY = SMALL.startDate().plusDays(3);
+
+    private static Path dir;
+
+    private static MarketDataset small;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private CsvImportService csvImportService;
+
+    @Autowired
+    private CurrencyConversionService currencyConversionService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @DynamicPropertySource
+    static void catalog(DynamicPropertyRegistry registry) throws IOException {
+        dir = Files.createTempDirectory("query-count");
+        small = new MarketDataGenerator(SMALL).write(dir.resolve("small"));
+        registry.add("catalog.csv-dir", () -> small.dir().toString());
+    }
+
+    @AfterAll
+    static void deleteCatalog() {
+        FileSystemUtils.deleteRecursively(dir.toFile());
+    }
+
+    private record Scenario(String name, long maxStatements, long maxEntities, Call call) {
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    @Test
+    void queryCountsDoNotDependOnCatalogSize() throws Exception {
+        SoftAssertions softly = new SoftAssertions();
+        check(softly, "small catalog");
+
+        MarketDataset large = new MarketDataGenerator(LARGE).write(dir.resolve("large"));
+        currencyConversionService.loadRates(large.ratesFile());
+        csvImportService.importCsvFiles(large.importOrder());
+        check(softly, "large catalog");
+
+        softly.assertAll();
+    }
+
+    private void check(SoftAssertions softly, String size) throws Exception {
+        alertRepository.deleteAllInBatch();
+        List<Alert> alerts = new ArrayList<>();
+        for (AlertRequestDTO request : small.alerts()) {
+            Alert alert = new Alert();
+            alert.setProductName(request.getProductName());
+            alert.setTargetPrice(request.getTargetPrice());
+            alerts.add(alert);
+        }
+        alertRepository.saveAll(alerts);
+
+        for (Scenario scenario : scenarios()) {
+            QueryCounter.Counts counts = QueryCounter.start();
+            try {
+                scenario.call().run();
+            } finally {
+                QueryCounter.stop(counts);
+            }
+            softly.assertThat(counts.statements())
+                    .as("SQL statements of %s on the %s", scenario.name(), size)
+                    .isLessThanOrEqualTo(scenario.maxStatements());
+            softly.assertThat(counts.entities())
+                    .as("entities loaded by %s on the %s", scenario.name(), size)
+                    .isLessThanOrEqualTo(scenario.maxEntities());
+        }
+    }
+
+    private List<Scenario> scenarios() {
+        long productId = jdbcTemplate.queryForObject("select min(id) from product", Long.class);
+        long discountId = jdbcTemplate.queryForObject("select min(id) from discount", Long.class);
+        long storeId = jdbcTemplate.queryForObject("select min(id) from store", Long.class);
+        BasketRequestDTO basket = small.baskets().getFirst();
+        String productName = basket.getProducts().getFirst();
+        BasketRequestDTO quantityBasket = new BasketRequestDTO();
+        quantityBasket.setItems(basket.getProducts().stream()
+                .map(name -> new BasketItemDTO(name, BigDecimal.valueOf(2), "kg"))
+                .toList());
+
+        return List.of(
+                new Scenario("GET /api/products", 0, 0, () -> perform(get("/api/products"))),
+                new Scenario("GET /api/products/{id}", 1, 0, () -> perform(get("/api/products/" + productId))),
+                new Scenario("GET /api/products/substitutes", 0, 0, () -> perform(get("/api/products/substitutes")
+                        .param("productName", productName))),
+                // One select of the price changes after the day, then the rolled-back catalog is cached.
+                new Scenario("GET /api/products/substitutes?asOf", 1, 0, () -> perform(
+                        get("/api/products/substitutes")
+                        .param("productName", productName)
+                        .param("asOf", DAY.toString()))),
+                new Scenario("GET /api/products/browse", 0, 0, () -> perform(get("/api/products/browse")
+                        .param("discounted", "true")
+                        .param("maxPrice", "20"))),
+                new Scenario("GET /api/leaderboards", 0, 0, () -> perform(get("/api/leaderboards"))),
+                new Scenario("GET /api/discounts", 0, 0, () -> perform(get("/api/discounts"))),
+                new Scenario("GET /api/discounts/{id}", 1, 0, () -> perform(get("/api/discounts/" + discountId))),
+                new Scenario("GET /api/discounts/best", 0, 0, () -> perform(get("/api/discounts/best")
+                        .header("date", DAY.toString()))),
+                new Scenario("GET /api/discounts/new", 0, 0, () -> perform(get("/api/discounts/new"))),
+                new Scenario("GET /api/stores", 0, 0, () -> perform(get("/api/stores"))),
+                new Scenario("GET /api/stores/{id}", 0, 0, () -> perform(get("/api/stores/" + storeId))),
+                new Scenario("GET /api/price-history", 0, 0, () -> perform(get("/api/price-history")
+                        .param("productName", productName))),
+                new Scenario("GET /api/reports/price-index", 0, 0, () -> perform(get("/api/reports/price-index")
+                        .param("from", SMALL.startDate().toString())
+                        .param("to", DAY.toString())
+                        .param("product", productName))),
+                new Scenario("GET /api/price-changes", 1, 0, () -> perform(get("/api/price-changes")
+                        .param("since", SMALL.startDate().toString()))),
+                new Scenario("POST /api/basket/optimize", 0, 0, () -> perform(post("/api/basket/optimize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(basket)))),
+                new Scenario("POST /api/basket/optimize with items", 0, 0, () -> perform(
+                        post("/api/basket/optimize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(quantityBasket)))),
+                new Scenario("effective price export", 0, 0, () -> exportService
+                        .effectivePrices(DAY, null, ExportService.Format.NDJSON)
+                        .writeTo(OutputStream.nullOutputStream())),
+                // One select, then the triggered alerts are flushed as a JDBC batch.
+                new Scenario("alert job", 2, ALERTS, alertService::processAlerts),
+                new Scenario("POST /api/alerts", 1, 0, () -> perform(post("/api/alerts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(small.alerts().getFirst())))),
+                new Scenario("catalog refresh", 3, 0, catalogService::refresh)
+        );
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Round-trip tests for {@link CatalogFile}: a mapped snapshot must answer every lookup exactly like
+ * the in-heap snapshot it was written from.
+ */
+class CatalogFileTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    private static final CatalogFile.Source SOURCE = new CatalogFile.Source(42, 3, 3, 0, MAY_1);
+
+    private static CatalogSnapshot heapSnapshot() {
+        return CatalogSnapshot.of(7,
+                List.of(new CatalogStore(2L, "profi"), new CatalogStore(1L, "lidl"), new CatalogStore(3L, "empty")),
+                List.of(
+                        new CatalogProduct("profi", "P001", "lapte zuzu", "lactate", "Zuzu", 1_000, "l", 1_020,
+                                Currency.RON),
+                        new CatalogProduct("lidl", "P001", "Lapte Zuzu", "lactate", "Zuzu", 1_000, "l", 999,
+                                Currency.RON),
+                        new CatalogProduct("lidl", "P002", "ouă mărimea M", "ouă", null, 10_000, "buc", 210,
+                                Currency.EUR)
+                ),
+                List.of(
+                        new CatalogDiscount("lidl", "P001", "Lapte Zuzu", "Zuzu", 1_000, "l", "lactate",
+                                MAY_1, MAY_1.plusDays(6), 1_000),
+                        new CatalogDiscount("lidl", "P001", "Lapte Zuzu", "Zuzu", 1_000, "l", "lactate",
+                                MAY_1.plusDays(2), MAY_1.plusDays(3), 1_250),
+                        new CatalogDiscount("profi", "P001", "lapte zuzu", "Zuzu", 1_000, "l", "lactate",
+                                MAY_1, MAY_1, 500)
+                ));
+    }
+
+    @Test
+    void mappedSnapshotMatchesHeapSnapshot(@TempDir Path dir) throws IOException {
+        CatalogSnapshot heap = heapSnapshot();
+        Path file = dir.resolve("catalog.bin");
+
+        CatalogFile.write(heap, SOURCE, file);
+        CatalogSnapshot mapped = CatalogFile.map(file);
+
+        assertThat(mapped.version()).isEqualTo(7);
+        assertThat(mapped.stores()).containsExactlyElementsOf(heap.stores());
+        assertThat(mapped.products()).containsExactlyElementsOf(heap.products());
+        assertThat(mapped.discounts()).containsExactlyElementsOf(heap.discounts());
+        assertThat(mapped.findProductsByName("LAPTE ZUZU")).containsExactlyElementsOf(heap.findProductsByName("lapte zuzu"));
+        assertThat(mapped.findProduct("lidl", "P002")).isEqualTo(heap.findProduct("lidl", "P002"));
+        assertThat(mapped.findProduct("empty", "P001")).isEmpty();
+        assertThat(mapped.findDiscounts("lidl", "P001")).hasSize(2);
+
+        CatalogProduct milk = mapped.findProduct("lidl", "P001").orElseThrow();
+        assertThat(mapped.activeDiscountBasisPoints(milk, MAY_1.plusDays(2))).isEqualTo(1_250);
+        assertThat(mapped.activeDiscountBasisPoints(milk, MAY_1.plusDays(5))).isEqualTo(1_000);
+        assertThat(mapped.activeDiscountBasisPoints(milk, MAY_1.plusDays(7))).isZero();
+    }
+
+    @Test
+    void rewritingKeepsPreviouslyMappedSnapshotReadable(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        CatalogFile.write(heapSnapshot(), SOURCE, file);
+        CatalogSnapshot old = CatalogFile.map(file);
+
+        CatalogFile.write(CatalogSnapshot.of(8, List.of(), List.of(), List.of()), SOURCE, file);
+
+        assertThat(old.products()).hasSize(3);
+        assertThat(CatalogFile.map(file).products()).isEmpty();
+    }
+
+    @Test
+    void recordsTheSourceInTheHeader(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("catalog.bin");
+
+        CatalogFile.write(heapSnapshot(), SOURCE, file);
+        assertThat(CatalogFile.source(file)).isEqualTo(SOURCE);
+
+        CatalogFile.Source empty = new CatalogFile.Source(0, 0, 0, 0, null);
+        CatalogFile.write(CatalogSnapshot.of(8, List.of(), List.of(), List.of()), empty, file);
+        assertThat(CatalogFile.source(file)).isEqualTo(empty);
+    }
+
+    @Test
+    void rejectsFilesThatAreNotCatalogs(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("catalog.bin"), new byte[64]);
+
+        assertThatThrownBy(() -> CatalogFile.map(file)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> CatalogFile.source(file)).isInstanceOf(IOException.class);
+    }
+}
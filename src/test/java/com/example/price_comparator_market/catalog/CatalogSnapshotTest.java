@@ -0,0 +1,56 @@
+package com.example.price_comparator_market.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CatalogSnapshot#discountsAddedSince}: the discounts a newer snapshot added, by merge-join.
+ */
+class CatalogSnapshotTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    private static final LocalDate MAY_7 = LocalDate.of(2025, 5, 7);
+
+    private static CatalogDiscount discount(String store, String id, LocalDate from, int basisPoints) {
+        return new CatalogDiscount(store, id, id, "Brand", 1_000, "buc", "lactate", from, MAY_7, basisPoints);
+    }
+
+    private static CatalogSnapshot snapshot(long version, CatalogDiscount... discounts) {
+        return CatalogSnapshot.of(version, List.of(), List.of(), List.of(discounts));
+    }
+
+    @Test
+    void reportsNewAndChangedDiscountsOnly() {
+        CatalogSnapshot previous = snapshot(1,
+                discount("lidl", "P1", MAY_1, 1_000),
+                discount("lidl", "P2", MAY_1, 2_000),
+                discount("profi", "P1", MAY_1, 1_500));
+        CatalogSnapshot next = snapshot(2,
+                discount("profi", "P1", MAY_1, 1_500),
+                discount("lidl", "P2", MAY_1, 2_500),
+                discount("lidl", "P1", MAY_1, 1_000),
+                discount("lidl", "P1", MAY_1.plusDays(1), 1_000),
+                discount("kaufland", "P9", MAY_1, 500));
+
+        assertThat(next.discountsAddedSince(previous)).containsExactly(
+                discount("kaufland", "P9", MAY_1, 500),
+                discount("lidl", "P1", MAY_1.plusDays(1), 1_000),
+                discount("lidl", "P2", MAY_1, 2_500));
+    }
+
+    @Test
+    void reportsNothingForTheSameDiscountsAndEverythingAgainstAnEmptySnapshot() {
+        CatalogSnapshot catalog = snapshot(1, discount("lidl", "P1", MAY_1, 1_000),
+                discount("profi", "P1", MAY_1, 1_500));
+
+        assertThat(snapshot(2, discount("profi", "P1", MAY_1, 1_500), discount("lidl", "P1", MAY_1, 1_000))
+                .discountsAddedSince(catalog)).isEmpty();
+        assertThat(catalog.discountsAddedSince(CatalogSnapshot.empty())).hasSize(2);
+        assertThat(CatalogSnapshot.empty().discountsAddedSince(catalog)).isEmpty();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.ExchangeRateTable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.price_comparator_market.catalog.CatalogFixture.catalog;
+import static com.example.price_comparator_market.catalog.CatalogFixture.discount;
+import static com.example.price_comparator_market.catalog.CatalogFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CategoryLeaderboards}: boards updated incrementally must rank exactly like boards built
+ * from scratch for the same snapshot and day.
+ */
+class CategoryLeaderboardsTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    private static final CurrencyConverter RON = ExchangeRateTable.identity().converter(MAY_1, Currency.RON);
+
+    private static CatalogFixture.ProductRow milk(String store, String id, String brand, long quantityMilli,
+                                                  String unit, long priceMinor) {
+        return product(store, id).category("lactate").brand(brand).quantity(quantityMilli, unit).price(priceMinor);
+    }
+
+    private static List<String> ranking(CategoryLeaderboards leaderboards, String store, String brand) {
+        return leaderboards.top("LACTATE", "l", store, brand, 10).stream()
+                .map(entry -> entry.storeName() + "/" + entry.productId())
+                .toList();
+    }
+
+    private static void assertMatchesAFreshBuild(CategoryLeaderboards incremental, CatalogSnapshot catalog,
+                                                 LocalDate day, CurrencyConverter converter) {
+        CategoryLeaderboards fresh = new CategoryLeaderboards();
+        fresh.rebuild(catalog, day, converter);
+        for (String store : new String[]{null, "lidl", "profi"}) {
+            for (String brand : new String[]{null, "Zuzu", "Napolact", "Pilos"}) {
+                assertThat(ranking(incremental, store, brand))
+                        .as("%s on %s, store %s, brand %s", catalog.version(), day, store, brand)
+                        .isEqualTo(ranking(fresh, store, brand));
+            }
+        }
+    }
+
+    @Test
+    void ranksByFinalPricePerNormalizedUnit() {
+        CategoryLeaderboards leaderboards = new CategoryLeaderboards();
+        leaderboards.rebuild(catalog(1)
+                .add(
+                        milk("lidl", "P001", "Zuzu", 1_000, "l", 1_000),
+                        milk("lidl", "P002", "Napolact", 500_000, "ml", 450),
+                        milk("profi", "P001", "Zuzu", 2_000, "l", 1_900)
+                )
+                .add(discount("lidl", "P001").on(MAY_1).basisPoints(2_000))
+                .build(), MAY_1, RON);
+
+        assertThat(ranking(leaderboards, null, null)).containsExactly("lidl/P001", "lidl/P002", "profi/P001");
+        assertThat(ranking(leaderboards, "Profi", null)).containsExactly("profi/P001");
+        assertThat(ranking(leaderboards, null, "zuzu")).containsExactly("lidl/P001", "profi/P001");
+        assertThat(leaderboards.top("lactate", "l", null, null, 1).getFirst().perUnitMinor()).isEqualTo(800);
+        assertThat(leaderboards.units("lactate")).containsExactly("l");
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFreshBuild() {
+        CatalogSnapshot before = catalog(1)
+                .add(
+                        milk("lidl", "P001", "Zuzu", 1_000, "l", 1_000),
+                        milk("lidl", "P002", "Napolact", 1_000, "l", 900),
+                        milk("profi", "P001", "Zuzu", 1_000, "l", 950)
+                )
+                .add(discount("lidl", "P001").on(MAY_1.plusDays(1)).basisPoints(3_000))
+                .build();
+        CatalogSnapshot after = catalog(2)
+                .add(
+                        milk("lidl", "P001", "Zuzu", 1_000, "l", 1_000),
+                        milk("profi", "P001", "Zuzu", 1_000, "l", 850),
+                        milk("profi", "P003", "Pilos", 1_000, "l", 700)
+                )
+                .add(discount("lidl", "P001").on(MAY_1.plusDays(1)).basisPoints(3_000))
+                .build();
+
+        CategoryLeaderboards incremental = new CategoryLeaderboards();
+        incremental.rebuild(before, MAY_1, RON);
+        assertThat(ranking(incremental, null, null)).containsExactly("lidl/P002", "profi/P001", "lidl/P001");
+
+        // The discount starts, then an import reprices, drops and adds products, then the discount expires.
+        incremental.rollTo(before, MAY_1.plusDays(1), RON);
+        assertMatchesAFreshBuild(incremental, before, MAY_1.plusDays(1), RON);
+
+        incremental.apply(after, List.of(new CategoryLeaderboards.Key("lidl", "P002"),
+                new CategoryLeaderboards.Key("profi", "P001"), new CategoryLeaderboards.Key("profi", "P003")));
+        assertThat(incremental.version()).isEqualTo(2);
+        assertMatchesAFreshBuild(incremental, after, MAY_1.plusDays(1), RON);
+
+        incremental.rollTo(after, MAY_1.plusDays(2), RON);
+        assertMatchesAFreshBuild(incremental, after, MAY_1.plusDays(2), RON);
+        assertThat(ranking(incremental, null, null)).containsExactly("profi/P003", "profi/P001", "lidl/P001");
+        assertThat(ranking(incremental, null, "napolact")).isEmpty();
+    }
+
+    @Test
+    void ranksAStoresFirstFeedWithoutAChangeSet() {
+        CatalogSnapshot before = catalog(1).add(milk("lidl", "P001", "Zuzu", 1_000, "l", 1_000)).build();
+        CatalogSnapshot after = catalog(2)
+                .add(
+                        milk("lidl", "P001", "Zuzu", 1_000, "l", 1_000),
+                        milk("profi", "P001", "Zuzu", 1_000, "l", 950)
+                )
+                .add(discount("profi", "P001").on(MAY_1.plusDays(1)).basisPoints(1_000))
+                .build();
+
+        CategoryLeaderboards incremental = new CategoryLeaderboards();
+        incremental.rebuild(before, MAY_1, RON);
+        incremental.apply(after, List.of());
+
+        assertThat(ranking(incremental, null, null)).containsExactly("profi/P001", "lidl/P001");
+        // The new store's discounts are indexed too, so the day it starts moves its product.
+        incremental.rollTo(after, MAY_1.plusDays(1), RON);
+        assertMatchesAFreshBuild(incremental, after, MAY_1.plusDays(1), RON);
+    }
+
+    @Test
+    void reranksForeignPricedProductsWhenTheirRateChanges() {
+        ExchangeRateTable rates = ExchangeRateTable.of(Map.of(
+                MAY_1, Map.of(Currency.EUR, new BigDecimal("5.00")),
+                MAY_1.plusDays(1), Map.of(Currency.EUR, new BigDecimal("4.00"))));
+        CatalogSnapshot catalog = catalog(1)
+                .add(
+                        milk("lidl", "P001", "Zuzu", 1_000, "l", 450),
+                        milk("profi", "P001", "Zuzu", 1_000, "l", 100).price(100, Currency.EUR)
+                )
+                .build();
+
+        CategoryLeaderboards incremental = new CategoryLeaderboards();
+        incremental.rebuild(catalog, MAY_1, rates.converter(MAY_1, Currency.RON));
+        assertThat(ranking(incremental, null, null)).containsExactly("lidl/P001", "profi/P001");
+
+        CurrencyConverter nextDay = rates.converter(MAY_1.plusDays(1), Currency.RON);
+        incremental.rollTo(catalog, MAY_1.plusDays(1), nextDay);
+
+        assertThat(ranking(incremental, null, null)).containsExactly("profi/P001", "lidl/P001");
+        assertMatchesAFreshBuild(incremental, catalog, MAY_1.plusDays(1), nextDay);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.ExchangeRateTable;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.price_comparator_market.catalog.CatalogFixture.catalog;
+import static com.example.price_comparator_market.catalog.CatalogFixture.discount;
+import static com.example.price_comparator_market.catalog.CatalogFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FacetIndex}: price-ordered IDs, inclusive price ranges, OR-within/AND-across facet
+ * queries, pagination and facet counts.
+ */
+class FacetIndexTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    private static final CurrencyConverter RON = ExchangeRateTable.identity().converter(MAY_1, Currency.RON);
+
+    /**
+     * Effective prices on May 1st: profi/P2 300, kaufland/P2 500, lidl/P2 500, lidl/P1 800 (1000 less 20%),
+     * profi/P1 900, kaufland/P1 1200.
+     */
+    private static final FacetIndex INDEX = FacetIndex.build(catalog(1)
+            .add(
+                    product("kaufland", "P1").category("lactate").brand("Napolact").quantity(1_000, "l")
+                            .price(1_200),
+                    product("kaufland", "P2").category("panificatie").brand("Vel Pitar").quantity(1_000, "g")
+                            .price(500),
+                    product("lidl", "P1").category("lactate").brand("Zuzu").quantity(1_000, "l").price(1_000),
+                    product("lidl", "P2").category("lactate").brand("Danone").quantity(1_000, "kg").price(500),
+                    product("profi", "P1").category("Lactate").brand("zuzu").quantity(1_000, "l").price(900),
+                    product("profi", "P2").category("panificatie").brand("Vel Pitar").quantity(1_000, "g")
+                            .price(300)
+            )
+            .add(discount("lidl", "P1").on(MAY_1).basisPoints(2_000))
+            .build(), MAY_1, RON);
+
+    private static List<String> products(int... ids) {
+        return Arrays.stream(ids)
+                .mapToObj(id -> INDEX.catalog().products().get(INDEX.row(id)))
+                .map(product -> product.storeName() + "/" + product.productId())
+                .toList();
+    }
+
+    private static List<String> match(Map<FacetIndex.Facet, Set<String>> values, boolean discountedOnly,
+                                      Long minPrice, Long maxPrice) {
+        return products(INDEX.match(new FacetIndex.Query(values, discountedOnly, minPrice, maxPrice)).toArray());
+    }
+
+    private static Map<FacetIndex.Facet, Set<String>> facets(FacetIndex.Facet facet, Set<String> selected) {
+        Map<FacetIndex.Facet, Set<String>> values = new EnumMap<>(FacetIndex.Facet.class);
+        values.put(facet, selected);
+        return values;
+    }
+
+    @Test
+    void numbersProductsByEffectivePriceThenRow() {
+        assertThat(products(0, 1, 2, 3, 4, 5)).containsExactly("profi/P2", "kaufland/P2", "lidl/P2", "lidl/P1",
+                "profi/P1", "kaufland/P1");
+        assertThat(new long[]{INDEX.price(0), INDEX.price(1), INDEX.price(2), INDEX.price(3), INDEX.price(4),
+                INDEX.price(5)}).containsExactly(300, 500, 500, 800, 900, 1_200);
+        assertThat(INDEX.discountBasisPoints(3)).isEqualTo(2_000);
+        assertThat(INDEX.discountBasisPoints(2)).isZero();
+    }
+
+    @Test
+    void priceBoundsAreInclusive() {
+        assertThat(match(null, false, 500L, 800L)).containsExactly("kaufland/P2", "lidl/P2", "lidl/P1");
+        assertThat(match(null, false, 501L, 899L)).containsExactly("lidl/P1");
+        assertThat(match(null, false, 900L, Long.MAX_VALUE)).containsExactly("profi/P1", "kaufland/P1");
+        assertThat(match(null, false, null, 300L)).containsExactly("profi/P2");
+        assertThat(match(null, false, 1_201L, null)).isEmpty();
+        assertThat(match(null, false, Long.MAX_VALUE, null)).isEmpty();
+        assertThat(match(null, false, 800L, 500L)).isEmpty();
+        assertThat(match(null, false, null, null)).hasSize(6);
+    }
+
+    @Test
+    void valuesAreOredWithinAFacetAndFacetsAnded() {
+        Map<FacetIndex.Facet, Set<String>> values = facets(FacetIndex.Facet.STORE, Set.of("LIDL", "profi"));
+        values.put(FacetIndex.Facet.CATEGORY, Set.of("lactate"));
+
+        assertThat(match(values, false, null, null)).containsExactly("lidl/P2", "lidl/P1", "profi/P1");
+        assertThat(match(values, true, null, null)).containsExactly("lidl/P1");
+        assertThat(match(values, false, 600L, null)).containsExactly("lidl/P1", "profi/P1");
+        assertThat(match(facets(FacetIndex.Facet.BRAND, Set.of("ZUZU")), false, null, null))
+                .containsExactly("lidl/P1", "profi/P1");
+        assertThat(match(facets(FacetIndex.Facet.STORE, Set.of("mega")), false, null, null)).isEmpty();
+        assertThat(match(facets(FacetIndex.Facet.STORE, Set.of()), false, null, null)).hasSize(6);
+    }
+
+    @Test
+    void pagesSkipToTheOffsetAndStopAtTheCardinality() {
+        RoaringBitmap all = INDEX.match(new FacetIndex.Query(null, false, null, null));
+        RoaringBitmap lidl = INDEX.match(new FacetIndex.Query(facets(FacetIndex.Facet.STORE, Set.of("lidl")),
+                false, null, null));
+
+        assertThat(INDEX.page(all, 0, 2)).containsExactly(0, 1);
+        assertThat(INDEX.page(all, 4, 10)).containsExactly(4, 5);
+        assertThat(INDEX.page(lidl, 1, 5)).containsExactly(3);
+        assertThat(INDEX.page(all, 6, 1)).isEmpty();
+        assertThat(INDEX.page(all, 7, 1)).isEmpty();
+        assertThat(INDEX.page(all, 0, 0)).isEmpty();
+    }
+
+    @Test
+    void countsAreByCountThenValueAndLimited() {
+        RoaringBitmap all = INDEX.match(new FacetIndex.Query(null, false, null, null));
+        Map<FacetIndex.Facet, List<FacetIndex.Count>> counts = INDEX.counts(all, 3);
+
+        // Brand values keep the spelling of their cheapest product: lidl's "Zuzu" before profi's "zuzu".
+        assertThat(counts.get(FacetIndex.Facet.BRAND)).containsExactly(new FacetIndex.Count("Vel Pitar", 2),
+                new FacetIndex.Count("Zuzu", 2), new FacetIndex.Count("Danone", 1));
+        assertThat(counts.get(FacetIndex.Facet.CATEGORY)).containsExactly(new FacetIndex.Count("lactate", 4),
+                new FacetIndex.Count("panificatie", 2));
+        assertThat(INDEX.counts(all, 1).get(FacetIndex.Facet.STORE))
+                .containsExactly(new FacetIndex.Count("kaufland", 2));
+        assertThat(INDEX.discountedCount(all)).isEqualTo(1);
+
+        RoaringBitmap cheap = INDEX.match(new FacetIndex.Query(null, false, null, 500L));
+        assertThat(INDEX.counts(cheap, 10).get(FacetIndex.Facet.PACKAGE_UNIT))
+                .containsExactly(new FacetIndex.Count("g", 2), new FacetIndex.Count("kg", 1));
+        assertThat(INDEX.discountedCount(cheap)).isZero();
+    }
+}
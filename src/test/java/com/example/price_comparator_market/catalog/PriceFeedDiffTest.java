@@ -0,0 +1,55 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.PriceChangeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PriceFeedDiff}.
+ */
+class PriceFeedDiffTest {
+
+    private static PriceFeedDiff.Row row(String id, long priceMinor, Currency currency) {
+        return new PriceFeedDiff.Row(id, "produs " + id, priceMinor, currency);
+    }
+
+    private static List<String> describe(List<PriceFeedDiff.Change> changes) {
+        return changes.stream().map(change -> change.productId() + " " + change.type()).toList();
+    }
+
+    @Test
+    void reportsEveryKindOfChangeByProductId() {
+        List<PriceFeedDiff.Row> previous = new ArrayList<>(List.of(
+                row("P005", 500, Currency.RON),
+                row("P001", 1_000, Currency.RON),
+                row("P002", 1_000, Currency.RON),
+                row("P003", 1_000, Currency.RON),
+                row("P004", 1_000, Currency.RON)));
+        List<PriceFeedDiff.Row> next = new ArrayList<>(List.of(
+                row("P006", 700, Currency.RON),
+                row("P004", 200, Currency.EUR),
+                row("P003", 900, Currency.RON),
+                row("P002", 1_100, Currency.RON),
+                row("P001", 1_000, Currency.RON)));
+
+        assertThat(describe(PriceFeedDiff.diff(previous, next))).containsExactly(
+                "P002 INCREASED", "P003 DECREASED", "P004 CURRENCY_CHANGED", "P005 REMOVED", "P006 ADDED");
+    }
+
+    @Test
+    void lastRowOfADuplicatedProductIdWins() {
+        List<PriceFeedDiff.Row> previous = new ArrayList<>(List.of(
+                row("P001", 1_000, Currency.RON),
+                row("P001", 800, Currency.RON)));
+        List<PriceFeedDiff.Row> next = new ArrayList<>(List.of(
+                row("P001", 700, Currency.RON),
+                row("P001", 800, Currency.RON)));
+
+        assertThat(PriceFeedDiff.diff(previous, next)).isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.PriceChangeType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.price_comparator_market.catalog.CatalogFixture.catalog;
+import static com.example.price_comparator_market.catalog.CatalogFixture.discount;
+import static com.example.price_comparator_market.catalog.CatalogFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PriceRollback}.
+ */
+class PriceRollbackTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    private static final LocalDate MAY_8 = LocalDate.of(2025, 5, 8);
+
+    private static final LocalDate MAY_15 = LocalDate.of(2025, 5, 15);
+
+    private static CatalogFixture.ProductRow milk(String id, long priceMinor) {
+        return product("lidl", id).name("lapte " + id).price(priceMinor);
+    }
+
+    private static PriceRollback.Change change(String id, LocalDate feedDate, PriceChangeType type,
+                                               long oldPriceMinor) {
+        return new PriceRollback.Change("lidl", id, feedDate, type, oldPriceMinor, Currency.RON);
+    }
+
+    private static List<String> prices(CatalogSnapshot catalog) {
+        return catalog.products().stream().map(p -> p.productId() + "=" + p.priceMinor()).toList();
+    }
+
+    @Test
+    void restoresThePriceBeforeTheFirstLaterChange() {
+        CatalogSnapshot catalog = catalog(3)
+                .add(milk("P001", 900), milk("P002", 1_200), milk("P003", 500), milk("P004", 700))
+                .build();
+        List<PriceRollback.Change> changes = List.of(
+                change("P001", MAY_8, PriceChangeType.DECREASED, 1_000),
+                change("P001", MAY_15, PriceChangeType.DECREASED, 950),
+                change("P003", MAY_15, PriceChangeType.ADDED, 0),
+                change("P002", MAY_8, PriceChangeType.INCREASED, 1_100));
+
+        assertThat(prices(PriceRollback.asOf(catalog, MAY_1, new ArrayList<>(changes))))
+                .containsExactly("P001=1000", "P002=1100", "P004=700");
+        assertThat(prices(PriceRollback.asOf(catalog, MAY_8, new ArrayList<>(changes))))
+                .containsExactly("P001=950", "P002=1200", "P004=700");
+        assertThat(PriceRollback.asOf(catalog, MAY_15, new ArrayList<>(changes))).isSameAs(catalog);
+        assertThat(PriceRollback.asOf(catalog, MAY_1, new ArrayList<>(changes)).version()).isEqualTo(3);
+    }
+
+    @Test
+    void answersLookupsFromAViewOverTheSharedRows() {
+        CatalogFixture.ProductRow profiRow = product("profi", "P001").name("lapte P001").price(800);
+        CatalogSnapshot catalog = catalog(3)
+                .add(milk("P001", 900), milk("P002", 1_200), milk("P003", 500), profiRow)
+                .add(discount("profi", "P001").of(profiRow).between(MAY_1, MAY_15).basisPoints(1_000))
+                .build();
+        CatalogProduct profiMilk = profiRow.build();
+        List<PriceRollback.Change> changes = new ArrayList<>(List.of(
+                change("P001", MAY_8, PriceChangeType.ADDED, 0),
+                change("P002", MAY_8, PriceChangeType.DECREASED, 1_300),
+                new PriceRollback.Change("profi", "P009", MAY_8, PriceChangeType.REMOVED, 100, Currency.RON)));
+
+        CatalogSnapshot may1 = PriceRollback.asOf(catalog, MAY_1, changes);
+
+        assertThat(prices(may1)).containsExactly("P002=1300", "P003=500", "P001=800");
+        assertThat(may1.products().get(1)).isSameAs(catalog.products().get(2));
+        assertThat(may1.findProduct("lidl", "P001")).isEmpty();
+        assertThat(may1.findProduct("lidl", "P002").orElseThrow().priceMinor()).isEqualTo(1_300);
+        assertThat(may1.findProduct("profi", "P001")).contains(profiMilk);
+        assertThat(may1.findProductsByName("LAPTE P001")).containsExactly(profiMilk);
+        assertThat(may1.findProductsByName("lapte P002")).extracting(CatalogProduct::priceMinor)
+                .containsExactly(1_300L);
+        assertThat(may1.activeDiscountBasisPoints(MAY_8)).containsExactly(0, 0, 1_000);
+    }
+}
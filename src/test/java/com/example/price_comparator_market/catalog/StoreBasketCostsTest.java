@@ -0,0 +1,109 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.pricing.CurrencyConverter;
+import com.example.price_comparator_market.pricing.ExchangeRateTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.price_comparator_market.catalog.CatalogFixture.catalog;
+import static com.example.price_comparator_market.catalog.CatalogFixture.discount;
+import static com.example.price_comparator_market.catalog.CatalogFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StoreBasketCosts}: the cheapest product per item and day, discounts clipped to the range,
+ * repeated items and missing products.
+ */
+class StoreBasketCostsTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    private static final ExchangeRateTable IDENTITY = ExchangeRateTable.identity();
+
+    /**
+     * Three days from May 1st:
+     * <ul>
+     *     <li>kaufland: lapte 1100, with discounts that end before or start after the range; paine 250, 20% off
+     *     on May 3rd only;</li>
+     *     <li>lidl: lapte P1 1000, 50% off from May 2nd past the range, beats lapte P2 900 from then on; paine
+     *     300, 10% off from April into May 1st; a discounted product outside the basket and an orphan
+     *     discount;</li>
+     *     <li>profi: lapte 800 and no paine.</li>
+     * </ul>
+     */
+    private static final CatalogSnapshot CATALOG = catalog(1)
+            .add(
+                    product("kaufland", "K1").name("LAPTE").price(1_100),
+                    product("kaufland", "K2").name("paine").price(250),
+                    product("lidl", "P1").name("lapte").price(1_000),
+                    product("lidl", "P2").name("lapte").price(900),
+                    product("lidl", "P3").name("paine").price(300),
+                    product("lidl", "P4").name("oua").price(1_500),
+                    product("profi", "R1").name("lapte").price(800)
+            )
+            .add(
+                    discount("kaufland", "K1").between(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30))
+                            .basisPoints(9_000),
+                    discount("kaufland", "K1").between(LocalDate.of(2025, 5, 4), LocalDate.of(2025, 5, 10))
+                            .basisPoints(9_000),
+                    discount("kaufland", "K2").on(LocalDate.of(2025, 5, 3)).basisPoints(2_000),
+                    discount("lidl", "P0").between(MAY_1, LocalDate.of(2025, 5, 3)).basisPoints(9_000),
+                    discount("lidl", "P1").between(LocalDate.of(2025, 5, 2), LocalDate.of(2025, 5, 10))
+                            .basisPoints(5_000),
+                    discount("lidl", "P3").between(LocalDate.of(2025, 4, 20), MAY_1).basisPoints(1_000),
+                    discount("lidl", "P4").between(MAY_1, LocalDate.of(2025, 5, 3)).basisPoints(9_000)
+            )
+            .build();
+
+    private static final List<String> BASKET = List.of("lapte", "paine", "Lapte");
+
+    private static CurrencyConverter[] converters(int days) {
+        CurrencyConverter[] converters = new CurrencyConverter[days];
+        for (int day = 0; day < days; day++) {
+            converters[day] = IDENTITY.converter(MAY_1.plusDays(day), Currency.RON);
+        }
+        return converters;
+    }
+
+    @Test
+    void pricesEachItemAtTheCheapestProductOfEachDay() {
+        List<StoreBasketCosts.StoreCosts> costs = StoreBasketCosts.compute(CATALOG, BASKET, MAY_1, converters(3));
+
+        assertThat(costs).extracting(StoreBasketCosts.StoreCosts::storeName)
+                .containsExactly("kaufland", "lidl", "profi");
+
+        // Two lapte at 1100 each day; paine 250, then 200 on the one discounted day.
+        assertThat(costs.get(0).dailyCostMinor()).containsExactly(2_450, 2_450, 2_400);
+        assertThat(costs.get(0).complete()).isTrue();
+
+        // Lapte P2 at 900 on May 1st, discounted P1 at 500 after; paine 270 on May 1st only.
+        assertThat(costs.get(1).dailyCostMinor()).containsExactly(2_070, 1_300, 1_300);
+        assertThat(costs.get(1).missingProducts()).isEmpty();
+
+        assertThat(costs.get(2).dailyCostMinor()).containsExactly(1_600, 1_600, 1_600);
+        assertThat(costs.get(2).missingProducts()).containsExactly("paine");
+        assertThat(costs.get(2).complete()).isFalse();
+    }
+
+    @Test
+    void clipsDiscountsStartingBeforeTheRange() {
+        List<StoreBasketCosts.StoreCosts> costs = StoreBasketCosts.compute(CATALOG, List.of("lapte"),
+                LocalDate.of(2025, 5, 3), new CurrencyConverter[]{IDENTITY.converter(MAY_1, Currency.RON)});
+
+        assertThat(costs.get(1).dailyCostMinor()).containsExactly(500);
+    }
+
+    @Test
+    void reportsEveryItemMissingFromAStore() {
+        List<StoreBasketCosts.StoreCosts> costs = StoreBasketCosts.compute(CATALOG,
+                List.of("oua", "zahar", "Oua"), MAY_1, converters(1));
+
+        assertThat(costs.get(0).missingProducts()).containsExactly("oua", "zahar");
+        assertThat(costs.get(0).dailyCostMinor()).containsExactly(0);
+        assertThat(costs.get(1).missingProducts()).containsExactly("zahar");
+        assertThat(costs.get(1).dailyCostMinor()).containsExactly(300);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.price_comparator_market.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link VersionedCache}: generations per catalog version and the two size policies.
+ */
+class VersionedCacheTest {
+
+    @Test
+    void newerVersionDropsEntriesAndStaleWritesAreNotKept() {
+        VersionedCache<String, String> cache = VersionedCache.bounded(8);
+        cache.put(1, "a", "v1");
+        assertThat(cache.get(1, "a")).isEqualTo("v1");
+
+        assertThat(cache.get(2, "a")).isNull();
+        cache.put(1, "a", "stale");
+        assertThat(cache.get(2, "a")).isNull();
+        assertThat(cache.get(1, "a")).isNull();
+    }
+
+    @Test
+    void boundedCacheKeepsTheFirstEntries() {
+        VersionedCache<String, String> cache = VersionedCache.bounded(2);
+        cache.put(1, "a", "1");
+        cache.put(1, "b", "2");
+        cache.put(1, "c", "3");
+
+        assertThat(cache.get(1, "a")).isEqualTo("1");
+        assertThat(cache.get(1, "b")).isEqualTo("2");
+        assertThat(cache.get(1, "c")).isNull();
+    }
+
+    @Test
+    void lruCacheEvictsTheLeastRecentlyUsed() {
+        VersionedCache<String, String> cache = VersionedCache.lru(2);
+        cache.put(1, "a", "1");
+        cache.put(1, "b", "2");
+        cache.get(1, "a");
+        cache.put(1, "c", "3");
+
+        assertThat(cache.get(1, "a")).isEqualTo("1");
+        assertThat(cache.get(1, "b")).isNull();
+        assertThat(cache.get(1, "c")).isEqualTo("3");
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.price_comparator_market.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AdaptiveLimiter}: admission, the bounded queue, and how the limit follows latency.
+ */
+class AdaptiveLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void rejectsWhenQueueIsFull() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1, 0, 2.0);
+
+        assertThat(limiter.acquire(0)).isEqualTo(AdaptiveLimiter.Outcome.ADMITTED);
+        assertThat(limiter.acquire(MILLI)).isEqualTo(AdaptiveLimiter.Outcome.QUEUE_FULL);
+    }
+
+    @Test
+    void timesOutWhileWaiting() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1, 1, 2.0);
+
+        assertThat(limiter.acquire(0)).isEqualTo(AdaptiveLimiter.Outcome.ADMITTED);
+        assertThat(limiter.acquire(MILLI)).isEqualTo(AdaptiveLimiter.Outcome.TIMED_OUT);
+        assertThat(limiter.waiting()).isZero();
+    }
+
+    @Test
+    void admitsWaiterWhenSlotIsFreed() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1, 1, 2.0);
+        assertThat(limiter.acquire(0)).isEqualTo(AdaptiveLimiter.Outcome.ADMITTED);
+
+        CompletableFuture<AdaptiveLimiter.Outcome> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(TimeUnit.SECONDS.toNanos(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiter.waiting() == 0) {
+            Thread.onSpinWait();
+        }
+        limiter.release(MILLI);
+
+        assertThat(waiter.get(10, TimeUnit.SECONDS)).isEqualTo(AdaptiveLimiter.Outcome.ADMITTED);
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void growsWhileSaturatedAndShrinksWhenLatencyRises() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 16, 0, 2.0);
+
+        for (int i = 0; i < 100; i++) {
+            fill(limiter);
+            drain(limiter, MILLI);
+        }
+        assertThat(limiter.limit()).isEqualTo(16);
+
+        // Few enough samples that the no-load latency stays at 1 ms rather than being re-measured.
+        for (int i = 0; i < 20; i++) {
+            fill(limiter);
+            drain(limiter, 20 * MILLI);
+        }
+        assertThat(limiter.limit()).isEqualTo(1);
+    }
+
+    private static void fill(AdaptiveLimiter limiter) throws InterruptedException {
+        while (limiter.acquire(0) == AdaptiveLimiter.Outcome.ADMITTED) {
+            // Takes every slot, so the next release sees the limit reached.
+        }
+    }
+
+    private static void drain(AdaptiveLimiter limiter, long latencyNanos) {
+        while (limiter.inFlight() > 0) {
+            limiter.release(latencyNanos);
+        }
+    }
+}
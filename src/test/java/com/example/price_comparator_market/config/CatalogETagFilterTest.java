@@ -0,0 +1,168 @@
+package com.example.price_comparator_market.config;
+
+import com.example.price_comparator_market.service.CatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.price_comparator_market.catalog.CatalogFixture.catalog;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Tests for {@link CatalogETagFilter}: 304 for a matching {@code If-None-Match}, one ETag and cached body per
+ * catalog version and variant, and gzip only when the client accepts it.
+ */
+class CatalogETagFilterTest {
+
+    private final CatalogService catalogService = mock(CatalogService.class);
+
+    private final CountingController controller = new CountingController();
+
+    private MockMvc mockMvc;
+
+    /**
+     * Stands in for the catalog controllers and counts how often the filter lets a request through.
+     */
+    @RestController
+    static class CountingController {
+
+        private int calls;
+
+        @GetMapping("/api/products")
+        List<String> products() {
+            calls++;
+            return List.of("lapte", "paine");
+        }
+
+        @GetMapping("/api/discounts/best")
+        List<String> bestDiscounts(@RequestHeader(value = "date", required = false) String date,
+                                   @RequestParam(required = false) String asOf) {
+            calls++;
+            return List.of(asOf != null ? asOf : String.valueOf(date));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(catalogService.current()).thenReturn(catalog(1).build());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(new CatalogETagFilter(catalogService))
+                .build();
+    }
+
+    private MockHttpServletResponse perform(String path, String... headers) throws Exception {
+        var request = get(path);
+        for (int i = 0; i < headers.length; i += 2) {
+            request.header(headers[i], headers[i + 1]);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWith304AndRepeatsFromTheCachedBody() throws Exception {
+        MockHttpServletResponse first = perform("/api/products");
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getContentAsString()).isEqualTo("[\"lapte\",\"paine\"]");
+        assertThat(etag).endsWith("-1\"");
+        assertThat(first.getHeader(HttpHeaders.VARY)).isEqualTo("Accept, Accept-Encoding");
+
+        MockHttpServletResponse repeat = perform("/api/products");
+        assertThat(repeat.getStatus()).isEqualTo(200);
+        assertThat(repeat.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(repeat.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+
+        MockHttpServletResponse notModified = perform("/api/products", HttpHeaders.IF_NONE_MATCH, etag);
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+        assertThat(notModified.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+
+        assertThat(controller.calls).isEqualTo(1);
+    }
+
+    @Test
+    void changesTheETagWhenANewCatalogVersionIsPublished() throws Exception {
+        String etag = perform("/api/products").getHeader(HttpHeaders.ETAG);
+
+        when(catalogService.current()).thenReturn(catalog(2).build());
+        MockHttpServletResponse changed = perform("/api/products", HttpHeaders.IF_NONE_MATCH, etag);
+
+        assertThat(changed.getStatus()).isEqualTo(200);
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag).endsWith("-2\"");
+        assertThat(controller.calls).isEqualTo(2);
+        assertThat(perform("/api/products", HttpHeaders.IF_NONE_MATCH, changed.getHeader(HttpHeaders.ETAG))
+                .getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void servesCborUnderItsOwnETag() throws Exception {
+        String json = perform("/api/products").getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse cbor = perform("/api/products", HttpHeaders.ACCEPT, "application/cbor");
+
+        assertThat(cbor.getStatus()).isEqualTo(200);
+        assertThat(cbor.getContentType()).startsWith("application/cbor");
+        assertThat(cbor.getHeader(HttpHeaders.ETAG)).isNotEqualTo(json).endsWith("-1-cbor\"");
+        assertThat(perform("/api/products", HttpHeaders.ACCEPT, "application/cbor", HttpHeaders.IF_NONE_MATCH,
+                json).getStatus()).isEqualTo(200);
+        assertThat(controller.calls).isEqualTo(2);
+    }
+
+    @Test
+    void compressesOnlyWhenTheClientAcceptsGzip() throws Exception {
+        String identity = perform("/api/products").getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse gzip = perform("/api/products", HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+        assertThat(gzip.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeader(HttpHeaders.ETAG)).isNotEqualTo(identity).endsWith("-1-gzip\"");
+        assertThat(gunzip(gzip.getContentAsByteArray())).isEqualTo("[\"lapte\",\"paine\"]");
+        // Both encodings are served from the one cached body.
+        assertThat(controller.calls).isEqualTo(1);
+
+        for (String refused : List.of("gzip;q=0", "deflate", "*;q=0.5, gzip; Q=0.0", "identity")) {
+            MockHttpServletResponse plain = perform("/api/products", HttpHeaders.ACCEPT_ENCODING, refused);
+            assertThat(plain.getHeader(HttpHeaders.CONTENT_ENCODING)).as(refused).isNull();
+            assertThat(plain.getHeader(HttpHeaders.ETAG)).as(refused).isEqualTo(identity);
+        }
+        assertThat(perform("/api/products", HttpHeaders.ACCEPT_ENCODING, "br;q=1, *;q=0.1")
+                .getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void keysBestDiscountsOnTheEffectiveDate() throws Exception {
+        MockHttpServletResponse header = perform("/api/discounts/best", "date", "2025-05-08");
+        MockHttpServletResponse asOf = perform("/api/discounts/best?asOf=2025-05-08");
+        MockHttpServletResponse otherDay = perform("/api/discounts/best", "date", "2025-05-09");
+
+        assertThat(header.getHeader(HttpHeaders.ETAG)).endsWith("-1-2025-05-08\"")
+                .isEqualTo(asOf.getHeader(HttpHeaders.ETAG));
+        assertThat(otherDay.getHeader(HttpHeaders.ETAG)).endsWith("-1-2025-05-09\"");
+        assertThat(header.getHeader(HttpHeaders.VARY)).isEqualTo("Accept, Accept-Encoding, date");
+        assertThat(header.getContentAsString()).isEqualTo("[\"2025-05-08\"]");
+        assertThat(otherDay.getContentAsString()).isEqualTo("[\"2025-05-09\"]");
+        assertThat(perform("/api/discounts/best", "date", "2025-05-08", HttpHeaders.IF_NONE_MATCH,
+                otherDay.getHeader(HttpHeaders.ETAG)).getStatus()).isEqualTo(200);
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.price_comparator_market.pricing;
+
+import com.example.price_comparator_market.model.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExchangeRateTable} and the {@link CurrencyConverter}s it hands out: days without a quote,
+ * dates outside the table, identity conversions and rounding to the minor unit.
+ */
+class ExchangeRateTableTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    /**
+     * EUR 5.00 and USD 4.50 on May 1st, EUR 5.10 on May 3rd, USD 4.60 on May 5th.
+     */
+    private static final ExchangeRateTable RATES = ExchangeRateTable.of(Map.of(
+            MAY_1, Map.of(Currency.EUR, new BigDecimal("5.00"), Currency.USD, new BigDecimal("4.50")),
+            MAY_1.plusDays(2), Map.of(Currency.EUR, new BigDecimal("5.10")),
+            MAY_1.plusDays(4), Map.of(Currency.USD, new BigDecimal("4.60"))));
+
+    private static long toRon(LocalDate date, long minor, Currency from) {
+        return RATES.converter(date, Currency.RON).convert(minor, from);
+    }
+
+    @Test
+    void fillsDaysWithoutAQuoteWithThePreviousRate() {
+        assertThat(toRon(MAY_1.plusDays(1), 100, Currency.EUR)).isEqualTo(500);
+        assertThat(toRon(MAY_1.plusDays(2), 100, Currency.EUR)).isEqualTo(510);
+        assertThat(toRon(MAY_1.plusDays(3), 100, Currency.EUR)).isEqualTo(510);
+        assertThat(toRon(MAY_1.plusDays(3), 100, Currency.USD)).isEqualTo(450);
+        assertThat(toRon(MAY_1.plusDays(4), 100, Currency.USD)).isEqualTo(460);
+    }
+
+    @Test
+    void clampsDatesOutsideTheTableToItsFirstAndLastDay() {
+        assertThat(toRon(MAY_1.minusYears(1), 100, Currency.EUR)).isEqualTo(500);
+        assertThat(toRon(MAY_1.minusDays(1), 100, Currency.USD)).isEqualTo(450);
+        assertThat(toRon(MAY_1.plusDays(5), 100, Currency.EUR)).isEqualTo(510);
+        assertThat(toRon(MAY_1.plusYears(1), 100, Currency.USD)).isEqualTo(460);
+    }
+
+    @Test
+    void usesTheEarliestQuoteBeforeACurrencyIsFirstQuotedAndParIfItNeverIs() {
+        ExchangeRateTable rates = ExchangeRateTable.of(Map.of(
+                MAY_1, Map.of(Currency.EUR, new BigDecimal("5.00")),
+                MAY_1.plusDays(2), Map.of(Currency.USD, new BigDecimal("4.50"))));
+
+        assertThat(rates.converter(MAY_1, Currency.RON).convert(100, Currency.USD)).isEqualTo(450);
+        assertThat(ExchangeRateTable.of(Map.of(MAY_1, Map.of(Currency.EUR, new BigDecimal("5.00"))))
+                .converter(MAY_1, Currency.RON).convert(100, Currency.USD)).isEqualTo(100);
+    }
+
+    @Test
+    void leavesAmountsInTheTargetCurrencyUnchanged() {
+        CurrencyConverter toEur = RATES.converter(MAY_1, Currency.EUR);
+
+        assertThat(toEur.target()).isEqualTo(Currency.EUR);
+        assertThat(toEur.convert(12_345, Currency.EUR)).isEqualTo(12_345);
+        assertThat(toEur.convert(12_345, null)).isEqualTo(12_345);
+        assertThat(toEur.factor(Currency.EUR)).isEqualTo(1.0);
+        assertThat(ExchangeRateTable.identity().converter(MAY_1, Currency.RON).convert(12_345, Currency.USD))
+                .isEqualTo(12_345);
+    }
+
+    @Test
+    void convertsBetweenForeignCurrenciesThroughTheirRonRates() {
+        // 9.00 EUR is 45.00 RON, which is 10.00 USD at 4.50.
+        assertThat(RATES.converter(MAY_1, Currency.USD).convert(900, Currency.EUR)).isEqualTo(1_000);
+        assertThat(RATES.converter(MAY_1, Currency.EUR).convert(1_000, Currency.RON)).isEqualTo(200);
+    }
+
+    @Test
+    void roundsConvertedMinorUnitsHalfUp() {
+        CurrencyConverter toRon = ExchangeRateTable.of(Map.of(MAY_1, Map.of(Currency.USD, new BigDecimal("2.5"))))
+                .converter(MAY_1, Currency.RON);
+
+        assertThat(toRon.convert(1, Currency.USD)).isEqualTo(3);
+        assertThat(toRon.convert(3, Currency.USD)).isEqualTo(8);
+        assertThat(toRon(MAY_1, 1, Currency.EUR)).isEqualTo(5);
+        // At 5.00 / 4.50, one EUR cent is 1.11 USD cents, rounded down to 1, and nine are 10.00.
+        assertThat(RATES.converter(MAY_1, Currency.USD).convert(1, Currency.EUR)).isEqualTo(1);
+        assertThat(RATES.converter(MAY_1, Currency.USD).convert(9, Currency.EUR)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.price_comparator_market.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Golden tests pinning {@link Money} to the {@code BigDecimal} formulas it replaced.
+ *
+ * <p>The reference implementations below are the legacy service formulas with the
+ * rounding rule made explicit (half-up to two decimals on the discount amount).</p>
+ */
+class MoneyTest {
+
+    private static BigDecimal legacyDiscountedPrice(BigDecimal price, BigDecimal percentage) {
+        return price.subtract(price.multiply(percentage).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal legacyPricePerUnit(BigDecimal price, BigDecimal quantity) {
+        return price.divide(quantity, 2, RoundingMode.HALF_UP);
+    }
+
+    @Test
+    void discountedPriceMatchesLegacyFormulaForEveryWholeAndHalfPercentage() {
+        for (long minor = 0; minor <= 20_000; minor += 7) {
+            BigDecimal price = BigDecimal.valueOf(minor, 2);
+            for (int basisPoints = 0; basisPoints <= 10_000; basisPoints += 50) {
+                BigDecimal percentage = BigDecimal.valueOf(basisPoints, 2);
+                BigDecimal expected = legacyDiscountedPrice(price, percentage);
+
+                long actual = Money.applyDiscount(minor, basisPoints);
+
+                assertThat(Money.toBigDecimal(actual)).isEqualByComparingTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void discountedPriceMatchesLegacyFormulaForFixturePrices() {
+        String[][] fixtures = {
+                {"9.90", "90"}, {"12.80", "15"}, {"11.80", "10"}, {"13.10", "10"},
+                {"13.00", "8"}, {"12.70", "12"}, {"7.45", "5"}, {"24.99", "12.5"}
+        };
+        for (String[] fixture : fixtures) {
+            BigDecimal price = new BigDecimal(fixture[0]);
+            BigDecimal percentage = new BigDecimal(fixture[1]);
+
+            long actual = Money.applyDiscount(Money.toMinor(price), Money.toBasisPoints(percentage));
+
+            assertThat(Money.toBigDecimal(actual)).isEqualByComparingTo(legacyDiscountedPrice(price, percentage));
+        }
+    }
+
+    @Test
+    void pricePerUnitMatchesLegacyFormula() {
+        String[] quantities = {"0.25", "0.3", "0.4", "0.5", "0.75", "1", "1.5", "2", "6", "10", "500", "0.125"};
+        for (long minor = 1; minor <= 50_000; minor += 13) {
+            BigDecimal price = BigDecimal.valueOf(minor, 2);
+            for (String q : quantities) {
+                BigDecimal quantity = new BigDecimal(q);
+
+                long actual = Money.perUnit(minor, Money.toMilli(quantity));
+
+                assertThat(Money.toBigDecimal(actual)).isEqualByComparingTo(legacyPricePerUnit(price, quantity));
+            }
+        }
+    }
+
+    @Test
+    void conversionsRoundTrip() {
+        assertThat(Money.toMinor(new BigDecimal("10.10"))).isEqualTo(1010);
+        assertThat(Money.toMinor(new BigDecimal("10.105"))).isEqualTo(1011);
+        assertThat(Money.toBigDecimal(1010)).isEqualTo(new BigDecimal("10.10"));
+        assertThat(Money.toBasisPoints(new BigDecimal("12.5"))).isEqualTo(1250);
+        assertThat(Money.toPercentage(1000)).isEqualTo(BigDecimal.valueOf(10));
+        assertThat(Money.toPercentage(1250)).isEqualTo(new BigDecimal("12.50"));
+        assertThat(Money.toMilli(new BigDecimal("0.4"))).isEqualTo(400);
+        assertThat(Money.toMilliCeiling(new BigDecimal("1.0004"))).isEqualTo(1001);
+    }
+
+    @Test
+    void zeroDiscountLeavesPriceUntouched() {
+        assertThat(Money.applyDiscount(1234, 0)).isEqualTo(1234);
+    }
+}
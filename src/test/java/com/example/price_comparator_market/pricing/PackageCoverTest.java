@@ -0,0 +1,82 @@
+package com.example.price_comparator_market.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PackageCover}: the table solution must cost exactly what an exhaustive search finds.
+ */
+class PackageCoverTest {
+
+    private static long cost(long[] prices, int[] counts) {
+        long total = 0;
+        for (int p = 0; p < prices.length; p++) {
+            total += prices[p] * counts[p];
+        }
+        return total;
+    }
+
+    private static long covered(long[] sizes, int[] counts) {
+        long total = 0;
+        for (int p = 0; p < sizes.length; p++) {
+            total += sizes[p] * counts[p];
+        }
+        return total;
+    }
+
+    /**
+     * @return the cheapest cover, trying every count up to the one that covers alone
+     */
+    private static long exhaustive(long[] sizes, long[] prices, long required, int pack) {
+        if (required <= 0) {
+            return 0;
+        }
+        if (pack == sizes.length) {
+            return Long.MAX_VALUE;
+        }
+        long best = Long.MAX_VALUE;
+        for (int count = 0; count <= (required + sizes[pack] - 1) / sizes[pack]; count++) {
+            long rest = exhaustive(sizes, prices, required - count * sizes[pack], pack + 1);
+            if (rest != Long.MAX_VALUE) {
+                best = Math.min(best, rest + count * prices[pack]);
+            }
+        }
+        return best;
+    }
+
+    @Test
+    void mixesPackSizesWhenThatIsCheaper() {
+        // 2 kg of flour from 0.5 kg at 3.00, 1 kg at 6.50 and 2 kg at 12.50.
+        long[] sizes = {500, 1_000, 2_000};
+        long[] prices = {300, 650, 1_250};
+
+        assertThat(PackageCover.solve(sizes, prices, 2_000)).containsExactly(4, 0, 0);
+        assertThat(PackageCover.solve(sizes, prices, 2_200)).containsExactly(5, 0, 0);
+        assertThat(PackageCover.solve(new long[]{1_000, 2_000}, new long[]{650, 1_000}, 2_500))
+                .containsExactly(1, 1);
+        assertThat(PackageCover.solve(new long[0], new long[0], 1_000)).isNull();
+    }
+
+    @Test
+    void matchesExhaustiveSearch() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            int packs = 1 + random.nextInt(4);
+            long[] sizes = new long[packs];
+            long[] prices = new long[packs];
+            for (int p = 0; p < packs; p++) {
+                sizes[p] = 250L * (1 + random.nextInt(8));
+                prices[p] = 100 + random.nextInt(2_000);
+            }
+            long required = 1 + random.nextInt(5_000);
+
+            int[] counts = PackageCover.solve(sizes, prices, required);
+
+            assertThat(covered(sizes, counts)).isGreaterThanOrEqualTo(required);
+            assertThat(cost(prices, counts)).isEqualTo(exhaustive(sizes, prices, required, 0));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.Discount;
+import com.example.price_comparator_market.model.Product;
+import com.example.price_comparator_market.model.Store;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression tests for the repository finders.
+ *
+ * <p>Each test calls a repository method, captures the SQL Hibernate generated for it and runs
+ * {@code EXPLAIN} on that SQL with the same arguments. A plan that falls back to a full
+ * {@code tableScan} on the queried table fails the test, so an index that stops being usable
+ * (a renamed column, a dropped {@code @Index}, a rewritten finder) is caught here.</p>
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.price_comparator_market.repository.RecordingStatementInspector")
+class RepositoryQueryPlanTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 5, 5);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DiscountRepository discountRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = new Store();
+        store.setName("Lidl");
+        entityManager.persist(store);
+        for (int i = 0; i < 50; i++) {
+            String productId = String.format("P%03d", i);
+            entityManager.persist(new Product(null, productId, "product " + i, "lactate", "Brand",
+                    BigDecimal.ONE, "l", BigDecimal.TEN, Currency.RON, store, null));
+            entityManager.persist(new Discount(null, productId, "product " + i, "Brand", BigDecimal.ONE, "l",
+                    "lactate", DAY.minusDays(i % 7), DAY.plusDays(i % 5), BigDecimal.TEN, store));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void productByProductIdAndStoreUsesUniqueIndex() {
+        productRepository.findByProductIdAndStore("P001", store);
+
+        assertIndexedPlan("product", "ux_product_store_product", "P001", store.getId());
+    }
+
+    @Test
+    void storeByNameUsesUniqueIndex() {
+        storeRepository.findByName("Lidl");
+
+        assertIndexedPlan("store", "ux_store_name", "Lidl");
+    }
+
+    @Test
+    void productByNameUsesNameIndex() {
+        productRepository.findByProductName("product 1");
+
+        assertIndexedPlan("product", "ix_product_name", "product 1");
+    }
+
+    @Test
+    void discountByNaturalKeyUsesCompositeIndex() {
+        discountRepository.findByProductIdAndStoreAndFromDateAndToDate("P001", store, DAY, DAY);
+
+        assertIndexedPlan("discount", "ux_discount_store_product_dates", "P001", store.getId(), DAY, DAY);
+    }
+
+    @Test
+    void discountByProductIdAndStoreUsesCompositeIndexPrefix() {
+        discountRepository.findByProductIdAndStore("P001", store);
+
+        assertIndexedPlan("discount", "ux_discount_store_product_dates", "P001", store.getId());
+    }
+
+    @Test
+    void activeDiscountsByNameUseNameIndex() {
+        discountRepository.findByProductNameAndFromDateLessThanEqualAndToDateGreaterThanEqual("product 1", DAY, DAY);
+
+        assertIndexedPlan("discount", "ix_discount_name_dates", "product 1", DAY, DAY);
+    }
+
+    @Test
+    void activeDiscountsUseDateRangeIndex() {
+        discountRepository.findByFromDateLessThanEqualAndToDateGreaterThanEqual(DAY, DAY);
+
+        assertIndexedPlan("discount", "ix_discount_dates", DAY, DAY);
+    }
+
+    @Test
+    void discountsStartingSinceUseDateRangeIndex() {
+        discountRepository.findByFromDateGreaterThanEqual(DAY);
+
+        assertIndexedPlan("discount", "ix_discount_dates", DAY);
+    }
+
+    /**
+     * Explains the first statement the repository call issued and checks that {@code table}
+     * is read through {@code index} rather than scanned.
+     */
+    private void assertIndexedPlan(String table, String index, Object... args) {
+        List<String> statements = RecordingStatementInspector.statements();
+        assertThat(statements).isNotEmpty();
+        String sql = statements.getFirst();
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args).toUpperCase();
+
+        assertThat(plan)
+                .as("plan for %s", sql)
+                .doesNotContain("PUBLIC." + table.toUpperCase() + ".TABLESCAN")
+                .contains("PUBLIC." + index.toUpperCase());
+    }
+}
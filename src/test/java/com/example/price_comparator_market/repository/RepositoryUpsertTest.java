@@ -0,0 +1,72 @@
+package com.example.price_comparator_market.repository;
+
+import com.example.price_comparator_market.model.Currency;
+import com.example.price_comparator_market.model.Discount;
+import com.example.price_comparator_market.model.Product;
+import com.example.price_comparator_market.model.Store;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class RepositoryUpsertTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 5, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 5, 7);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DiscountRepository discountRepository;
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = new Store();
+        store.setName("Lidl");
+        entityManager.persistAndFlush(store);
+    }
+
+    @Test
+    void productUpsertUpdatesExistingRowInsteadOfDuplicating() {
+        productRepository.upsertAll(List.of(product("P001", "9.90"), product("P002", "11.50")));
+        productRepository.upsertAll(List.of(product("P001", "8.90")));
+
+        assertThat(productRepository.findAll()).hasSize(2);
+        assertThat(productRepository.findByProductIdAndStore("P001", store))
+                .hasValueSatisfying(p -> assertThat(p.getPrice()).isEqualByComparingTo("8.90"));
+    }
+
+    @Test
+    void discountUpsertIsKeyedOnStoreProductAndDates() {
+        discountRepository.upsertAll(List.of(discount("P001", FROM, TO, "10"), discount("P001", TO.plusDays(1), TO.plusDays(7), "5")));
+        discountRepository.upsertAll(List.of(discount("P001", FROM, TO, "15")));
+
+        assertThat(discountRepository.findByProductIdAndStore("P001", store)).hasSize(2);
+        assertThat(discountRepository.findByProductIdAndStoreAndFromDateAndToDate("P001", store, FROM, TO))
+                .hasValueSatisfying(d -> assertThat(d.getPercentageOfDiscount()).isEqualByComparingTo("15"));
+    }
+
+    private Product product(String productId, String price) {
+        return new Product(null, productId, "lapte zuzu", "lactate", "Zuzu",
+                BigDecimal.ONE, "l", new BigDecimal(price), Currency.RON, store, FROM);
+    }
+
+    private Discount discount(String productId, LocalDate from, LocalDate to, String percentage) {
+        return new Discount(null, productId, "lapte zuzu", "Zuzu", BigDecimal.ONE, "l",
+                "lactate", from, to, new BigDecimal(percentage), store);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogProduct;
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.dto.BasketItemDTO;
+import com.example.price_comparator_market.dto.BasketRequestDTO;
+import com.example.price_comparator_market.dto.BasketResponseDTO;
+import com.example.price_comparator_market.dto.ProductInStoreDTO;
+import com.example.price_comparator_market.model.Currency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link BasketOptimizerService}: quantity items are rounded up to whole thousandths of the normalized
+ * unit, so the packs bought always cover them.
+ */
+class BasketOptimizerServiceTest {
+
+    private BasketOptimizerService service;
+
+    @BeforeEach
+    void setUp() {
+        CatalogService catalogService = mock(CatalogService.class);
+        when(catalogService.asOf(null)).thenReturn(CatalogSnapshot.of(1, List.of(),
+                List.of(
+                        new CatalogProduct("lidl", "P1", "faina", "panificatie", "Brand", 1_000, "kg", 500,
+                                Currency.RON),
+                        new CatalogProduct("profi", "P1", "faina", "panificatie", "Brand", 500_000, "g", 300,
+                                Currency.RON)
+                ),
+                List.of()));
+        service = new BasketOptimizerService(catalogService, new CurrencyConversionService());
+    }
+
+    private BasketResponseDTO optimize(BasketItemDTO item) {
+        BasketRequestDTO request = new BasketRequestDTO();
+        request.setItems(List.of(item));
+        return service.optimizeBasket(request, null);
+    }
+
+    @Test
+    void coversQuantitiesThatRoundToNothingWithOnePack() {
+        for (BasketItemDTO item : List.of(new BasketItemDTO("faina", new BigDecimal("0.4"), "g"),
+                new BasketItemDTO("faina", new BigDecimal("0.0004"), "kg"))) {
+            BasketResponseDTO response = optimize(item);
+
+            assertThat(response.getNotFound()).isEmpty();
+            assertThat(response.getStoreBaskets()).containsOnlyKeys("profi");
+            assertThat(response.getStoreBaskets().get("profi")).extracting(ProductInStoreDTO::getPacks)
+                    .containsExactly(1);
+        }
+    }
+
+    @Test
+    void neverCoversLessThanANonIntegralQuantity() {
+        // 1500.7 g needs 1.501 kg: two 1 kg packs, not a 1 kg and a 500 g pack.
+        BasketResponseDTO grams = optimize(new BasketItemDTO("faina", new BigDecimal("1500.7"), "g"));
+
+        assertThat(grams.getStoreBaskets()).containsOnlyKeys("lidl");
+        assertThat(grams.getStoreBaskets().get("lidl")).extracting(ProductInStoreDTO::getPacks)
+                .containsExactly(2);
+
+        // 1.0004 kg needs 1.001 kg: a 500 g pack on top of the 1 kg one.
+        BasketResponseDTO kilograms = optimize(new BasketItemDTO("faina", new BigDecimal("1.0004"), "kg"));
+
+        assertThat(kilograms.getStoreBaskets()).containsOnlyKeys("lidl", "profi");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.PriceFeedDiff;
+import com.example.price_comparator_market.model.PriceChangeType;
+import com.example.price_comparator_market.model.Product;
+import com.example.price_comparator_market.model.Store;
+import com.example.price_comparator_market.repository.ProductRepository;
+import com.example.price_comparator_market.repository.StoreRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for {@link CsvImportService}: price feeds imported out of date order.
+ */
+@SpringBootTest(properties = {
+        "db_url=jdbc:h2:mem:csv-import;DB_CLOSE_DELAY=-1",
+        "db_username=sa",
+        "db_password=",
+        "catalog.file=",
+        "startup.async=false"
+})
+class CsvImportServiceTest {
+
+    private static final String HEADER =
+            "product_id,product_name,product_category,brand,package_quantity,package_unit,price,currency\n";
+
+    @Autowired
+    private CsvImportService csvImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void olderFeedIsSkippedAndDoesNotBreakTheNextDiff() throws IOException {
+        csvImportService.importCsv(feed("2025-05-08", "P001,lapte,lactate,Zuzu,1,l,10.00,RON",
+                "P002,paine,panificatie,Vel Pitar,500,g,5.00,RON"));
+
+        PriceChangesEvent.ChangeSet late = csvImportService.importCsv(feed("2025-05-01",
+                "P001,lapte,lactate,Zuzu,1,l,12.00,RON"));
+
+        assertThat(late).isNull();
+        Store store = storeRepository.findByName("Outoforder").orElseThrow();
+        Product milk = productRepository.findByProductIdAndStore("P001", store).orElseThrow();
+        assertThat(milk.getPrice()).isEqualByComparingTo("10.00");
+        assertThat(milk.getFeedDate()).isEqualTo(LocalDate.of(2025, 5, 8));
+
+        PriceChangesEvent.ChangeSet next = csvImportService.importCsv(feed("2025-05-15",
+                "P001,lapte,lactate,Zuzu,1,l,9.00,RON", "P002,paine,panificatie,Vel Pitar,500,g,5.00,RON"));
+
+        assertThat(next.previousFeedDate()).isEqualTo(LocalDate.of(2025, 5, 8));
+        assertThat(next.changes()).extracting(PriceFeedDiff.Change::type, PriceFeedDiff.Change::productId)
+                .containsExactly(tuple(PriceChangeType.DECREASED, "P001"));
+    }
+
+    private Path feed(String date, String... rows) throws IOException {
+        return Files.writeString(dir.resolve("outoforder_" + date + ".csv"),
+                HEADER + String.join("\n", rows) + "\n");
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.catalog.CatalogSnapshot;
+import com.example.price_comparator_market.dto.DiscountEventDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.price_comparator_market.catalog.CatalogFixture.catalog;
+import static com.example.price_comparator_market.catalog.CatalogFixture.discount;
+import static com.example.price_comparator_market.catalog.CatalogFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link DiscountStreamService}: resuming from a last event ID, per-subscriber filters, and the
+ * bounded buffer that drops a slow subscriber's oldest events.
+ */
+class DiscountStreamServiceTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    private static final CatalogSnapshot CATALOG = catalog(1)
+            .add(
+                    product("lidl", "P1").category("lactate"),
+                    product("lidl", "P2").category("lactate"),
+                    product("lidl", "P3").category("panificatie"),
+                    product("profi", "P1").category("lactate")
+            )
+            .build();
+
+    private DiscountStreamService service;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    /** Whether new emitters hold their first send until released. */
+    private boolean holdFirstSend;
+
+    @BeforeEach
+    void setUp() {
+        CatalogService catalogService = mock(CatalogService.class);
+        when(catalogService.current()).thenReturn(CATALOG);
+        service = new DiscountStreamService(catalogService, new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter(holdFirstSend);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(service, "historySize", 3);
+        ReflectionTestUtils.setField(service, "bufferSize", 3);
+        ReflectionTestUtils.setField(service, "timeout", Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(RecordingEmitter::release);
+        service.closeSubscribers();
+    }
+
+    /**
+     * Publishes events 1 to 4: lidl/P1 10%, profi/P1 20%, lidl/P2 30% and lidl/P3 (panificatie) 40%.
+     */
+    private void publishFour() {
+        service.onPriceChanges(new PriceChangesEvent(1, List.of(), List.of(
+                discount("lidl", "P1").on(MAY_1).basisPoints(1_000).build(),
+                discount("profi", "P1").on(MAY_1).basisPoints(2_000).build(),
+                discount("lidl", "P2").on(MAY_1).basisPoints(3_000).build(),
+                discount("lidl", "P3").on(MAY_1).basisPoints(4_000).build())));
+    }
+
+    /**
+     * Waits until the fan-out thread has offered every published event to the subscribers.
+     */
+    private void awaitFanOut() throws Exception {
+        ((ExecutorService) ReflectionTestUtils.getField(service, "fanOut")).submit(() -> { }).get(10, TimeUnit.SECONDS);
+    }
+
+    private RecordingEmitter subscribe(DiscountStreamService.Filter filter, Long lastEventId) {
+        service.subscribe(filter, lastEventId);
+        return emitters.getLast();
+    }
+
+    private static DiscountStreamService.Filter all() {
+        return new DiscountStreamService.Filter(null, null, null);
+    }
+
+    @Test
+    void resumesAfterTheLastEventIdFromTheRetainedHistory() throws InterruptedException {
+        publishFour();
+
+        assertThat(subscribe(all(), 2L).await(2)).containsExactly("#3", "#4");
+        // Event 1 fell out of the history of 3.
+        assertThat(subscribe(all(), 0L).await(3)).containsExactly("#2", "#3", "#4");
+        // An ID this instance never issued replays the whole history.
+        assertThat(subscribe(all(), 99L).await(3)).containsExactly("#2", "#3", "#4");
+        assertThat(subscribe(all(), null).await(1)).containsExactly("heartbeat");
+        assertThat(subscribe(new DiscountStreamService.Filter("LIDL", null, null), 0L).await(2))
+                .containsExactly("#3", "#4");
+    }
+
+    @Test
+    void replaysPastTheBufferSizeAndCountsEventsThatLeftTheHistoryMeanwhile() throws InterruptedException {
+        ReflectionTestUtils.setField(service, "bufferSize", 1);
+        publishFour();
+
+        assertThat(subscribe(all(), 0L).await(3)).containsExactly("#2", "#3", "#4");
+
+        holdFirstSend = true;
+        RecordingEmitter resuming = subscribe(all(), 1L);
+        // The sender is now stuck sending #2 while four more events push #3 to #5 out of the history.
+        resuming.awaitBlocked();
+        publishFour();
+        resuming.release();
+
+        assertThat(resuming.await(5)).containsExactly("#2", "dropped:3", "#6", "#7", "#8");
+    }
+
+    @Test
+    void sendsEachSubscriberOnlyTheEventsItsFilterMatches() throws InterruptedException {
+        RecordingEmitter lidl = subscribe(new DiscountStreamService.Filter("lidl", null, null), null);
+        RecordingEmitter bakery = subscribe(new DiscountStreamService.Filter(null, "Panificatie", null), null);
+        RecordingEmitter large = subscribe(new DiscountStreamService.Filter(null, null, new BigDecimal("20")), null);
+        lidl.await(1);
+        bakery.await(1);
+        large.await(1);
+
+        publishFour();
+
+        assertThat(lidl.await(4)).containsExactly("heartbeat", "#1", "#3", "#4");
+        assertThat(bakery.await(2)).containsExactly("heartbeat", "#4");
+        assertThat(large.await(4)).containsExactly("heartbeat", "#2", "#3", "#4");
+    }
+
+    @Test
+    void dropsTheOldestEventsOfASlowSubscriberAndSaysHowMany() throws Exception {
+        ReflectionTestUtils.setField(service, "bufferSize", 2);
+        holdFirstSend = true;
+        RecordingEmitter slow = subscribe(all(), null);
+
+        // The sender is now stuck sending the first heartbeat while all four events arrive.
+        slow.awaitBlocked();
+        publishFour();
+        awaitFanOut();
+        slow.release();
+
+        assertThat(slow.await(4)).containsExactly("heartbeat", "dropped:2", "#3", "#4");
+    }
+
+    /**
+     * Records what is sent as {@code #<id>} for events, {@code dropped:<count>} and {@code heartbeat}. A
+     * holding emitter blocks its first send until released.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private volatile boolean holding;
+
+        RecordingEmitter(boolean holding) {
+            this.holding = holding;
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (holding) {
+                blocked.countDown();
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                holding = false;
+            }
+            StringBuilder text = new StringBuilder();
+            DiscountEventDTO event = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof DiscountEventDTO dto) {
+                    event = dto;
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            String description = event != null ? "#" + event.getId()
+                    : text.charAt(0) == ':' ? "heartbeat"
+                    : "dropped:" + text.toString().replaceAll("(?s).*data:(\\d+).*", "$1");
+            synchronized (sent) {
+                sent.add(description);
+                sent.notifyAll();
+            }
+        }
+
+        /**
+         * Waits until at least {@code count} items were sent, then gives a late extra item a moment to show.
+         */
+        List<String> await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            synchronized (sent) {
+                while (sent.size() < count && System.nanoTime() < deadline) {
+                    sent.wait(100);
+                }
+            }
+            Thread.sleep(50);
+            synchronized (sent) {
+                return List.copyOf(sent);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.price_comparator_market.service;
+
+import com.example.price_comparator_market.dto.DailyBasketCostDTO;
+import com.example.price_comparator_market.dto.PriceIndexReportDTO;
+import com.example.price_comparator_market.dto.StorePriceIndexDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.price_comparator_market.catalog.CatalogFixture.catalog;
+import static com.example.price_comparator_market.catalog.CatalogFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link PriceIndexService}: the cheapest store selling the whole basket scores 100 each day, and
+ * stores missing an item get a cost but no index.
+ */
+class PriceIndexServiceTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    @Test
+    void indexesStoresAgainstTheCheapestCompleteStore() {
+        CatalogService catalogService = mock(CatalogService.class);
+        when(catalogService.current()).thenReturn(catalog(1)
+                .add(
+                        product("kaufland", "K1").name("lapte").price(1_100),
+                        product("kaufland", "K2").name("paine").price(250),
+                        product("lidl", "L1").name("lapte").price(900),
+                        product("lidl", "L2").name("paine").price(270),
+                        product("profi", "R1").name("lapte").price(800)
+                )
+                .build());
+        PriceIndexService service = new PriceIndexService(catalogService, new CurrencyConversionService());
+
+        PriceIndexReportDTO report = service.getReport(List.of("lapte", "paine"), MAY_1, MAY_1.plusDays(1));
+
+        assertThat(report.getStores()).extracting(StorePriceIndexDTO::getStore)
+                .containsExactly("kaufland", "lidl", "profi");
+        DailyBasketCostDTO kaufland = report.getStores().get(0).getDays().get(1);
+        DailyBasketCostDTO lidl = report.getStores().get(1).getDays().get(1);
+        DailyBasketCostDTO profi = report.getStores().get(2).getDays().get(1);
+
+        assertThat(lidl.getDate()).isEqualTo(MAY_1.plusDays(1));
+        assertThat(lidl.getIndex()).isEqualByComparingTo("100");
+        assertThat(lidl.getCost()).isEqualByComparingTo("11.70");
+        // 13.50 / 11.70, the profi basket's lower cost does not count as it lacks paine.
+        assertThat(kaufland.getIndex()).isEqualByComparingTo(new BigDecimal("115.38"));
+        assertThat(profi.getCost()).isEqualByComparingTo("8.00");
+        assertThat(profi.getIndex()).isNull();
+        assertThat(report.getStores().get(2).getMissingProducts()).containsExactly("paine");
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.price_comparator_market.catalog;
+
+import com.example.price_comparator_market.model.Currency;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds small catalog snapshots for tests. Rows start from everyday defaults, one {@code buc} of brand
+ * {@code Brand} in category {@code alimente}, named after its ID and priced 10 RON, so a test spells out only
+ * the columns it checks:
+ *
+ * <pre>{@code
+ * CatalogSnapshot catalog = catalog(1)
+ *         .add(product("lidl", "P1").category("lactate").price(1_000))
+ *         .add(discount("lidl", "P1").on(MAY_1).basisPoints(2_000))
+ *         .build();
+ * }</pre>
+ */
+public final class CatalogFixture {
+
+    private final long version;
+
+    private final List<CatalogProduct> products = new ArrayList<>();
+
+    private final List<CatalogDiscount> discounts = new ArrayList<>();
+
+    private CatalogFixture(long version) {
+        this.version = version;
+    }
+
+    /**
+     * @param version the catalog version of the snapshot to build
+     * @return an empty catalog
+     */
+    public static CatalogFixture catalog(long version) {
+        return new CatalogFixture(version);
+    }
+
+    /**
+     * @return a product row with the default columns
+     */
+    public static ProductRow product(String storeName, String productId) {
+        return new ProductRow(storeName, productId);
+    }
+
+    /**
+     * @return a discount row with the default columns; its dates and percentage must be set
+     */
+    public static DiscountRow discount(String storeName, String productId) {
+        return new DiscountRow(storeName, productId);
+    }
+
+    public CatalogFixture add(ProductRow... rows) {
+        for (ProductRow row : rows) {
+            products.add(row.build());
+        }
+        return this;
+    }
+
+    public CatalogFixture add(DiscountRow... rows) {
+        for (DiscountRow row : rows) {
+            discounts.add(row.build());
+        }
+        return this;
+    }
+
+    /**
+     * @return a snapshot of the rows added so far, without stores
+     */
+    public CatalogSnapshot build() {
+        return CatalogSnapshot.of(version, List.of(), products, discounts);
+    }
+
+    /**
+     * A {@link CatalogProduct} under construction.
+     */
+    public static final class ProductRow {
+
+        private final String storeName;
+        private final String productId;
+        private String productName;
+        private String category = "alimente";
+        private String brand = "Brand";
+        private long quantityMilli = 1_000;
+        private String unit = "buc";
+        private long priceMinor = 1_000;
+        private Currency currency = Currency.RON;
+
+        private ProductRow(String storeName, String productId) {
+            this.storeName = storeName;
+            this.productId = productId;
+            this.productName = productId;
+        }
+
+        public ProductRow name(String productName) {
+            this.productName = productName;
+            return this;
+        }
+
+        public ProductRow category(String category) {
+            this.category = category;
+            return this;
+        }
+
+        public ProductRow brand(String brand) {
+            this.brand = brand;
+            return this;
+        }
+
+        public ProductRow quantity(long quantityMilli, String unit) {
+            this.quantityMilli = quantityMilli;
+            this.unit = unit;
+            return this;
+        }
+
+        public ProductRow price(long priceMinor) {
+            this.priceMinor = priceMinor;
+            return this;
+        }
+
+        public ProductRow price(long priceMinor, Currency currency) {
+            this.priceMinor = priceMinor;
+            this.currency = currency;
+            return this;
+        }
+
+        public CatalogProduct build() {
+            return new CatalogProduct(storeName, productId, productName, category, brand, quantityMilli, unit,
+                    priceMinor, currency);
+        }
+    }
+
+    /**
+     * A {@link CatalogDiscount} under construction.
+     */
+    public static final class DiscountRow {
+
+        private final String storeName;
+        private final String productId;
+        private String productName;
+        private String category = "alimente";
+        private String brand = "Brand";
+        private long quantityMilli = 1_000;
+        private String unit = "buc";
+        private LocalDate from;
+        private LocalDate to;
+        private Integer basisPoints;
+
+        private DiscountRow(String storeName, String productId) {
+            this.storeName = storeName;
+            this.productId = productId;
+            this.productName = productId;
+        }
+
+        /**
+         * Copies the name, category, brand and package of the discounted product.
+         */
+        public DiscountRow of(ProductRow product) {
+            this.productName = product.productName;
+            this.category = product.category;
+            this.brand = product.brand;
+            this.quantityMilli = product.quantityMilli;
+            this.unit = product.unit;
+            return this;
+        }
+
+        public DiscountRow category(String category) {
+            this.category = category;
+            return this;
+        }
+
+        public DiscountRow between(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        public DiscountRow on(LocalDate day) {
+            return between(day, day);
+        }
+
+        public DiscountRow basisPoints(int basisPoints) {
+            this.basisPoints = basisPoints;
+            return this;
+        }
+
+        public CatalogDiscount build() {
+            Objects.requireNonNull(from, "discount dates");
+            Objects.requireNonNull(basisPoints, "discount basis points");
+            return new CatalogDiscount(storeName, productId, productName, brand, quantityMilli, unit, category,
+                    from, to, basisPoints);
+        }
+    }
+}
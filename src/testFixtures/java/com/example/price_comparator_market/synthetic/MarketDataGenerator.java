@@ -0,0 +1,357 @@
+package com.example.price_comparator_market.synthetic;
+
+import com.example.price_comparator_market.dto.AlertRequestDTO;
+import com.example.price_comparator_market.dto.BasketRequestDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Deterministic generator of synthetic market data in the exact CSV formats read by
+ * {@code CsvImportService}, plus matching alert and basket workloads.
+ *
+ * <p>For every snapshot date it writes one {@code <store>_<date>.csv} price file and one
+ * {@code <store>_discounts_<date>.csv} discount file per store, and a single {@code exchange_rates_<date>.csv}
+ * covering the whole period. Every value is derived by hashing the seed with the store, SKU and snapshot
+ * indexes, so rows are produced in a single streaming pass with no per-SKU state: the same
+ * {@link MarketDataSpec} always yields byte-identical files, and memory use does not depend on the row
+ * count.</p>
+ *
+ * <p>Run from the command line with
+ * {@code ./gradlew generateMarketData -PgeneratorArgs="out=build/market-data stores=8 skus=1000000 snapshots=13"};
+ * see {@link MarketDataSpec} for the parameters.</p>
+ */
+public final class MarketDataGenerator {
+
+    private static final String[] STORE_NAMES = {"lidl", "kaufland", "profi", "mega", "auchan", "carrefour",
+            "penny", "cora"};
+
+    private static final String[] BRANDS = {"Zuzu", "Pilos", "Napolact", "Olympus", "Danone", "Barilla",
+            "Baneasa", "Jacobs", "Lavazza", "Milka", "Dorna", "Borsec", "Ariel", "Persil", "Zewa", "Kamis",
+            "Cotnari", "Jidvei", "Boromir", "Vel Pitar", "Elmas", "Croco", "Lidl", "K-Classic", "Profi"};
+
+    private static final Kind[] KINDS = {
+            new Kind("lapte", "lactate", "l", new String[]{"1", "1.5", "2"}, 500, 1_500),
+            new Kind("iaurt grecesc", "lactate", "kg", new String[]{"0.15", "0.4", "1"}, 300, 2_500),
+            new Kind("brânză telemea", "lactate", "kg", new String[]{"0.3", "0.5", "1"}, 1_200, 4_500),
+            new Kind("ouă mărimea M", "ouă", "buc", new String[]{"6", "10", "30"}, 600, 4_000),
+            new Kind("pâine albă", "panificație", "g", new String[]{"400", "500", "800"}, 300, 900),
+            new Kind("roșii cherry", "legume și fructe", "kg", new String[]{"0.25", "0.5", "1"}, 500, 2_000),
+            new Kind("banane", "legume și fructe", "kg", new String[]{"1"}, 500, 900),
+            new Kind("piept pui", "carne", "kg", new String[]{"0.5", "1"}, 1_800, 4_000),
+            new Kind("spaghetti nr.5", "paste făinoase", "g", new String[]{"500", "1000"}, 400, 1_200),
+            new Kind("zahăr tos", "alimente de bază", "kg", new String[]{"1", "2"}, 400, 1_000),
+            new Kind("ulei floarea-soarelui", "alimente de bază", "l", new String[]{"1", "2", "5"}, 800, 4_500),
+            new Kind("apă plată", "băuturi", "l", new String[]{"0.5", "2", "6"}, 150, 1_500),
+            new Kind("vin alb demisec", "băuturi", "ml", new String[]{"750"}, 1_500, 6_000),
+            new Kind("cafea măcinată", "cafea", "g", new String[]{"250", "500"}, 1_200, 4_500),
+            new Kind("biscuiți cu unt", "gustări", "g", new String[]{"100", "200"}, 300, 1_200),
+            new Kind("piper negru măcinat", "condimente", "g", new String[]{"20", "50"}, 300, 1_200),
+            new Kind("detergent lichid", "produse de menaj", "l", new String[]{"1", "2.5"}, 2_000, 6_000),
+            new Kind("hârtie igienică 3 straturi", "produse de menaj", "role", new String[]{"8", "16"}, 1_500, 4_500),
+            new Kind("șampon păr gras", "îngrijire personală", "ml", new String[]{"250", "400"}, 1_000, 3_000)
+    };
+
+    private static final String PRICE_HEADER =
+            "product_id,product_name,product_category,brand,package_quantity,package_unit,price,currency\n";
+
+    private static final String DISCOUNT_HEADER = "product_id,product_name,brand,package_quantity,package_unit,"
+            + "product_category,from_date,to_date,percentage_of_discount\n";
+
+    // Salts separating the independent values derived from one (store, sku, snapshot) hash.
+    private static final long LISTED = 1;
+    private static final long PRICE = 2;
+    private static final long PACKAGE = 3;
+    private static final long CURRENCY = 4;
+    private static final long DISCOUNTED = 5;
+    private static final long DISCOUNT = 6;
+    private static final long WORKLOAD = 7;
+
+    private final MarketDataSpec spec;
+
+    public MarketDataGenerator(MarketDataSpec spec) {
+        this.spec = spec;
+    }
+
+    public static void main(String[] args) throws IOException {
+        MarketDataSpec spec = MarketDataSpec.parse(args);
+        Path out = Path.of(spec.out());
+        MarketDataset dataset = new MarketDataGenerator(spec).write(out);
+        System.out.printf("Wrote %d price and %d discount files, %d alerts and %d baskets to %s%n",
+                dataset.priceFiles().size(), dataset.discountFiles().size(), dataset.alerts().size(),
+                dataset.baskets().size(), out.toAbsolutePath());
+    }
+
+    /**
+     * Writes the dataset into a directory, creating it if needed.
+     *
+     * @param dir the output directory
+     * @return the written files, in import order, and the alert and basket workloads
+     */
+    public MarketDataset write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> priceFiles = new ArrayList<>();
+        List<Path> discountFiles = new ArrayList<>();
+        StringBuilder row = new StringBuilder(256);
+        for (int snapshot = 0; snapshot < spec.snapshots(); snapshot++) {
+            LocalDate date = snapshotDate(snapshot);
+            for (int store = 0; store < spec.stores(); store++) {
+                Path prices = dir.resolve(storeName(store) + "_" + date + ".csv");
+                Path discounts = dir.resolve(storeName(store) + "_discounts_" + date + ".csv");
+                try (Writer p = Files.newBufferedWriter(prices); Writer d = Files.newBufferedWriter(discounts)) {
+                    p.write(PRICE_HEADER);
+                    d.write(DISCOUNT_HEADER);
+                    for (int sku = 0; sku < spec.skus(); sku++) {
+                        if (isListed(store, sku)) {
+                            writeRows(p, d, row, store, sku, snapshot, date);
+                        }
+                    }
+                }
+                priceFiles.add(prices);
+                discountFiles.add(discounts);
+            }
+        }
+        Path rates = writeRates(dir);
+        List<AlertRequestDTO> alerts = alerts();
+        List<BasketRequestDTO> baskets = baskets();
+        writeWorkloads(dir, alerts, baskets);
+        return new MarketDataset(dir, priceFiles, discountFiles, rates, alerts, baskets);
+    }
+
+    /**
+     * @return the name of a store as it appears in file names; stores beyond the built-in chains are numbered
+     */
+    public static String storeName(int store) {
+        return store < STORE_NAMES.length ? STORE_NAMES[store] : "store" + store;
+    }
+
+    /**
+     * @return the product name shared by every store's listing of a SKU
+     */
+    public String productName(int sku) {
+        return kind(sku).noun() + " " + brand(sku).toLowerCase(Locale.ROOT) + " " + sku;
+    }
+
+    /**
+     * @return the date of a snapshot; snapshot {@code 0} is {@link MarketDataSpec#startDate()}
+     */
+    public LocalDate snapshotDate(int snapshot) {
+        return spec.startDate().plusDays((long) snapshot * spec.snapshotIntervalDays());
+    }
+
+    private void writeRows(Writer prices, Writer discounts, StringBuilder row, int store, int sku, int snapshot,
+                           LocalDate date) throws IOException {
+        Kind kind = kind(sku);
+        String productId = productId(sku);
+        String name = productName(sku);
+        String brand = brand(sku);
+        long listing = hash(store, sku, -1);
+
+        // The SKU's usual package; some stores sell a different size of the same product.
+        int usualPack = (int) (unsigned(hash(sku, PACKAGE)) % kind.quantities().length);
+        int pack = usualPack;
+        if (fraction(hash(listing, PACKAGE)) < 0.1) {
+            pack = (int) (unsigned(hash(listing, PACKAGE + 100)) % kind.quantities().length);
+        }
+        String quantity = kind.quantities()[pack];
+        double packFactor = Double.parseDouble(quantity) / Double.parseDouble(kind.quantities()[usualPack]);
+        double storeFactor = 0.9 + 0.25 * fraction(hash(listing, PRICE));
+        double drift = 0.97 + 0.06 * fraction(hash(hash(store, sku, snapshot), PRICE));
+        long priceRon = Math.max(1, Math.round(basePrice(sku) * packFactor * storeFactor * drift));
+
+        String currency = "RON";
+        long price = priceRon;
+        double currencyDraw = fraction(hash(listing, CURRENCY));
+        if (currencyDraw < spec.foreignCurrencyRatio()) {
+            boolean euro = currencyDraw < spec.foreignCurrencyRatio() / 2;
+            currency = euro ? "EUR" : "USD";
+            price = Math.max(1, Math.round(priceRon / rate(euro, date)));
+        }
+
+        row.setLength(0);
+        row.append(productId).append(',').append(name).append(',').append(kind.category()).append(',')
+                .append(brand).append(',').append(quantity).append(',').append(kind.unit()).append(',');
+        appendMinor(row, price);
+        row.append(',').append(currency).append('\n');
+        prices.append(row);
+
+        long snapshotListing = hash(store, sku, snapshot);
+        if (fraction(hash(snapshotListing, DISCOUNTED)) >= spec.discountDensity()) {
+            return;
+        }
+        int windows = 1 + (int) (unsigned(hash(snapshotListing, DISCOUNT)) % spec.maxOverlappingDiscounts());
+        for (int w = 0; w < windows; w++) {
+            long draw = hash(snapshotListing, DISCOUNT + 10 + w);
+            // Distinct start days keep (store, product, from, to) unique; lengths up to two weeks make them overlap.
+            LocalDate from = date.plusDays(w + unsigned(draw) % spec.snapshotIntervalDays());
+            LocalDate to = from.plusDays(unsigned(draw >>> 20) % 14);
+            int percentage = 5 + (int) (unsigned(draw >>> 40) % 56);
+            row.setLength(0);
+            row.append(productId).append(',').append(name).append(',').append(brand).append(',')
+                    .append(quantity).append(',').append(kind.unit()).append(',').append(kind.category()).append(',')
+                    .append(from).append(',').append(to).append(',').append(percentage).append('\n');
+            discounts.append(row);
+        }
+    }
+
+    private Path writeRates(Path dir) throws IOException {
+        Path rates = dir.resolve("exchange_rates_" + spec.startDate() + ".csv");
+        LocalDate end = snapshotDate(spec.snapshots() - 1).plusDays(spec.snapshotIntervalDays() + 14L);
+        try (BufferedWriter writer = Files.newBufferedWriter(rates)) {
+            writer.write("date,currency,rate\n");
+            for (LocalDate day = spec.startDate(); !day.isAfter(end); day = day.plusDays(1)) {
+                for (boolean euro : new boolean[]{true, false}) {
+                    writer.write(day + (euro ? ",EUR," : ",USD,")
+                            + BigDecimal.valueOf(rate(euro, day)).setScale(4, RoundingMode.HALF_UP) + "\n");
+                }
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * @return the RON value of one EUR or USD on a day, a smooth deterministic wobble around a fixed level
+     */
+    private double rate(boolean euro, LocalDate day) {
+        double level = euro ? 4.9774 : 4.3862;
+        double wobble = 0.02 * Math.sin(day.toEpochDay() / 9.0 + (euro ? 0 : 1.3) + (spec.seed() % 97));
+        return Math.round((level + wobble) * 10_000) / 10_000.0;
+    }
+
+    /**
+     * @return the alert workload: price alerts on listed products with targets at 70-100% of their usual price
+     */
+    public List<AlertRequestDTO> alerts() {
+        List<AlertRequestDTO> alerts = new ArrayList<>(spec.alerts());
+        for (int i = 0; i < spec.alerts(); i++) {
+            int sku = listedSku(hash(i, WORKLOAD));
+            AlertRequestDTO alert = new AlertRequestDTO();
+            alert.setProductName(productName(sku));
+            // 70-100% of the usual price, so some alerts fire on discounts and most wait.
+            alert.setTargetPrice(BigDecimal.valueOf(
+                    Math.round(basePrice(sku) * (0.7 + 0.3 * fraction(hash(i, WORKLOAD + 1)))), 2));
+            alerts.add(alert);
+        }
+        return alerts;
+    }
+
+    /**
+     * @return the basket workload: shopping lists of {@link MarketDataSpec#basketSize()} listed products
+     */
+    public List<BasketRequestDTO> baskets() {
+        List<BasketRequestDTO> baskets = new ArrayList<>(spec.baskets());
+        for (int b = 0; b < spec.baskets(); b++) {
+            List<String> products = new ArrayList<>(spec.basketSize());
+            for (int i = 0; i < spec.basketSize(); i++) {
+                products.add(productName(listedSku(hash(hash(b, WORKLOAD + 2), i))));
+            }
+            BasketRequestDTO basket = new BasketRequestDTO();
+            basket.setProducts(products);
+            baskets.add(basket);
+        }
+        return baskets;
+    }
+
+    private void writeWorkloads(Path dir, List<AlertRequestDTO> alerts, List<BasketRequestDTO> baskets)
+            throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(dir.resolve("alerts.ndjson"))) {
+            for (AlertRequestDTO alert : alerts) {
+                writer.write("{\"productName\":\"" + alert.getProductName() + "\",\"targetPrice\":"
+                        + alert.getTargetPrice().toPlainString() + "}\n");
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(dir.resolve("baskets.ndjson"))) {
+            for (BasketRequestDTO basket : baskets) {
+                writer.write("{\"products\":[\"" + String.join("\",\"", basket.getProducts()) + "\"]}\n");
+            }
+        }
+    }
+
+    /**
+     * Picks a SKU, starting from a random one, that at least one store lists.
+     */
+    private int listedSku(long draw) {
+        int sku = (int) (unsigned(draw) % spec.skus());
+        for (int tries = 0; tries < spec.skus(); tries++, sku = (sku + 1) % spec.skus()) {
+            for (int store = 0; store < spec.stores(); store++) {
+                if (isListed(store, sku)) {
+                    return sku;
+                }
+            }
+        }
+        throw new IllegalStateException("No store lists any SKU; raise the assortment ratio");
+    }
+
+    private boolean isListed(int store, int sku) {
+        return fraction(hash(hash(store, sku, -1), LISTED)) < spec.assortment();
+    }
+
+    private Kind kind(int sku) {
+        return KINDS[sku % KINDS.length];
+    }
+
+    /**
+     * @return the SKU's usual package price in RON minor units, before store and snapshot variation
+     */
+    private long basePrice(int sku) {
+        Kind kind = kind(sku);
+        return kind.minPrice() + unsigned(hash(sku, PRICE)) % (kind.maxPrice() - kind.minPrice() + 1);
+    }
+
+    private String brand(int sku) {
+        return BRANDS[(sku / KINDS.length) % BRANDS.length];
+    }
+
+    private static String productId(int sku) {
+        String digits = Integer.toString(sku + 1);
+        return "P" + "0".repeat(Math.max(0, 8 - digits.length())) + digits;
+    }
+
+    private static void appendMinor(StringBuilder row, long minor) {
+        long fraction = minor % 100;
+        row.append(minor / 100).append('.');
+        if (fraction < 10) {
+            row.append('0');
+        }
+        row.append(fraction);
+    }
+
+    private long hash(int store, int sku, int snapshot) {
+        return mix(spec.seed() ^ mix(store * 0x9E3779B97F4A7C15L ^ mix(sku + 0x632BE59BD9B4E019L
+                ^ mix(snapshot * 0xD6E8FEB86659FD93L))));
+    }
+
+    private long hash(long key, long salt) {
+        return mix(spec.seed() ^ mix(key + salt * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long unsigned(long value) {
+        return value >>> 1;
+    }
+
+    private static double fraction(long value) {
+        return (value >>> 11) * 0x1.0p-53;
+    }
+
+    private record Kind(String noun, String category, String unit, String[] quantities, long minPrice,
+                        long maxPrice) {
+    }
+}
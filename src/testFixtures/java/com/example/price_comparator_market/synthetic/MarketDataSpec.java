@@ -0,0 +1,162 @@
+package com.example.price_comparator_market.synthetic;
+
+import java.time.LocalDate;
+
+/**
+ * Parameters of a {@link MarketDataGenerator} run. Start from {@link #defaults()} and override with the
+ * {@code with...} methods, or {@link #parse(String[])} {@code key=value} arguments named after the components.
+ *
+ * @param seed                    the random seed; equal specs produce identical data
+ * @param stores                  the number of store chains
+ * @param skus                    the number of distinct products across all stores
+ * @param assortment              the share of SKUs each store lists, in {@code (0, 1]}
+ * @param discountDensity         the share of listed products discounted in each snapshot
+ * @param maxOverlappingDiscounts the most discount windows one product gets per snapshot; they may overlap
+ * @param foreignCurrencyRatio    the share of listings priced in EUR or USD instead of RON
+ * @param startDate               the date of the first snapshot
+ * @param snapshots               the number of dated price and discount snapshots
+ * @param snapshotIntervalDays    the days between snapshots
+ * @param alerts                  the number of price alerts in the workload
+ * @param baskets                 the number of shopping baskets in the workload
+ * @param basketSize              the products per basket
+ * @param out                     the output directory, for command-line runs
+ */
+public record MarketDataSpec(
+        long seed,
+        int stores,
+        int skus,
+        double assortment,
+        double discountDensity,
+        int maxOverlappingDiscounts,
+        double foreignCurrencyRatio,
+        LocalDate startDate,
+        int snapshots,
+        int snapshotIntervalDays,
+        int alerts,
+        int baskets,
+        int basketSize,
+        String out
+) {
+
+    public MarketDataSpec {
+        if (stores < 1 || skus < 1 || snapshots < 1 || snapshotIntervalDays < 1 || maxOverlappingDiscounts < 1) {
+            throw new IllegalArgumentException("stores, skus, snapshots, snapshotIntervalDays and "
+                    + "maxOverlappingDiscounts must be positive");
+        }
+        if (assortment <= 0 || assortment > 1 || discountDensity < 0 || discountDensity > 1
+                || foreignCurrencyRatio < 0 || foreignCurrencyRatio > 1) {
+            throw new IllegalArgumentException("ratios must be between 0 and 1");
+        }
+    }
+
+    /**
+     * @return 3 stores of 1,000 SKUs, one snapshot on 2025-05-01, 20% of listings discounted, 5% in foreign
+     *         currencies, 100 alerts and 100 baskets of 10 products
+     */
+    public static MarketDataSpec defaults() {
+        return new MarketDataSpec(42, 3, 1_000, 0.8, 0.2, 3, 0.05, LocalDate.of(2025, 5, 1), 1, 7, 100, 100, 10,
+                "build/market-data");
+    }
+
+    /**
+     * Parses {@code key=value} arguments on top of {@link #defaults()}, e.g. {@code skus=1000000 snapshots=13}.
+     */
+    public static MarketDataSpec parse(String[] args) {
+        MarketDataSpec spec = defaults();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String value = arg.substring(eq + 1);
+            spec = switch (arg.substring(0, eq)) {
+                case "seed" -> spec.withSeed(Long.parseLong(value));
+                case "stores" -> spec.withStores(Integer.parseInt(value));
+                case "skus" -> spec.withSkus(Integer.parseInt(value));
+                case "assortment" -> spec.withAssortment(Double.parseDouble(value));
+                case "discountDensity" -> spec.withDiscountDensity(Double.parseDouble(value));
+                case "maxOverlappingDiscounts" -> spec.withMaxOverlappingDiscounts(Integer.parseInt(value));
+                case "foreignCurrencyRatio" -> spec.withForeignCurrencyRatio(Double.parseDouble(value));
+                case "startDate" -> spec.withStartDate(LocalDate.parse(value));
+                case "snapshots" -> spec.withSnapshots(Integer.parseInt(value));
+                case "snapshotIntervalDays" -> spec.withSnapshotIntervalDays(Integer.parseInt(value));
+                case "alerts" -> spec.withAlerts(Integer.parseInt(value));
+                case "baskets" -> spec.withBaskets(Integer.parseInt(value));
+                case "basketSize" -> spec.withBasketSize(Integer.parseInt(value));
+                case "out" -> spec.withOut(value);
+                default -> throw new IllegalArgumentException("Unknown generator parameter: " + arg);
+            };
+        }
+        return spec;
+    }
+
+    public MarketDataSpec withSeed(long seed) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withStores(int stores) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withSkus(int skus) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withAssortment(double assortment) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withDiscountDensity(double discountDensity) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withMaxOverlappingDiscounts(int maxOverlappingDiscounts) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withForeignCurrencyRatio(double foreignCurrencyRatio) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withStartDate(LocalDate startDate) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withSnapshots(int snapshots) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withSnapshotIntervalDays(int snapshotIntervalDays) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withAlerts(int alerts) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withBaskets(int baskets) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withBasketSize(int basketSize) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+
+    public MarketDataSpec withOut(String out) {
+        return new MarketDataSpec(seed, stores, skus, assortment, discountDensity, maxOverlappingDiscounts,
+                foreignCurrencyRatio, startDate, snapshots, snapshotIntervalDays, alerts, baskets, basketSize, out);
+    }
+}
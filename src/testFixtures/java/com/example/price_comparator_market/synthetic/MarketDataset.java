@@ -0,0 +1,37 @@
+package com.example.price_comparator_market.synthetic;
+
+import com.example.price_comparator_market.dto.AlertRequestDTO;
+import com.example.price_comparator_market.dto.BasketRequestDTO;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Files and workloads written by {@link MarketDataGenerator}.
+ *
+ * @param dir           the output directory
+ * @param priceFiles    price files, ordered by snapshot date then store
+ * @param discountFiles discount files, ordered by snapshot date then store
+ * @param ratesFile     exchange rates covering every snapshot and discount date
+ * @param alerts        price alerts on listed products, also written to {@code alerts.ndjson}
+ * @param baskets       shopping lists of listed products, also written to {@code baskets.ndjson}
+ */
+public record MarketDataset(
+        Path dir,
+        List<Path> priceFiles,
+        List<Path> discountFiles,
+        Path ratesFile,
+        List<AlertRequestDTO> alerts,
+        List<BasketRequestDTO> baskets
+) {
+
+    /**
+     * @return every price and discount file in the order {@code CsvImportService} should import them
+     */
+    public List<Path> importOrder() {
+        List<Path> files = new ArrayList<>(priceFiles);
+        files.addAll(discountFiles);
+        return files;
+    }
+}